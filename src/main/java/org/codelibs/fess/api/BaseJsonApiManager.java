@@ -15,19 +15,16 @@
  */
 package org.codelibs.fess.api;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import java.io.Writer;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.text.StringEscapeUtils;
-import org.codelibs.core.CoreLibConstants;
+import org.codelibs.core.exception.IORuntimeException;
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.exception.InvalidAccessTokenException;
@@ -68,43 +65,47 @@ public abstract class BaseJsonApiManager extends BaseApiManager {
     }
 
     protected void writeJsonResponse(final int status, final String body, final String errMsg) {
-        String content = null;
         if (status == 0) {
-            if (StringUtil.isNotBlank(body)) {
-                content = body;
-            }
+            writeJsonResponse(status, body);
         } else {
-            content = "\"message\":" + escapeJson(errMsg);
+            writeJsonResponse(status, writer -> writer.raw("\"message\":").value(errMsg));
         }
-        writeJsonResponse(status, content);
     }
 
     protected void writeJsonResponse(final int status, final String body) {
+        writeJsonResponse(status, StringUtil.isNotBlank(body) ? writer -> writer.raw(body) : null);
+    }
+
+    protected void writeJsonResponse(final int status, final JsonBody body) {
         final String callback = LaRequestUtil.getRequest().getParameter("callback");
         final boolean isJsonp = StringUtil.isNotBlank(callback);
 
-        final StringBuilder buf = new StringBuilder(1000);
-        if (isJsonp) {
-            buf.append(escapeCallbackName(callback));
-            buf.append('(');
-        }
-        buf.append("{\"response\":");
-        buf.append("{\"version\":");
-        buf.append(ComponentUtil.getSystemHelper().getProductVersion());
-        buf.append(',');
-        buf.append("\"status\":");
-        buf.append(status);
-        if (StringUtil.isNotBlank(body)) {
-            buf.append(',');
-            buf.append(body);
-        }
-        buf.append('}');
-        buf.append('}');
-        if (isJsonp) {
-            buf.append(')');
+        final HttpServletResponse response = LaResponseUtil.getResponse();
+        response.setContentType(mimeType + "; charset=" + Constants.UTF_8);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), Constants.CHARSET_UTF_8))) {
+            final JsonResponseWriter writer = new JsonResponseWriter(out);
+            if (isJsonp) {
+                writer.raw(escapeCallbackName(callback));
+                writer.raw('(');
+            }
+            writer.raw("{\"response\":");
+            writer.raw("{\"version\":");
+            writer.raw(ComponentUtil.getSystemHelper().getProductVersion());
+            writer.raw(',');
+            writer.raw("\"status\":");
+            writer.raw(status);
+            if (body != null) {
+                writer.raw(',');
+                body.write(writer);
+            }
+            writer.raw('}');
+            writer.raw('}');
+            if (isJsonp) {
+                writer.raw(')');
+            }
+        } catch (final IOException e) {
+            throw new IORuntimeException(e);
         }
-        write(buf.toString(), mimeType, Constants.UTF_8);
-
     }
 
     protected String escapeCallbackName(final String callbackName) {
@@ -112,64 +113,18 @@ public abstract class BaseJsonApiManager extends BaseApiManager {
     }
 
     protected String escapeJson(final Object obj) {
-        if (obj == null) {
-            return "null";
+        final StringWriter out = new StringWriter(255);
+        try {
+            new JsonResponseWriter(out).value(obj);
+        } catch (final IOException e) {
+            throw new IORuntimeException(e);
         }
+        return out.toString();
+    }
 
-        final StringBuilder buf = new StringBuilder(255);
-        if (obj instanceof String[]) {
-            buf.append('[');
-            boolean first = true;
-            for (final Object child : (String[]) obj) {
-                if (first) {
-                    first = false;
-                } else {
-                    buf.append(',');
-                }
-                buf.append(escapeJson(child));
-            }
-            buf.append(']');
-        } else if (obj instanceof List<?>) {
-            buf.append('[');
-            boolean first = true;
-            for (final Object child : (List<?>) obj) {
-                if (first) {
-                    first = false;
-                } else {
-                    buf.append(',');
-                }
-                buf.append(escapeJson(child));
-            }
-            buf.append(']');
-        } else if (obj instanceof Map<?, ?>) {
-            buf.append('{');
-            boolean first = true;
-            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
-                if (first) {
-                    first = false;
-                } else {
-                    buf.append(',');
-                }
-                buf.append(escapeJson(entry.getKey())).append(':').append(escapeJson(entry.getValue()));
-            }
-            buf.append('}');
-        } else if (obj instanceof Integer) {
-            buf.append(((Integer) obj).intValue());
-        } else if (obj instanceof Long) {
-            buf.append(((Long) obj).longValue());
-        } else if (obj instanceof Float) {
-            buf.append(((Float) obj).floatValue());
-        } else if (obj instanceof Double) {
-            buf.append(((Double) obj).doubleValue());
-        } else if (obj instanceof Boolean) {
-            buf.append(obj.toString());
-        } else if (obj instanceof Date) {
-            final SimpleDateFormat sdf = new SimpleDateFormat(CoreLibConstants.DATE_FORMAT_ISO_8601_EXTEND, Locale.ROOT);
-            buf.append('\"').append(StringEscapeUtils.escapeJson(sdf.format(obj))).append('\"');
-        } else {
-            buf.append('\"').append(StringEscapeUtils.escapeJson(obj.toString())).append('\"');
-        }
-        return buf.toString();
+    @FunctionalInterface
+    public interface JsonBody {
+        void write(JsonResponseWriter writer) throws IOException;
     }
 
     public void setMimeType(final String mimeType) {
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.api;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.codelibs.core.CoreLibConstants;
+
+/**
+ * Writes JSON tokens directly to a {@link Writer}.
+ * The output of {@link #value(Object)} is the same as {@link BaseJsonApiManager#escapeJson(Object)} has produced.
+ */
+public class JsonResponseWriter {
+
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat(
+            CoreLibConstants.DATE_FORMAT_ISO_8601_EXTEND, Locale.ROOT));
+
+    protected final Writer out;
+
+    public JsonResponseWriter(final Writer out) {
+        this.out = out;
+    }
+
+    public JsonResponseWriter raw(final char c) throws IOException {
+        out.write(c);
+        return this;
+    }
+
+    public JsonResponseWriter raw(final String s) throws IOException {
+        out.write(s);
+        return this;
+    }
+
+    public JsonResponseWriter raw(final long value) throws IOException {
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonResponseWriter string(final CharSequence s) throws IOException {
+        out.write('"');
+        StringEscapeUtils.ESCAPE_JSON.translate(s, out);
+        out.write('"');
+        return this;
+    }
+
+    public JsonResponseWriter value(final Object obj) throws IOException {
+        if (obj == null) {
+            out.write("null");
+        } else if (obj instanceof String[]) {
+            out.write('[');
+            boolean first = true;
+            for (final Object child : (String[]) obj) {
+                if (first) {
+                    first = false;
+                } else {
+                    out.write(',');
+                }
+                value(child);
+            }
+            out.write(']');
+        } else if (obj instanceof List<?>) {
+            out.write('[');
+            boolean first = true;
+            for (final Object child : (List<?>) obj) {
+                if (first) {
+                    first = false;
+                } else {
+                    out.write(',');
+                }
+                value(child);
+            }
+            out.write(']');
+        } else if (obj instanceof Map<?, ?>) {
+            out.write('{');
+            boolean first = true;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+                if (first) {
+                    first = false;
+                } else {
+                    out.write(',');
+                }
+                value(entry.getKey());
+                out.write(':');
+                value(entry.getValue());
+            }
+            out.write('}');
+        } else if (obj instanceof Integer || obj instanceof Long || obj instanceof Float || obj instanceof Double
+                || obj instanceof Boolean) {
+            out.write(obj.toString());
+        } else if (obj instanceof Date) {
+            string(DATE_FORMAT.get().format((Date) obj));
+        } else if (obj instanceof CharSequence) {
+            string((CharSequence) obj);
+        } else {
+            string(obj.toString());
+        }
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
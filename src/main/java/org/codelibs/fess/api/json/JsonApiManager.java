@@ -35,6 +35,7 @@ import org.codelibs.core.exception.IORuntimeException;
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.api.BaseJsonApiManager;
+import org.codelibs.fess.api.JsonResponseWriter;
 import org.codelibs.fess.app.service.FavoriteLogService;
 import org.codelibs.fess.app.service.SearchService;
 import org.codelibs.fess.entity.FacetInfo;
@@ -134,37 +135,42 @@ public class JsonApiManager extends BaseJsonApiManager {
             return;
         }
 
-        final StringBuilder buf = new StringBuilder(1000);
         request.setAttribute(Constants.SEARCH_LOG_ACCESS_TYPE, Constants.SEARCH_LOG_ACCESS_TYPE_JSON);
         final JsonRequestParams params = new JsonRequestParams(request, fessConfig);
+        final int numOfSlices = getNumOfSlices(request, fessConfig);
+        final boolean raw = Constants.TRUE.equalsIgnoreCase(request.getParameter("raw"));
         try {
             response.setContentType("application/x-ndjson; charset=UTF-8");
+            final JsonResponseWriter[] writers = new JsonResponseWriter[1];
             final long count = searchService.scrollSearch(params, doc -> {
-                buf.setLength(0);
-                buf.append('{');
-                boolean first2 = true;
-                for (final Map.Entry<String, Object> entry : doc.entrySet()) {
-                    final String name = entry.getKey();
-                    if (StringUtil.isNotBlank(name) && entry.getValue() != null) {
-                        if (!first2) {
-                            buf.append(',');
-                        } else {
-                            first2 = false;
+                try {
+                    // the writer is created on the first document so that an error response can still be written before it
+                    if (writers[0] == null) {
+                        writers[0] = new JsonResponseWriter(response.getWriter());
+                    }
+                    final JsonResponseWriter writer = writers[0];
+                    writer.raw('{');
+                    boolean first2 = true;
+                    for (final Map.Entry<String, Object> entry : doc.entrySet()) {
+                        final String name = entry.getKey();
+                        if (StringUtil.isNotBlank(name) && entry.getValue() != null) {
+                            if (!first2) {
+                                writer.raw(',');
+                            } else {
+                                first2 = false;
+                            }
+                            writer.value(name);
+                            writer.raw(':');
+                            writer.value(entry.getValue());
                         }
-                        buf.append(escapeJson(name));
-                        buf.append(':');
-                        buf.append(escapeJson(entry.getValue()));
                     }
-                }
-                buf.append('}');
-                buf.append('\n');
-                try {
-                    response.getWriter().print(buf.toString());
+                    writer.raw('}');
+                    writer.raw('\n');
                 } catch (final IOException e) {
                     throw new IORuntimeException(e);
                 }
                 return true;
-            }, OptionalThing.empty());
+            }, OptionalThing.empty(), numOfSlices, raw);
             response.flushBuffer();
             if (logger.isDebugEnabled()) {
                 logger.debug("Loaded " + count + " docs");
@@ -179,6 +185,21 @@ public class JsonApiManager extends BaseJsonApiManager {
 
     }
 
+    protected int getNumOfSlices(final HttpServletRequest request, final FessConfig fessConfig) {
+        final String value = request.getParameter("slices");
+        if (StringUtil.isBlank(value)) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Math.min(Integer.parseInt(value), fessConfig.getApiSearchScrollMaxSlicesAsInteger().intValue()));
+        } catch (final NumberFormatException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Invalid slices: " + value, e);
+            }
+            return 1;
+        }
+    }
+
     protected void processPingRequest(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain) {
         final FessEsClient fessEsClient = ComponentUtil.getFessEsClient();
         int status;
@@ -203,16 +224,26 @@ public class JsonApiManager extends BaseJsonApiManager {
         final RelatedQueryHelper relatedQueryHelper = ComponentUtil.getRelatedQueryHelper();
         final RelatedContentHelper relatedContentHelper = ComponentUtil.getRelatedContentHelper();
 
-        int status = 0;
-        Exception err = null;
-        String query = null;
-        final StringBuilder buf = new StringBuilder(1000); // TODO replace response stream
         request.setAttribute(Constants.SEARCH_LOG_ACCESS_TYPE, Constants.SEARCH_LOG_ACCESS_TYPE_JSON);
+        final SearchRenderData data = new SearchRenderData();
+        final String query;
+        final String[] relatedQueries;
+        final String[] relatedContents;
         try {
-            final SearchRenderData data = new SearchRenderData();
             final JsonRequestParams params = new JsonRequestParams(request, fessConfig);
             query = params.getQuery();
             searchService.search(params, data, OptionalThing.empty());
+            relatedQueries = relatedQueryHelper.getRelatedQueries(params.getQuery());
+            relatedContents = relatedContentHelper.getRelatedContents(params.getQuery());
+        } catch (final Exception e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to process a search request.", e);
+            }
+            writeJsonResponse(1, null, e);
+            return;
+        }
+
+        writeJsonResponse(0, writer -> {
             final String execTime = data.getExecTime();
             final String queryTime = Long.toString(data.getQueryTime());
             final String pageSize = Integer.toString(data.getPageSize());
@@ -232,142 +263,132 @@ public class JsonApiManager extends BaseJsonApiManager {
             final String searchQuery = data.getSearchQuery();
             final long requestedTime = data.getRequestedTime();
 
-            buf.append("\"q\":");
-            buf.append(escapeJson(query));
-            buf.append(",\"query_id\":");
-            buf.append(escapeJson(queryId));
-            buf.append(",\"exec_time\":");
-            buf.append(execTime);
-            buf.append(",\"query_time\":");
-            buf.append(queryTime);
-            buf.append(',');
-            buf.append("\"page_size\":");
-            buf.append(pageSize);
-            buf.append(',');
-            buf.append("\"page_number\":");
-            buf.append(currentPageNumber);
-            buf.append(',');
-            buf.append("\"record_count\":");
-            buf.append(allRecordCount);
-            buf.append(',');
-            buf.append("\"page_count\":");
-            buf.append(allPageCount);
-            buf.append(",\"highlight_params\":");
-            buf.append(escapeJson(highlightParams));
-            buf.append(",\"next_page\":");
-            buf.append(escapeJson(nextPage));
-            buf.append(",\"prev_page\":");
-            buf.append(escapeJson(prevPage));
-            buf.append(",\"start_record_number\":");
-            buf.append(startRecordNumber);
-            buf.append(",\"end_record_number\":");
-            buf.append(escapeJson(endRecordNumber));
-            buf.append(",\"page_numbers\":");
-            buf.append(escapeJson(pageNumbers));
-            buf.append(",\"partial\":");
-            buf.append(escapeJson(partial));
-            buf.append(",\"search_query\":");
-            buf.append(escapeJson(searchQuery));
-            buf.append(",\"requested_time\":");
-            buf.append(requestedTime);
-            final String[] relatedQueries = relatedQueryHelper.getRelatedQueries(params.getQuery());
-            buf.append(",\"related_query\":");
-            buf.append(escapeJson(relatedQueries));
-            final String[] relatedContents = relatedContentHelper.getRelatedContents(params.getQuery());
-            buf.append(",\"related_contents\":");
-            buf.append(escapeJson(relatedContents));
-            buf.append(',');
-            buf.append("\"result\":[");
+            writer.raw("\"q\":");
+            writer.value(query);
+            writer.raw(",\"query_id\":");
+            writer.value(queryId);
+            writer.raw(",\"exec_time\":");
+            writer.raw(execTime);
+            writer.raw(",\"query_time\":");
+            writer.raw(queryTime);
+            writer.raw(',');
+            writer.raw("\"page_size\":");
+            writer.raw(pageSize);
+            writer.raw(',');
+            writer.raw("\"page_number\":");
+            writer.raw(currentPageNumber);
+            writer.raw(',');
+            writer.raw("\"record_count\":");
+            writer.raw(allRecordCount);
+            writer.raw(',');
+            writer.raw("\"page_count\":");
+            writer.raw(allPageCount);
+            writer.raw(",\"highlight_params\":");
+            writer.value(highlightParams);
+            writer.raw(",\"next_page\":");
+            writer.value(nextPage);
+            writer.raw(",\"prev_page\":");
+            writer.value(prevPage);
+            writer.raw(",\"start_record_number\":");
+            writer.raw(startRecordNumber);
+            writer.raw(",\"end_record_number\":");
+            writer.value(endRecordNumber);
+            writer.raw(",\"page_numbers\":");
+            writer.value(pageNumbers);
+            writer.raw(",\"partial\":");
+            writer.value(partial);
+            writer.raw(",\"search_query\":");
+            writer.value(searchQuery);
+            writer.raw(",\"requested_time\":");
+            writer.raw(requestedTime);
+            writer.raw(",\"related_query\":");
+            writer.value(relatedQueries);
+            writer.raw(",\"related_contents\":");
+            writer.value(relatedContents);
+            writer.raw(',');
+            writer.raw("\"result\":[");
             if (!documentItems.isEmpty()) {
                 boolean first1 = true;
                 for (final Map<String, Object> document : documentItems) {
                     if (!first1) {
-                        buf.append(',');
+                        writer.raw(',');
                     } else {
                         first1 = false;
                     }
-                    buf.append('{');
+                    writer.raw('{');
                     boolean first2 = true;
                     for (final Map.Entry<String, Object> entry : document.entrySet()) {
                         final String name = entry.getKey();
                         if (StringUtil.isNotBlank(name) && entry.getValue() != null
                                 && ComponentUtil.getQueryHelper().isApiResponseField(name)) {
                             if (!first2) {
-                                buf.append(',');
+                                writer.raw(',');
                             } else {
                                 first2 = false;
                             }
-                            buf.append(escapeJson(name));
-                            buf.append(':');
-                            buf.append(escapeJson(entry.getValue()));
+                            writer.value(name);
+                            writer.raw(':');
+                            writer.value(entry.getValue());
                         }
                     }
-                    buf.append('}');
+                    writer.raw('}');
                 }
             }
-            buf.append(']');
+            writer.raw(']');
             if (facetResponse != null && facetResponse.hasFacetResponse()) {
                 // facet field
-                buf.append(',');
-                buf.append("\"facet_field\":[");
+                writer.raw(',');
+                writer.raw("\"facet_field\":[");
                 if (facetResponse.getFieldList() != null) {
                     boolean first1 = true;
                     for (final Field field : facetResponse.getFieldList()) {
                         if (!first1) {
-                            buf.append(',');
+                            writer.raw(',');
                         } else {
                             first1 = false;
                         }
-                        buf.append("{\"name\":");
-                        buf.append(escapeJson(field.getName()));
-                        buf.append(",\"result\":[");
+                        writer.raw("{\"name\":");
+                        writer.value(field.getName());
+                        writer.raw(",\"result\":[");
                         boolean first2 = true;
                         for (final Map.Entry<String, Long> entry : field.getValueCountMap().entrySet()) {
                             if (!first2) {
-                                buf.append(',');
+                                writer.raw(',');
                             } else {
                                 first2 = false;
                             }
-                            buf.append("{\"value\":");
-                            buf.append(escapeJson(entry.getKey()));
-                            buf.append(",\"count\":");
-                            buf.append(entry.getValue());
-                            buf.append('}');
+                            writer.raw("{\"value\":");
+                            writer.value(entry.getKey());
+                            writer.raw(",\"count\":");
+                            writer.raw(entry.getValue().longValue());
+                            writer.raw('}');
                         }
-                        buf.append(']');
-                        buf.append('}');
+                        writer.raw(']');
+                        writer.raw('}');
                     }
                 }
-                buf.append(']');
+                writer.raw(']');
                 // facet q
-                buf.append(',');
-                buf.append("\"facet_query\":[");
+                writer.raw(',');
+                writer.raw("\"facet_query\":[");
                 if (facetResponse.getQueryCountMap() != null) {
                     boolean first1 = true;
                     for (final Map.Entry<String, Long> entry : facetResponse.getQueryCountMap().entrySet()) {
                         if (!first1) {
-                            buf.append(',');
+                            writer.raw(',');
                         } else {
                             first1 = false;
                         }
-                        buf.append("{\"value\":");
-                        buf.append(escapeJson(entry.getKey()));
-                        buf.append(",\"count\":");
-                        buf.append(entry.getValue());
-                        buf.append('}');
+                        writer.raw("{\"value\":");
+                        writer.value(entry.getKey());
+                        writer.raw(",\"count\":");
+                        writer.raw(entry.getValue().longValue());
+                        writer.raw('}');
                     }
                 }
-                buf.append(']');
+                writer.raw(']');
             }
-        } catch (final Exception e) {
-            status = 1;
-            err = e;
-            if (logger.isDebugEnabled()) {
-                logger.debug("Failed to process a search request.", e);
-            }
-        }
-
-        writeJsonResponse(status, buf.toString(), err);
+        });
 
     }
 
@@ -409,40 +430,39 @@ public class JsonApiManager extends BaseJsonApiManager {
     protected void processLabelRequest(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain) {
         final LabelTypeHelper labelTypeHelper = ComponentUtil.getLabelTypeHelper();
 
-        int status = 0;
-        Exception err = null;
-        final StringBuilder buf = new StringBuilder(255); // TODO replace response stream
+        final List<Map<String, String>> labelTypeItems;
         try {
-            final List<Map<String, String>> labelTypeItems = labelTypeHelper.getLabelTypeItemList(SearchRequestType.JSON);
-            buf.append("\"record_count\":");
-            buf.append(labelTypeItems.size());
+            labelTypeItems = labelTypeHelper.getLabelTypeItemList(SearchRequestType.JSON);
+        } catch (final Exception e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to process a label request.", e);
+            }
+            writeJsonResponse(1, null, e);
+            return;
+        }
+
+        writeJsonResponse(0, writer -> {
+            writer.raw("\"record_count\":");
+            writer.raw(labelTypeItems.size());
             if (!labelTypeItems.isEmpty()) {
-                buf.append(',');
-                buf.append("\"result\":[");
+                writer.raw(',');
+                writer.raw("\"result\":[");
                 boolean first1 = true;
                 for (final Map<String, String> labelMap : labelTypeItems) {
                     if (!first1) {
-                        buf.append(',');
+                        writer.raw(',');
                     } else {
                         first1 = false;
                     }
-                    buf.append("{\"label\":");
-                    buf.append(escapeJson(labelMap.get(Constants.ITEM_LABEL)));
-                    buf.append(", \"value\":");
-                    buf.append(escapeJson(labelMap.get(Constants.ITEM_VALUE)));
-                    buf.append('}');
+                    writer.raw("{\"label\":");
+                    writer.value(labelMap.get(Constants.ITEM_LABEL));
+                    writer.raw(", \"value\":");
+                    writer.value(labelMap.get(Constants.ITEM_VALUE));
+                    writer.raw('}');
                 }
-                buf.append(']');
+                writer.raw(']');
             }
-        } catch (final Exception e) {
-            status = 1;
-            err = e;
-            if (logger.isDebugEnabled()) {
-                logger.debug("Failed to process a label request.", e);
-            }
-        }
-
-        writeJsonResponse(status, buf.toString(), err);
+        });
 
     }
 
@@ -467,38 +487,38 @@ public class JsonApiManager extends BaseJsonApiManager {
 
         final PopularWordHelper popularWordHelper = ComponentUtil.getPopularWordHelper();
 
-        int status = 0;
-        Exception err = null;
-        final StringBuilder buf = new StringBuilder(255); // TODO replace response stream
+        final List<String> popularWordList;
         try {
-            final List<String> popularWordList =
+            popularWordList =
                     popularWordHelper.getWordList(SearchRequestType.JSON, seed, tagList.toArray(new String[tagList.size()]), null, fields,
                             excludes);
-
-            buf.append("\"result\":[");
-            boolean first1 = true;
-            for (final String word : popularWordList) {
-                if (!first1) {
-                    buf.append(',');
-                } else {
-                    first1 = false;
-                }
-                buf.append(escapeJson(word));
-            }
-            buf.append(']');
         } catch (final Exception e) {
+            final int status;
             if (e instanceof WebApiException) {
                 status = ((WebApiException) e).getStatusCode();
             } else {
                 status = 1;
             }
-            err = e;
             if (logger.isDebugEnabled()) {
                 logger.debug("Failed to process a popularWord request.", e);
             }
+            writeJsonResponse(status, null, e);
+            return;
         }
 
-        writeJsonResponse(status, buf.toString(), err);
+        writeJsonResponse(0, writer -> {
+            writer.raw("\"result\":[");
+            boolean first1 = true;
+            for (final String word : popularWordList) {
+                if (!first1) {
+                    writer.raw(',');
+                } else {
+                    first1 = false;
+                }
+                writer.value(word);
+            }
+            writer.raw(']');
+        });
 
     }
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.api.metrics;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.codelibs.fess.Constants;
+import org.codelibs.fess.api.BaseApiManager;
+import org.codelibs.fess.app.service.AccessTokenService;
+import org.codelibs.fess.exception.InvalidAccessTokenException;
+import org.codelibs.fess.exception.WebApiException;
+import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.util.ComponentUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exposes the values of MetricsHelper in the Prometheus text format.
+ * A request needs an access token with one of api.admin.access.permissions.
+ */
+public class MetricsApiManager extends BaseApiManager {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsApiManager.class);
+
+    protected static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    public MetricsApiManager() {
+        setPathPrefix("/api/metrics");
+    }
+
+    @Override
+    public boolean matches(final HttpServletRequest request) {
+        if (!ComponentUtil.getFessConfig().isApiMetricsEnabled()) {
+            return false;
+        }
+        final String servletPath = request.getServletPath();
+        return servletPath.startsWith(pathPrefix);
+    }
+
+    @Override
+    public void process(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain) throws IOException,
+            ServletException {
+        try {
+            if (!isAccessAllowed(request)) {
+                throw new WebApiException(HttpServletResponse.SC_FORBIDDEN, "Invalid access token.");
+            }
+            response.setContentType(CONTENT_TYPE);
+            try (Writer writer = new OutputStreamWriter(response.getOutputStream(), Constants.UTF_8)) {
+                ComponentUtil.getMetricsHelper().write(writer);
+            }
+        } catch (final WebApiException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Web API access error. ", e);
+            }
+            e.sendError(response);
+        }
+    }
+
+    protected boolean isAccessAllowed(final HttpServletRequest request) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        try {
+            return ComponentUtil.getComponent(AccessTokenService.class).getPermissions(request)
+                    .map(permissions -> fessConfig.isApiAdminAccessAllowed(permissions)).orElse(false);
+        } catch (final InvalidAccessTokenException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Invalid access token.", e);
+            }
+            return false;
+        }
+    }
+}
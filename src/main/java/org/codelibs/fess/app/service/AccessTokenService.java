@@ -20,12 +20,15 @@ import static org.codelibs.core.stream.StreamUtil.stream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 
 import org.codelibs.core.beans.util.BeanUtil;
 import org.codelibs.core.lang.StringUtil;
+import org.codelibs.core.security.MessageDigestUtil;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.app.pager.AccessTokenPager;
 import org.codelibs.fess.es.config.cbean.AccessTokenCB;
@@ -38,6 +41,9 @@ import org.codelibs.fess.util.ComponentUtil;
 import org.dbflute.cbean.result.PagingResultBean;
 import org.dbflute.optional.OptionalEntity;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class AccessTokenService {
 
     @Resource
@@ -46,6 +52,17 @@ public class AccessTokenService {
     @Resource
     protected FessConfig fessConfig;
 
+    protected Cache<String, CachedAccessToken> accessTokenCache;
+
+    @PostConstruct
+    public void init() {
+        final long cacheSize = fessConfig.getApiAccessTokenCacheSizeAsInteger().longValue();
+        final long cacheExpire = fessConfig.getApiAccessTokenCacheExpireAsInteger().longValue();
+        if (cacheSize > 0 && cacheExpire > 0) {
+            accessTokenCache = CacheBuilder.newBuilder().maximumSize(cacheSize).expireAfterWrite(cacheExpire, TimeUnit.SECONDS).build();
+        }
+    }
+
     public List<AccessToken> getAccessTokenList(final AccessTokenPager accessTokenPager) {
 
         final PagingResultBean<AccessToken> accessTokenList = accessTokenBhv.selectPage(cb -> {
@@ -68,12 +85,14 @@ public class AccessTokenService {
     public void store(final AccessToken accessToken) {
 
         accessTokenBhv.insertOrUpdate(accessToken, op -> op.setRefreshPolicy(Constants.TRUE));
+        invalidateCache(accessToken);
 
     }
 
     public void delete(final AccessToken accessToken) {
 
         accessTokenBhv.delete(accessToken, op -> op.setRefreshPolicy(Constants.TRUE));
+        invalidateCache(accessToken);
 
     }
 
@@ -94,25 +113,96 @@ public class AccessTokenService {
     public OptionalEntity<Set<String>> getPermissions(final HttpServletRequest request) {
         final String token = ComponentUtil.getAccessTokenHelper().getAccessTokenFromRequest(request);
         if (StringUtil.isNotBlank(token)) {
-            return accessTokenBhv
-                    .selectEntity(cb -> {
-                        cb.query().setToken_Term(token);
-                    })
-                    .map(accessToken -> {
-                        final Set<String> permissionSet = new HashSet<>();
-                        final Long expiredTime = accessToken.getExpiredTime();
-                        if (expiredTime != null && expiredTime.longValue() > 0
-                                && expiredTime.longValue() < ComponentUtil.getSystemHelper().getCurrentTimeAsLong()) {
-                            throw new InvalidAccessTokenException("invalid_token", "The token is expired("
-                                    + FessFunctions.formatDate(FessFunctions.date(expiredTime)) + ").");
-                        }
-                        stream(accessToken.getPermissions()).of(stream -> stream.forEach(permissionSet::add));
-                        final String name = accessToken.getParameterName();
-                        stream(request.getParameterValues(name)).of(
-                                stream -> stream.filter(StringUtil::isNotBlank).forEach(permissionSet::add));
-                        return OptionalEntity.of(permissionSet);
-                    }).orElseThrow(() -> new InvalidAccessTokenException("invalid_token", "Invalid token: " + token));
+            final CachedAccessToken accessToken =
+                    getCachedAccessToken(token).orElseThrow(() -> new InvalidAccessTokenException("invalid_token", "Invalid token: " + token));
+            final Set<String> permissionSet = new HashSet<>();
+            final Long expiredTime = accessToken.getExpiredTime();
+            if (expiredTime != null && expiredTime.longValue() > 0
+                    && expiredTime.longValue() < ComponentUtil.getSystemHelper().getCurrentTimeAsLong()) {
+                throw new InvalidAccessTokenException("invalid_token", "The token is expired("
+                        + FessFunctions.formatDate(FessFunctions.date(expiredTime)) + ").");
+            }
+            stream(accessToken.getPermissions()).of(stream -> stream.forEach(permissionSet::add));
+            final String name = accessToken.getParameterName();
+            stream(request.getParameterValues(name)).of(
+                    stream -> stream.filter(StringUtil::isNotBlank).forEach(permissionSet::add));
+            return OptionalEntity.of(permissionSet);
         }
         return OptionalEntity.empty();
     }
-}
\ No newline at end of file
+
+    protected OptionalEntity<CachedAccessToken> getCachedAccessToken(final String token) {
+        final String key = accessTokenCache != null ? MessageDigestUtil.digest("SHA-256", token) : null;
+        if (key != null) {
+            final CachedAccessToken accessToken = accessTokenCache.getIfPresent(key);
+            if (accessToken != null) {
+                return OptionalEntity.of(accessToken);
+            }
+        }
+        final OptionalEntity<AccessToken> entity = selectAccessToken(token);
+        if (!entity.isPresent()) {
+            // unknown tokens are not cached, so a new token is available at once
+            return OptionalEntity.empty();
+        }
+        final CachedAccessToken accessToken = new CachedAccessToken(entity.get());
+        if (key != null) {
+            accessTokenCache.put(key, accessToken);
+        }
+        return OptionalEntity.of(accessToken);
+    }
+
+    protected OptionalEntity<AccessToken> selectAccessToken(final String token) {
+        return accessTokenBhv.selectEntity(cb -> {
+            cb.query().setToken_Term(token);
+        });
+    }
+
+    /**
+     * Removes the cached token of the entity. A token replaced by an update is found by the id.
+     */
+    protected void invalidateCache(final AccessToken accessToken) {
+        if (accessTokenCache == null) {
+            return;
+        }
+        if (StringUtil.isNotBlank(accessToken.getToken())) {
+            accessTokenCache.invalidate(MessageDigestUtil.digest("SHA-256", accessToken.getToken()));
+        }
+        final String id = accessToken.getId();
+        if (id != null) {
+            accessTokenCache.asMap().values().removeIf(t -> id.equals(t.getId()));
+        }
+    }
+
+    protected static class CachedAccessToken {
+        private final String id;
+
+        private final String[] permissions;
+
+        private final String parameterName;
+
+        private final Long expiredTime;
+
+        protected CachedAccessToken(final AccessToken accessToken) {
+            id = accessToken.getId();
+            permissions = accessToken.getPermissions();
+            parameterName = accessToken.getParameterName();
+            expiredTime = accessToken.getExpiredTime();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String[] getPermissions() {
+            return permissions;
+        }
+
+        public String getParameterName() {
+            return parameterName;
+        }
+
+        public Long getExpiredTime() {
+            return expiredTime;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -41,6 +42,7 @@ import org.codelibs.fess.es.client.FessEsClient;
 import org.codelibs.fess.es.client.FessEsClient.SearchConditionBuilder;
 import org.codelibs.fess.es.client.FessEsClientException;
 import org.codelibs.fess.helper.QueryHelper;
+import org.codelibs.fess.helper.SearchResultCacheHelper;
 import org.codelibs.fess.helper.SystemHelper;
 import org.codelibs.fess.helper.ViewHelper;
 import org.codelibs.fess.mylasta.action.FessUserBean;
@@ -54,6 +56,7 @@ import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.DocWriteResponse.Result;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.update.UpdateRequestBuilder;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.common.document.DocumentField;
@@ -110,16 +113,30 @@ public class SearchService {
         } else {
             query = ComponentUtil.getQueryStringBuilder().params(params).build() + " sort:" + sortField;
         }
+        final SearchResultCacheHelper searchResultCacheHelper = ComponentUtil.getSearchResultCacheHelper();
+        final AtomicReference<String> cacheKey = new AtomicReference<>();
+        final AtomicReference<SearchResponse> cachedResponse = new AtomicReference<>();
         final List<Map<String, Object>> documentItems =
                 fessEsClient.search(
                         fessConfig.getIndexDocumentSearchIndex(),
                         fessConfig.getIndexDocumentType(),
                         searchRequestBuilder -> {
                             queryHelper.processSearchPreference(searchRequestBuilder, userBean, query);
-                            return SearchConditionBuilder.builder(searchRequestBuilder).query(query).offset(pageStart).size(pageSize)
-                                    .facetInfo(params.getFacetInfo()).geoInfo(params.getGeoInfo())
-                                    .similarDocHash(params.getSimilarDocHash()).responseFields(queryHelper.getResponseFields())
-                                    .searchRequestType(params.getType()).build();
+                            final boolean built =
+                                    SearchConditionBuilder.builder(searchRequestBuilder).query(query).offset(pageStart).size(pageSize)
+                                            .facetInfo(params.getFacetInfo()).geoInfo(params.getGeoInfo())
+                                            .similarDocHash(params.getSimilarDocHash()).responseFields(queryHelper.getResponseFields())
+                                            .searchRequestType(params.getType()).build();
+                            if (built && searchResultCacheHelper.isEnabled()) {
+                                final String key = searchResultCacheHelper.getCacheKey(searchRequestBuilder);
+                                final SearchResponse response = searchResultCacheHelper.getSearchResponse(key);
+                                if (response != null) {
+                                    cachedResponse.set(response);
+                                    return false;
+                                }
+                                cacheKey.set(key);
+                            }
+                            return built;
                         }, (searchRequestBuilder, execTime, searchResponse) -> {
                             searchResponse.ifPresent(r -> {
                                 if (r.getTotalShards() != r.getSuccessfulShards() && fessConfig.isQueryTimeoutLogging()) {
@@ -130,9 +147,17 @@ public class SearchService {
                                             .append(",\"response\":").append(r.toString()).append('}');
                                     logger.warn(buf.toString());
                                 }
+                                if (cacheKey.get() != null) {
+                                    searchResultCacheHelper.putSearchResponse(cacheKey.get(), r);
+                                }
                             });
                             final QueryResponseList queryResponseList = ComponentUtil.getQueryResponseList();
-                            queryResponseList.init(searchResponse, pageStart, pageSize);
+                            if (cachedResponse.get() != null) {
+                                queryResponseList.init(OptionalEntity.of(cachedResponse.get()), pageStart, pageSize);
+                                queryResponseList.setCached(true);
+                            } else {
+                                queryResponseList.init(searchResponse, pageStart, pageSize);
+                            }
                             return queryResponseList;
                         });
         data.setDocumentItems(documentItems);
@@ -152,6 +177,10 @@ public class SearchService {
         }
 
         queryResponseList.setExecTime(System.currentTimeMillis() - startTime);
+        if (ComponentUtil.hasMetricsHelper()) {
+            ComponentUtil.getMetricsHelper().observeSearch(queryResponseList.getExecTime(), queryResponseList.getQueryTime(),
+                    queryResponseList.isCached());
+        }
         final NumberFormat nf = NumberFormat.getInstance(params.getLocale());
         nf.setMaximumIntegerDigits(2);
         nf.setMaximumFractionDigits(2);
@@ -195,6 +224,11 @@ public class SearchService {
 
     public long scrollSearch(final SearchRequestParams params, final Function<Map<String, Object>, Boolean> cursor,
             final OptionalThing<FessUserBean> userBean) {
+        return scrollSearch(params, cursor, userBean, 1, false);
+    }
+
+    public long scrollSearch(final SearchRequestParams params, final Function<Map<String, Object>, Boolean> cursor,
+            final OptionalThing<FessUserBean> userBean, final int numOfSlices, final boolean raw) {
         LaRequestUtil.getOptionalRequest().ifPresent(request -> {
             request.setAttribute(Constants.REQUEST_LANGUAGES, params.getLanguages());
             request.setAttribute(Constants.REQUEST_QUERIES, params.getQuery());
@@ -228,7 +262,7 @@ public class SearchService {
                                 .collect(Collectors.toMap(e -> e.getKey(), e -> (Object) e.getValue().getValues())));
                     }
 
-                    final ViewHelper viewHelper = ComponentUtil.getViewHelper();
+                    final ViewHelper viewHelper = raw ? null : ComponentUtil.getViewHelper();
                     if (viewHelper != null && !docMap.isEmpty()) {
                         docMap.put(fessConfig.getResponseFieldContentTitle(), viewHelper.getContentTitle(docMap));
                         docMap.put(fessConfig.getResponseFieldContentDescription(), viewHelper.getContentDescription(docMap));
@@ -243,7 +277,7 @@ public class SearchService {
                     docMap.put(fessConfig.getIndexFieldId(), hit.getId());
                     docMap.put(fessConfig.getIndexFieldVersion(), hit.getVersion());
                     return docMap;
-                }, cursor);
+                }, cursor, numOfSlices, fessConfig.getApiSearchScrollBufferSizeAsInteger().intValue());
     }
 
     public long deleteByQuery(final HttpServletRequest request, final SearchRequestParams params) {
@@ -253,8 +287,11 @@ public class SearchService {
         final QueryContext queryContext = queryHelper.build(params.getType(), query, context -> {
             context.skipRoleQuery();
         });
-        return fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(),
-                queryContext.getQueryBuilder());
+        final long count =
+                fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(),
+                        queryContext.getQueryBuilder());
+        ComponentUtil.getSearchResultCacheHelper().clearCache();
+        return count;
     }
 
     public String[] getLanguages(final HttpServletRequest request, final SearchRequestParams params) {
@@ -307,11 +344,7 @@ public class SearchService {
                             QueryBuilders.boolQuery().must(QueryBuilders.termQuery(fessConfig.getIndexFieldDocId(), docId));
                     final Set<String> roleSet = ComponentUtil.getRoleQueryHelper().build(SearchRequestType.JSON); // TODO SearchRequestType?
                     if (!roleSet.isEmpty()) {
-                        final BoolQueryBuilder roleQuery = QueryBuilders.boolQuery();
-                        roleSet.stream().forEach(name -> {
-                            roleQuery.should(QueryBuilders.termQuery(fessConfig.getIndexFieldRole(), name));
-                        });
-                        boolQuery.filter(roleQuery);
+                        boolQuery.filter(queryHelper.buildRoleFilter(roleSet));
                     }
                     builder.setQuery(boolQuery);
                     builder.setFetchSource(fields, null);
@@ -332,11 +365,7 @@ public class SearchService {
                     if (searchRequestType != SearchRequestType.ADMIN_SEARCH) {
                         final Set<String> roleSet = ComponentUtil.getRoleQueryHelper().build(searchRequestType);
                         if (!roleSet.isEmpty()) {
-                            final BoolQueryBuilder roleQuery = QueryBuilders.boolQuery();
-                            roleSet.stream().forEach(name -> {
-                                roleQuery.should(QueryBuilders.termQuery(fessConfig.getIndexFieldRole(), name));
-                            });
-                            boolQuery.filter(roleQuery);
+                            boolQuery.filter(queryHelper.buildRoleFilter(roleSet));
                         }
                     }
                     builder.setQuery(boolQuery);
@@ -348,7 +377,10 @@ public class SearchService {
     }
 
     public boolean update(final String id, final String field, final Object value) {
-        return fessEsClient.update(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), id, field, value);
+        final boolean result =
+                fessEsClient.update(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), id, field, value);
+        ComponentUtil.getSearchResultCacheHelper().clearCache();
+        return result;
     }
 
     public boolean update(final String id, final Consumer<UpdateRequestBuilder> builderLambda) {
@@ -357,6 +389,7 @@ public class SearchService {
                     fessEsClient.prepareUpdate(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), id);
             builderLambda.accept(builder);
             final UpdateResponse response = builder.execute().actionGet(fessConfig.getIndexIndexTimeout());
+            ComponentUtil.getSearchResultCacheHelper().clearCache();
             return response.getResult() == Result.CREATED || response.getResult() == Result.UPDATED;
         } catch (final ElasticsearchException e) {
             throw new FessEsClientException("Failed to update doc  " + id, e);
@@ -368,6 +401,7 @@ public class SearchService {
         consumer.accept(builder);
         try {
             final BulkResponse response = builder.execute().get();
+            ComponentUtil.getSearchResultCacheHelper().clearCache();
             if (response.hasFailures()) {
                 throw new FessEsClientException(response.buildFailureMessage());
             } else {
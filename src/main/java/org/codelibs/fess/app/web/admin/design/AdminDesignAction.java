@@ -273,6 +273,7 @@ public class AdminDesignAction extends FessAdminAction {
         verifyToken(() -> asEditHtml(form));
         try {
             write(jspFile.getAbsolutePath(), form.content.getBytes(Constants.UTF_8));
+            ComponentUtil.getViewHelper().clearCacheTemplate();
             saveInfo(messages -> messages.addSuccessUpdateDesignJspFile(GLOBAL, jspFile.getAbsolutePath()));
         } catch (final Exception e) {
             logger.error("Failed to update {}", form.fileName, e);
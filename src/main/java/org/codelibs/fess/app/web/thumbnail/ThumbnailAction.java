@@ -18,13 +18,20 @@ package org.codelibs.fess.app.web.thumbnail;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletResponse;
 
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.fess.app.web.base.FessSearchAction;
+import org.codelibs.fess.entity.SearchRequestParams.SearchRequestType;
+import org.codelibs.fess.util.ComponentUtil;
 import org.codelibs.fess.util.DocumentUtil;
 import org.lastaflute.web.Execute;
 import org.lastaflute.web.response.ActionResponse;
@@ -51,28 +58,85 @@ public class ThumbnailAction extends FessSearchAction {
             return redirectToLogin();
         }
 
-        final Map<String, Object> doc =
-                searchService.getDocumentByDocId(form.docId, queryHelper.getResponseFields(), getUserBean()).orElse(null);
-        final String url = DocumentUtil.getValue(doc, fessConfig.getIndexFieldThumbnail(), String.class);
-        if (StringUtil.isBlank(form.queryId) || StringUtil.isBlank(url) || !thumbnailSupport) {
+        if (StringUtil.isBlank(form.queryId) || !thumbnailSupport) {
             // 404
             throw responseManager.new404("Thumbnail for " + form.docId + " is not found.");
         }
 
-        final File thumbnailFile = thumbnailManager.getThumbnailFile(doc);
+        final String cacheKey = getThumbnailCacheKey(form.docId);
+        File thumbnailFile = thumbnailManager.getCachedThumbnailFile(cacheKey);
         if (thumbnailFile == null) {
-            if (fessConfig.isThumbnailEnabled()) {
-                thumbnailManager.offer(doc);
+            final Map<String, Object> doc =
+                    searchService.getDocumentByDocId(form.docId, getThumbnailResponseFields(), getUserBean()).orElse(null);
+            final String url = DocumentUtil.getValue(doc, fessConfig.getIndexFieldThumbnail(), String.class);
+            if (StringUtil.isBlank(url)) {
+                // 404
+                throw responseManager.new404("Thumbnail for " + form.docId + " is not found.");
             }
-            // 404
-            throw responseManager.new404("Thumbnail for " + form.docId + " is under generating.");
+
+            thumbnailFile = thumbnailManager.getThumbnailFile(doc);
+            if (thumbnailFile == null) {
+                if (fessConfig.isThumbnailEnabled()) {
+                    thumbnailManager.offer(doc);
+                }
+                // 404
+                throw responseManager.new404("Thumbnail for " + form.docId + " is under generating.");
+            }
+            thumbnailManager.putThumbnailFile(cacheKey, thumbnailFile);
         }
 
-        return asStream(form.docId).contentType(getImageMimeType(thumbnailFile)).stream(out -> {
-            try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(thumbnailFile))) {
-                out.write(in);
+        final long lastModified = thumbnailFile.lastModified() / 1000L * 1000L;
+        final String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(thumbnailFile.length()) + "\"";
+        final String cacheControl = "private, max-age=" + fessConfig.getThumbnailHttpCacheMaxAge();
+        if (isNotModified(etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader("ETag", etag);
+            response.setHeader("Cache-Control", cacheControl);
+            return ActionResponse.undefined();
+        }
+
+        final File file = thumbnailFile;
+        final String lastModifiedValue =
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(lastModified).atOffset(ZoneOffset.UTC));
+        return asStream(form.docId).contentType(getImageMimeType(file))//
+                .header("ETag", etag)//
+                .header("Last-Modified", lastModifiedValue)//
+                .header("Cache-Control", cacheControl)//
+                .stream(out -> {
+                    try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                        out.write(in);
+                    }
+                });
+    }
+
+    protected String getThumbnailCacheKey(final String docId) {
+        final Set<String> roleSet = new TreeSet<>(ComponentUtil.getRoleQueryHelper().build(SearchRequestType.JSON));
+        return docId + "\n" + String.join("\n", roleSet);
+    }
+
+    protected String[] getThumbnailResponseFields() {
+        // fields used by ThumbnailManager and its generators
+        return new String[] { fessConfig.getIndexFieldId(), fessConfig.getIndexFieldDocId(), fessConfig.getIndexFieldUrl(),
+                fessConfig.getIndexFieldThumbnail(), fessConfig.getIndexFieldConfigId(), fessConfig.getIndexFieldMimetype() };
+    }
+
+    protected boolean isNotModified(final String etag, final long lastModified) {
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (final String value : ifNoneMatch.split(",")) {
+                final String tag = value.trim();
+                if ("*".equals(tag) || etag.equals(tag) || ("W/" + etag).equals(tag)) {
+                    return true;
+                }
             }
-        });
+            return false;
+        }
+        try {
+            final long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
     }
 
     protected String getImageMimeType(final File imageFile) {
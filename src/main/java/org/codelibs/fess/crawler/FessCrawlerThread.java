@@ -45,6 +45,7 @@ import org.codelibs.fess.helper.CrawlingConfigHelper;
 import org.codelibs.fess.helper.CrawlingInfoHelper;
 import org.codelibs.fess.helper.DuplicateHostHelper;
 import org.codelibs.fess.helper.IndexingHelper;
+import org.codelibs.fess.helper.MetricsHelper;
 import org.codelibs.fess.helper.SambaHelper;
 import org.codelibs.fess.mylasta.direction.FessConfig;
 import org.codelibs.fess.util.ComponentUtil;
@@ -57,6 +58,17 @@ import jcifs.SID;
 public class FessCrawlerThread extends CrawlerThread {
     private static final Logger logger = LoggerFactory.getLogger(FessCrawlerThread.class);
 
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            if (ComponentUtil.available() && ComponentUtil.hasCrawlerEventHelper()) {
+                ComponentUtil.getCrawlerEventHelper().notifyCrawlerThreadFinished(crawlerContext.getSessionId());
+            }
+        }
+    }
+
     @Override
     protected boolean isContentUpdated(final CrawlerClient client, final UrlQueue<?> urlQueue) {
         if (ComponentUtil.getFessConfig().isIncrementalCrawling()) {
@@ -111,7 +123,7 @@ public class FessCrawlerThread extends CrawlerThread {
                     logger.debug("Searching indexed document: " + id);
                 }
                 final Map<String, Object> document =
-                        indexingHelper.getDocument(
+                        indexingHelper.getPrefetchedDocument(
                                 fessEsClient,
                                 id,
                                 new String[] { fessConfig.getIndexFieldId(), fessConfig.getIndexFieldLastModified(),
@@ -249,7 +261,16 @@ public class FessCrawlerThread extends CrawlerThread {
 
     @Override
     protected void processResponse(final UrlQueue<?> urlQueue, final ResponseData responseData) {
+        final long startTime = System.currentTimeMillis();
         super.processResponse(urlQueue, responseData);
+        if (ComponentUtil.hasMetricsHelper()) {
+            final MetricsHelper metricsHelper = ComponentUtil.getMetricsHelper();
+            metricsHelper.observeCrawlerFetch(responseData.getExecutionTime());
+            metricsHelper.observeCrawlerTransform(System.currentTimeMillis() - startTime);
+        }
+        if (ComponentUtil.hasCrawlerEventHelper()) {
+            ComponentUtil.getCrawlerEventHelper().notifyAccessResultUpdated();
+        }
 
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         if (fessConfig.isCrawlerFailureUrlStatusCodes(responseData.getHttpStatusCode())) {
@@ -269,6 +290,40 @@ public class FessCrawlerThread extends CrawlerThread {
             final DuplicateHostHelper duplicateHostHelper = ComponentUtil.getDuplicateHostHelper();
             final String url = duplicateHostHelper.convert(childUrl);
             super.storeChildUrl(url, parentUrl, metaData, depth);
+            if (isAcceptedChildUrl(url, depth)) {
+                prefetchDocument(url);
+            }
+        }
+    }
+
+    protected boolean isAcceptedChildUrl(final String url, final int depth) {
+        if (crawlerContext.getMaxDepth() >= 0 && depth > crawlerContext.getMaxDepth()) {
+            return false;
+        }
+        return crawlerContext.getUrlFilter().match(url);
+    }
+
+    protected void prefetchDocument(final String url) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        if (!fessConfig.isIncrementalCrawling() || (url.startsWith("smb://") && fessConfig.isSmbRoleFromFile())) {
+            return;
+        }
+
+        try {
+            final CrawlingConfig crawlingConfig = ComponentUtil.getCrawlingConfigHelper().get(crawlerContext.getSessionId());
+            if (crawlingConfig == null) {
+                return;
+            }
+            final Map<String, Object> dataMap = new HashMap<>();
+            dataMap.put(fessConfig.getIndexFieldUrl(), url);
+            final List<String> roleTypeList = new ArrayList<>();
+            stream(crawlingConfig.getPermissions()).of(stream -> stream.forEach(p -> roleTypeList.add(p)));
+            dataMap.put(fessConfig.getIndexFieldRole(), roleTypeList);
+            ComponentUtil.getIndexingHelper().addPrefetchDocumentId(ComponentUtil.getCrawlingInfoHelper().generateId(dataMap));
+        } catch (final Exception e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to add a prefetch target: " + url, e);
+            }
         }
     }
 }
@@ -31,7 +31,6 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.tika.metadata.HttpHeaders;
 import org.apache.tika.metadata.TikaMetadataKeys;
-import org.codelibs.core.io.SerializeUtil;
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.core.misc.Pair;
 import org.codelibs.fess.Constants;
@@ -84,7 +83,7 @@ public abstract class AbstractFessFileTransformer extends AbstractTransformer im
         final ResultData resultData = new ResultData();
         resultData.setTransformerName(getName());
         try {
-            resultData.setData(SerializeUtil.fromObjectToBinary(generateData(responseData)));
+            resultData.setData(ComponentUtil.getResultDataCodec().encode(generateData(responseData)));
         } catch (final Exception e) {
             throw new CrawlingAccessException("Could not serialize object", e);
         }
@@ -490,7 +489,7 @@ public abstract class AbstractFessFileTransformer extends AbstractTransformer im
         final byte[] data = accessResultData.getData();
         if (data != null) {
             try {
-                return SerializeUtil.fromBinaryToObject(data);
+                return ComponentUtil.getResultDataCodec().decode(data);
             } catch (final Exception e) {
                 throw new CrawlerSystemException("Could not create an instanced from bytes.", e);
             }
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.crawler.transformer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.annotation.PostConstruct;
+
+import org.codelibs.core.exception.IORuntimeException;
+import org.codelibs.core.io.SerializeUtil;
+import org.codelibs.fess.exception.FessSystemException;
+import org.codelibs.fess.util.ComponentUtil;
+
+/**
+ * Encodes a data map in a schema-less binary format:
+ * a 4-byte header followed by typed values, where strings are length-prefixed UTF-8,
+ * dates are epoch milliseconds and, if crawler.result.data.compression.enabled is true, long strings are compressed with Deflate.
+ * A value of an unknown type is stored with Java serialization.
+ * Data without the header is decoded with Java serialization, so data stored by an older version can still be read.
+ */
+public class BinaryResultDataCodec implements ResultDataCodec {
+
+    protected static final byte[] MAGIC = { 'F', 'R', 'D', 1 };
+
+    protected static final int TYPE_NULL = 0;
+
+    protected static final int TYPE_STRING = 1;
+
+    protected static final int TYPE_COMPRESSED_STRING = 2;
+
+    protected static final int TYPE_INTEGER = 3;
+
+    protected static final int TYPE_LONG = 4;
+
+    protected static final int TYPE_FLOAT = 5;
+
+    protected static final int TYPE_DOUBLE = 6;
+
+    protected static final int TYPE_BOOLEAN = 7;
+
+    protected static final int TYPE_DATE = 8;
+
+    protected static final int TYPE_STRING_ARRAY = 9;
+
+    protected static final int TYPE_LIST = 10;
+
+    protected static final int TYPE_MAP = 11;
+
+    protected static final int TYPE_BYTES = 12;
+
+    protected static final int TYPE_SERIALIZED = 13;
+
+    protected boolean compressionEnabled = false;
+
+    protected int compressionThreshold = 4096;
+
+    protected int compressionLevel = Deflater.BEST_SPEED;
+
+    @PostConstruct
+    public void init() {
+        compressionEnabled = ComponentUtil.getFessConfig().isCrawlerResultDataCompressionEnabled();
+    }
+
+    @Override
+    public byte[] encode(final Map<String, Object> dataMap) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.write(MAGIC);
+            writeMap(out, dataMap);
+        } catch (final IOException e) {
+            throw new IORuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<String, Object> decode(final byte[] data) {
+        if (!hasMagic(data)) {
+            return (Map<String, Object>) SerializeUtil.fromBinaryToObject(data);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInput(data, MAGIC.length))) {
+            final Object value = readValue(in);
+            if (value instanceof Map) {
+                return (Map<String, Object>) value;
+            }
+            throw new FessSystemException("Invalid data type: " + (value == null ? null : value.getClass().getName()));
+        } catch (final EOFException e) {
+            throw new FessSystemException("Truncated data: " + data.length + " bytes", e);
+        } catch (final IOException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    protected boolean hasMagic(final byte[] data) {
+        if (data.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void writeValue(final DataOutputStream out, final Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt(((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(((Long) value).longValue());
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat(((Float) value).floatValue());
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(((Double) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(((Boolean) value).booleanValue());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof String[]) {
+            final String[] values = (String[]) value;
+            out.writeByte(TYPE_STRING_ARRAY);
+            writeVInt(out, values.length);
+            for (final String s : values) {
+                writeValue(out, s);
+            }
+        } else if (value instanceof List) {
+            final Collection<?> values = (Collection<?>) value;
+            out.writeByte(TYPE_LIST);
+            writeVInt(out, values.size());
+            for (final Object obj : values) {
+                writeValue(out, obj);
+            }
+        } else if (value instanceof Map) {
+            writeMap(out, (Map<?, ?>) value);
+        } else if (value instanceof byte[]) {
+            final byte[] bytes = (byte[]) value;
+            out.writeByte(TYPE_BYTES);
+            writeVInt(out, bytes.length);
+            out.write(bytes);
+        } else {
+            final byte[] bytes = SerializeUtil.fromObjectToBinary(value);
+            out.writeByte(TYPE_SERIALIZED);
+            writeVInt(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    protected void writeMap(final DataOutputStream out, final Map<?, ?> map) throws IOException {
+        out.writeByte(TYPE_MAP);
+        writeVInt(out, map.size());
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    protected void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (compressionEnabled && bytes.length >= compressionThreshold) {
+            final byte[] compressed = deflate(bytes);
+            if (compressed.length < bytes.length) {
+                out.writeByte(TYPE_COMPRESSED_STRING);
+                writeVInt(out, bytes.length);
+                writeVInt(out, compressed.length);
+                out.write(compressed);
+                return;
+            }
+        }
+        out.writeByte(TYPE_STRING);
+        writeVInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    protected byte[] deflate(final byte[] bytes) {
+        final Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2);
+            final byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                final int len = deflater.deflate(buf);
+                baos.write(buf, 0, len);
+            }
+            return baos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    protected byte[] inflate(final byte[] compressed, final int length) {
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            final byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                final int len = inflater.inflate(bytes, offset, length - offset);
+                if (len == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                offset += len;
+            }
+            if (offset != length) {
+                throw new FessSystemException("Invalid compressed string: " + offset + "/" + length + " bytes");
+            }
+            return bytes;
+        } catch (final DataFormatException e) {
+            throw new FessSystemException("Invalid compressed string.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    protected Object readValue(final DataInputStream in) throws IOException {
+        final int type = in.readUnsignedByte();
+        switch (type) {
+        case TYPE_NULL:
+            return null;
+        case TYPE_STRING:
+            return new String(readBytes(in, readVInt(in)), StandardCharsets.UTF_8);
+        case TYPE_COMPRESSED_STRING: {
+            final int length = readVInt(in);
+            return new String(inflate(readBytes(in, readVInt(in)), length), StandardCharsets.UTF_8);
+        }
+        case TYPE_INTEGER:
+            return in.readInt();
+        case TYPE_LONG:
+            return in.readLong();
+        case TYPE_FLOAT:
+            return in.readFloat();
+        case TYPE_DOUBLE:
+            return in.readDouble();
+        case TYPE_BOOLEAN:
+            return in.readBoolean();
+        case TYPE_DATE:
+            return new Date(in.readLong());
+        case TYPE_STRING_ARRAY: {
+            final String[] values = new String[readVInt(in)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (String) readValue(in);
+            }
+            return values;
+        }
+        case TYPE_LIST: {
+            final int size = readVInt(in);
+            final List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue(in));
+            }
+            return list;
+        }
+        case TYPE_MAP: {
+            final int size = readVInt(in);
+            final Map<Object, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                final Object key = readValue(in);
+                map.put(key, readValue(in));
+            }
+            return map;
+        }
+        case TYPE_BYTES:
+            return readBytes(in, readVInt(in));
+        case TYPE_SERIALIZED:
+            return SerializeUtil.fromBinaryToObject(readBytes(in, readVInt(in)));
+        default:
+            throw new FessSystemException("Unknown type: " + type);
+        }
+    }
+
+    protected byte[] readBytes(final DataInputStream in, final int length) throws IOException {
+        if (length > in.available()) {
+            throw new EOFException();
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    protected static void writeVInt(final OutputStream out, final int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    protected static int readVInt(final DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new FessSystemException("Invalid length: " + value);
+                }
+                return value;
+            }
+        }
+        throw new FessSystemException("Invalid variable-length integer.");
+    }
+
+    public void setCompressionEnabled(final boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public void setCompressionThreshold(final int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public void setCompressionLevel(final int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * An unsynchronized input stream over a byte array.
+     */
+    protected static class ByteArrayInput extends InputStream {
+        protected final byte[] buf;
+
+        protected int pos;
+
+        protected ByteArrayInput(final byte[] buf, final int offset) {
+            this.buf = buf;
+            pos = offset;
+        }
+
+        @Override
+        public int read() {
+            return pos < buf.length ? buf[pos++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (pos >= buf.length) {
+                return -1;
+            }
+            final int n = Math.min(len, buf.length - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buf.length - pos;
+        }
+    }
+}
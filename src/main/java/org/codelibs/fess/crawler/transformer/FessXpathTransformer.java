@@ -34,9 +34,11 @@ import java.util.Set;
 import javax.annotation.PostConstruct;
 import javax.xml.transform.TransformerException;
 
+import org.apache.xml.utils.PrefixResolver;
+import org.apache.xml.utils.PrefixResolverDefault;
+import org.apache.xpath.XPath;
 import org.apache.xpath.objects.XObject;
 import org.codelibs.core.io.InputStreamUtil;
-import org.codelibs.core.io.SerializeUtil;
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.core.misc.ValueHolder;
 import org.codelibs.fess.Constants;
@@ -73,6 +75,9 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class FessXpathTransformer extends XpathTransformer implements FessTransformer {
 
     private static final Logger logger = LoggerFactory.getLogger(FessXpathTransformer.class);
@@ -105,6 +110,8 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
 
     protected boolean useGoogleOffOn = true;
 
+    protected Cache<String, XPath> xpathCache = CacheBuilder.newBuilder().maximumSize(1000).build();
+
     @PostConstruct
     public void init() {
         fessConfig = ComponentUtil.getFessConfig();
@@ -148,7 +155,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
         for (final Map.Entry<String, String> entry : fieldRuleMap.entrySet()) {
             final String path = entry.getValue();
             try {
-                final XObject xObj = getXPathAPI().eval(document, path);
+                final XObject xObj = evalXPath(document, path);
                 final int type = xObj.getType();
                 switch (type) {
                 case XObject.CLASS_BOOLEAN:
@@ -169,7 +176,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
                 case XObject.CLASS_RTREEFRAG:
                 case XObject.CLASS_UNRESOLVEDVARIABLE:
                 default:
-                    final Node value = getXPathAPI().selectSingleNode(document, entry.getValue());
+                    final Node value = xObj.nodeset().nextNode();
                     putResultDataBody(dataMap, entry.getKey(), value != null ? value.getTextContent() : null);
                     break;
                 }
@@ -182,7 +189,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
         normalizeData(responseData, dataMap);
 
         try {
-            resultData.setData(SerializeUtil.fromObjectToBinary(dataMap));
+            resultData.setData(ComponentUtil.getResultDataCodec().encode(dataMap));
         } catch (final Exception e) {
             throw new CrawlingAccessException("Could not serialize object: " + responseData.getUrl(), e);
         }
@@ -210,7 +217,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
 
         // meta tag
         try {
-            final Node value = getXPathAPI().selectSingleNode(document, META_NAME_ROBOTS_CONTENT);
+            final Node value = selectXPathNode(document, META_NAME_ROBOTS_CONTENT);
             if (value != null) {
                 boolean noindex = false;
                 boolean nofollow = false;
@@ -570,23 +577,39 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
         return value;
     }
 
+    /**
+     * Evaluates the expression with a compiled XPath, which is cached by the expression string.
+     * The compiled XPath is immutable, so it is shared by crawler threads.
+     */
+    protected XObject evalXPath(final Document document, final String expression) throws TransformerException {
+        final PrefixResolver prefixResolver = new PrefixResolverDefault(document.getDocumentElement());
+        XPath xpath = xpathCache.getIfPresent(expression);
+        if (xpath == null) {
+            xpath = new XPath(expression, null, prefixResolver, XPath.SELECT, null);
+            xpathCache.put(expression, xpath);
+        }
+        return xpath.execute(getXPathAPI().getXPathContext(), document, prefixResolver);
+    }
+
+    protected Node selectXPathNode(final Document document, final String expression) throws TransformerException {
+        return evalXPath(document, expression).nodeset().nextNode();
+    }
+
+    protected NodeList selectXPathNodeList(final Document document, final String expression) throws TransformerException {
+        return evalXPath(document, expression).nodelist();
+    }
+
     protected String getSingleNodeValue(final Document document, final String xpath, final boolean pruned) {
         StringBuilder buf = null;
         NodeList list = null;
         try {
-            list = getXPathAPI().selectNodeList(document, xpath);
+            list = selectXPathNodeList(document, xpath);
+            final PrunedTag[] prunedTags = pruned ? fessConfig.getCrawlerDocumentHtmlPrunedTagsAsArray() : null;
             for (int i = 0; i < list.getLength(); i++) {
                 if (buf == null) {
                     buf = new StringBuilder(1000);
                 }
-                Node node = list.item(i).cloneNode(true);
-                if (useGoogleOffOn) {
-                    node = processGoogleOffOn(node, new ValueHolder<>(true));
-                }
-                if (pruned) {
-                    node = pruneNode(node);
-                }
-                parseTextContent(node, buf);
+                appendTextContent(list.item(i), prunedTags, new ValueHolder<>(true), buf);
             }
         } catch (final Exception e) {
             logger.warn("Could not parse a value of " + xpath);
@@ -597,6 +620,77 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
         return buf.toString().trim();
     }
 
+    /**
+     * Appends text nodes under the node in document order without changing the document.
+     * This gives the same text as cloning the node and applying processGoogleOffOn, pruneNode and parseTextContent:
+     * text between googleoff and googleon comments is skipped, and child elements matching prunedTags are skipped,
+     * though comments in them still switch googleoff/googleon.
+     */
+    protected void appendTextContent(final Node node, final PrunedTag[] prunedTags, final ValueHolder<Boolean> flag,
+            final StringBuilder buf) {
+        if (!node.hasChildNodes()) {
+            if (node.getNodeType() == Node.TEXT_NODE) {
+                appendText(node.getNodeValue(), buf);
+            }
+            return;
+        }
+        for (Node childNode = node.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
+            final short nodeType = childNode.getNodeType();
+            if (nodeType == Node.COMMENT_NODE) {
+                if (useGoogleOffOn) {
+                    updateGoogleOffOn(childNode, flag);
+                }
+            } else if (prunedTags != null && isPrunedTag(childNode, prunedTags)) {
+                if (useGoogleOffOn) {
+                    skipPrunedNode(childNode, flag);
+                }
+            } else if (nodeType == Node.TEXT_NODE) {
+                if (flag.getValue()) {
+                    appendText(childNode.getNodeValue(), buf);
+                }
+            } else {
+                appendTextContent(childNode, prunedTags, flag, buf);
+            }
+        }
+    }
+
+    protected void skipPrunedNode(final Node node, final ValueHolder<Boolean> flag) {
+        for (Node childNode = node.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
+            if (childNode.getNodeType() == Node.COMMENT_NODE) {
+                updateGoogleOffOn(childNode, flag);
+            } else {
+                skipPrunedNode(childNode, flag);
+            }
+        }
+    }
+
+    protected void updateGoogleOffOn(final Node commentNode, final ValueHolder<Boolean> flag) {
+        final String comment = commentNode.getNodeValue().trim();
+        if (comment.startsWith("googleoff:")) {
+            flag.setValue(false);
+        } else if (comment.startsWith("googleon:")) {
+            flag.setValue(true);
+        }
+    }
+
+    protected void appendText(final String value, final StringBuilder buf) {
+        if (value == null) {
+            return;
+        }
+        // same as trim() without a new string
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start < end) {
+            buf.append(' ').append(value, start, end);
+        }
+    }
+
     protected void parseTextContent(final Node node, final StringBuilder buf) {
         if (node.hasChildNodes()) {
             final NodeList nodeList = node.getChildNodes();
@@ -671,7 +765,11 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
     }
 
     protected boolean isPrunedTag(final Node node) {
-        for (final PrunedTag prunedTag : fessConfig.getCrawlerDocumentHtmlPrunedTagsAsArray()) {
+        return isPrunedTag(node, fessConfig.getCrawlerDocumentHtmlPrunedTagsAsArray());
+    }
+
+    protected boolean isPrunedTag(final Node node, final PrunedTag[] prunedTags) {
+        for (final PrunedTag prunedTag : prunedTags) {
             if (prunedTag.matches(node)) {
                 return true;
             }
@@ -683,7 +781,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
         NodeList nodeList = null;
         final StringBuilder buf = new StringBuilder(100);
         try {
-            nodeList = getXPathAPI().selectNodeList(document, xpath);
+            nodeList = selectXPathNodeList(document, xpath);
             for (int i = 0; i < nodeList.getLength(); i++) {
                 final Node node = nodeList.item(i);
                 buf.append(node.getTextContent());
@@ -753,7 +851,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
         final byte[] data = accessResultData.getData();
         if (data != null) {
             try {
-                return SerializeUtil.fromBinaryToObject(data);
+                return ComponentUtil.getResultDataCodec().decode(data);
             } catch (final Exception e) {
                 throw new CrawlerSystemException("Could not create an instanced from bytes.", e);
             }
@@ -808,7 +906,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
         // TODO PageMap
         try {
             // meta thumbnail
-            final Node thumbnailNode = getXPathAPI().selectSingleNode(document, META_NAME_THUMBNAIL_CONTENT);
+            final Node thumbnailNode = selectXPathNode(document, META_NAME_THUMBNAIL_CONTENT);
             if (thumbnailNode != null) {
                 final String content = thumbnailNode.getTextContent();
                 if (StringUtil.isNotBlank(content)) {
@@ -820,7 +918,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
             }
 
             // meta og:image
-            final Node ogImageNode = getXPathAPI().selectSingleNode(document, META_PROPERTY_OGIMAGE_CONTENT);
+            final Node ogImageNode = selectXPathNode(document, META_PROPERTY_OGIMAGE_CONTENT);
             if (ogImageNode != null) {
                 final String content = ogImageNode.getTextContent();
                 if (StringUtil.isNotBlank(content)) {
@@ -831,7 +929,7 @@ public class FessXpathTransformer extends XpathTransformer implements FessTransf
                 }
             }
 
-            final NodeList imgNodeList = getXPathAPI().selectNodeList(document, fessConfig.getThumbnailHtmlImageXpath());
+            final NodeList imgNodeList = selectXPathNodeList(document, fessConfig.getThumbnailHtmlImageXpath());
             String firstThumbnailUrl = null;
             for (int i = 0; i < imgNodeList.getLength(); i++) {
                 final Node imgNode = imgNodeList.item(i);
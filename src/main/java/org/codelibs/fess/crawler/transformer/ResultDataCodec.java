@@ -0,0 +1,31 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.crawler.transformer;
+
+import java.util.Map;
+
+/**
+ * Converts a data map created by a transformer to the bytes stored in ResultData and AccessResultData, and back.
+ */
+public interface ResultDataCodec {
+
+    byte[] encode(Map<String, Object> dataMap);
+
+    /**
+     * Decodes bytes created by {@link #encode(Map)}. Bytes written by Java serialization are also accepted.
+     */
+    Map<String, Object> decode(byte[] data);
+}
@@ -26,7 +26,6 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import org.codelibs.core.io.SerializeUtil;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.crawler.builder.RequestDataBuilder;
 import org.codelibs.fess.crawler.client.CrawlerClient;
@@ -156,8 +155,7 @@ public class FileListIndexUpdateCallbackImpl implements IndexUpdateCallback {
                     final byte[] data = resultData.getData();
                     if (data != null) {
                         try {
-                            @SuppressWarnings("unchecked")
-                            final Map<String, Object> responseDataMap = (Map<String, Object>) SerializeUtil.fromBinaryToObject(data);
+                            final Map<String, Object> responseDataMap = ComponentUtil.getResultDataCodec().decode(data);
                             dataMap.putAll(responseDataMap);
                         } catch (final Exception e) {
                             throw new CrawlerSystemException("Could not create an instance from bytes.", e);
@@ -15,8 +15,18 @@
  */
 package org.codelibs.fess.ds.callback;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
@@ -38,15 +48,39 @@ public class IndexUpdateCallbackImpl implements IndexUpdateCallback {
 
     protected AtomicLong documentSize = new AtomicLong(0);
 
-    protected volatile long executeTime = 0;
+    protected AtomicLong executeTime = new AtomicLong(0);
 
-    protected final DocList docList = new DocList();
+    protected final Object docListLock = new Object();
+
+    protected DocList docList = new DocList();
 
     protected long maxDocumentRequestSize;
 
+    protected int maxInflightRequests;
+
+    protected ExecutorService sendExecutor;
+
+    protected Semaphore inflightSemaphore;
+
+    protected final AtomicReference<Throwable> sendFailure = new AtomicReference<>();
+
     @PostConstruct
     public void init() {
-        maxDocumentRequestSize = ComponentUtil.getFessConfig().getIndexerDataMaxDocumentRequestSizeAsInteger().longValue();
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        maxDocumentRequestSize = fessConfig.getIndexerDataMaxDocumentRequestSizeAsInteger().longValue();
+        maxInflightRequests = fessConfig.getIndexerDataMaxInflightRequestsAsInteger().intValue();
+        if (maxInflightRequests > 0) {
+            inflightSemaphore = new Semaphore(maxInflightRequests, true);
+            final AtomicInteger threadCount = new AtomicInteger(0);
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxInflightRequests, maxInflightRequests, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        final Thread thread = new Thread(r, "IndexUpdateCallback-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            sendExecutor = executor;
+        }
     }
 
     /* (non-Javadoc)
@@ -72,22 +106,15 @@ public class IndexUpdateCallbackImpl implements IndexUpdateCallback {
         final CrawlingInfoHelper crawlingInfoHelper = ComponentUtil.getCrawlingInfoHelper();
         dataMap.put(fessConfig.getIndexFieldId(), crawlingInfoHelper.generateId(dataMap));
 
-        final String url = dataMap.get(fessConfig.getIndexFieldUrl()).toString();
-
-        if (fessConfig.getIndexerClickCountEnabledAsBoolean()) {
-            addClickCountField(dataMap, url, fessConfig.getIndexFieldClickCount());
-        }
-
-        if (fessConfig.getIndexerFavoriteCountEnabledAsBoolean()) {
-            addFavoriteCountField(dataMap, url, fessConfig.getIndexFieldFavoriteCount());
-        }
-
         if (!dataMap.containsKey(fessConfig.getIndexFieldDocId())) {
             final SystemHelper systemHelper = ComponentUtil.getSystemHelper();
             dataMap.put(fessConfig.getIndexFieldDocId(), systemHelper.generateDocId(dataMap));
         }
 
-        synchronized (docList) {
+        checkSendFailure();
+
+        DocList sendList = null;
+        synchronized (docListLock) {
             docList.add(dataMap);
             if (logger.isDebugEnabled()) {
                 logger.debug("Added the document. " + "The number of a document cache is " + docList.size() + ".");
@@ -97,12 +124,17 @@ public class IndexUpdateCallbackImpl implements IndexUpdateCallback {
             if (contentLength != null) {
                 docList.addContentSize(contentLength.longValue());
                 if (docList.getContentSize() >= maxDocumentRequestSize) {
-                    indexingHelper.sendDocuments(fessEsClient, docList);
+                    sendList = swapDocList();
                 }
             } else if (docList.size() >= fessConfig.getIndexerDataMaxDocumentCacheSizeAsInteger().intValue()) {
-                indexingHelper.sendDocuments(fessEsClient, docList);
+                sendList = swapDocList();
             }
-            executeTime += System.currentTimeMillis() - startTime;
+        }
+
+        // the time of a bulk request is added in submitDocuments
+        executeTime.addAndGet(System.currentTimeMillis() - startTime);
+        if (sendList != null) {
+            submitDocuments(indexingHelper, fessEsClient, sendList);
         }
 
         documentSize.getAndIncrement();
@@ -115,33 +147,125 @@ public class IndexUpdateCallbackImpl implements IndexUpdateCallback {
 
     @Override
     public void commit() {
-        synchronized (docList) {
-            if (!docList.isEmpty()) {
-                final IndexingHelper indexingHelper = ComponentUtil.getIndexingHelper();
-                final FessEsClient fessEsClient = ComponentUtil.getFessEsClient();
-                indexingHelper.sendDocuments(fessEsClient, docList);
+        final DocList sendList;
+        synchronized (docListLock) {
+            sendList = docList.isEmpty() ? null : swapDocList();
+        }
+        if (sendList != null) {
+            final IndexingHelper indexingHelper = ComponentUtil.getIndexingHelper();
+            final FessEsClient fessEsClient = ComponentUtil.getFessEsClient();
+            submitDocuments(indexingHelper, fessEsClient, sendList);
+        }
+        waitForSending();
+        checkSendFailure();
+    }
+
+    protected DocList swapDocList() {
+        final DocList sendList = docList;
+        docList = new DocList();
+        return sendList;
+    }
+
+    protected void submitDocuments(final IndexingHelper indexingHelper, final FessEsClient fessEsClient, final DocList sendList) {
+        if (sendExecutor == null) {
+            final long startTime = System.currentTimeMillis();
+            try {
+                sendDocuments(indexingHelper, fessEsClient, sendList);
+            } finally {
+                executeTime.addAndGet(System.currentTimeMillis() - startTime);
             }
+            return;
+        }
+
+        try {
+            inflightSemaphore.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException("Interrupted while waiting for a bulk request.", e);
+        }
+        try {
+            sendExecutor.execute(() -> {
+                final long startTime = System.currentTimeMillis();
+                try {
+                    sendDocuments(indexingHelper, fessEsClient, sendList);
+                } catch (final Throwable t) {
+                    logger.warn("Failed to send " + sendList.size() + " documents.", t);
+                    sendFailure.compareAndSet(null, t);
+                } finally {
+                    executeTime.addAndGet(System.currentTimeMillis() - startTime);
+                    inflightSemaphore.release();
+                }
+            });
+        } catch (final RuntimeException e) {
+            inflightSemaphore.release();
+            throw e;
+        }
+    }
+
+    protected void waitForSending() {
+        if (inflightSemaphore == null) {
+            return;
+        }
+        try {
+            inflightSemaphore.acquire(maxInflightRequests);
+            inflightSemaphore.release(maxInflightRequests);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException("Interrupted while waiting for bulk requests.", e);
+        }
+    }
+
+    protected void checkSendFailure() {
+        final Throwable t = sendFailure.getAndSet(null);
+        if (t != null) {
+            throw new DataStoreException("Failed to send documents.", t);
+        }
+    }
+
+    protected void sendDocuments(final IndexingHelper indexingHelper, final FessEsClient fessEsClient, final DocList sendList) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+
+        if (fessConfig.getIndexerClickCountEnabledAsBoolean()) {
+            addClickCountField(sendList, fessConfig.getIndexFieldUrl(), fessConfig.getIndexFieldClickCount());
+        }
+
+        if (fessConfig.getIndexerFavoriteCountEnabledAsBoolean()) {
+            addFavoriteCountField(sendList, fessConfig.getIndexFieldUrl(), fessConfig.getIndexFieldFavoriteCount());
         }
+
+        indexingHelper.sendDocuments(fessEsClient, sendList);
     }
 
-    protected void addClickCountField(final Map<String, Object> doc, final String url, final String clickCountField) {
+    protected void addClickCountField(final List<Map<String, Object>> docs, final String urlField, final String clickCountField) {
         final SearchLogHelper searchLogHelper = ComponentUtil.getSearchLogHelper();
-        final int count = searchLogHelper.getClickCount(url);
-        doc.put(clickCountField, count);
-        if (logger.isDebugEnabled()) {
-            logger.debug("Click Count: " + count + ", url: " + url);
+        final Map<String, Long> countMap = searchLogHelper.getClickCountMap(getUrlSet(docs, urlField));
+        for (final Map<String, Object> doc : docs) {
+            final String url = doc.get(urlField).toString();
+            final int count = countMap.getOrDefault(url, 0L).intValue();
+            doc.put(clickCountField, count);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Click Count: " + count + ", url: " + url);
+            }
         }
     }
 
-    protected void addFavoriteCountField(final Map<String, Object> doc, final String url, final String favoriteCountField) {
+    protected void addFavoriteCountField(final List<Map<String, Object>> docs, final String urlField, final String favoriteCountField) {
         final SearchLogHelper searchLogHelper = ComponentUtil.getSearchLogHelper();
-        final long count = searchLogHelper.getFavoriteCount(url);
-        doc.put(favoriteCountField, count);
-        if (logger.isDebugEnabled()) {
-            logger.debug("Favorite Count: " + count + ", url: " + url);
+        final Map<String, Long> countMap = searchLogHelper.getFavoriteCountMap(getUrlSet(docs, urlField));
+        for (final Map<String, Object> doc : docs) {
+            final String url = doc.get(urlField).toString();
+            final long count = countMap.getOrDefault(url, 0L).longValue();
+            doc.put(favoriteCountField, count);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Favorite Count: " + count + ", url: " + url);
+            }
         }
     }
 
+    protected Set<String> getUrlSet(final List<Map<String, Object>> docs, final String urlField) {
+        return docs.stream().map(doc -> doc.get(urlField).toString()).collect(Collectors.toSet());
+    }
+
     @Override
     public long getDocumentSize() {
         return documentSize.get();
@@ -149,7 +273,7 @@ public class IndexUpdateCallbackImpl implements IndexUpdateCallback {
 
     @Override
     public long getExecuteTime() {
-        return executeTime;
+        return executeTime.get();
     }
 
 }
@@ -26,11 +26,22 @@ import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -43,6 +54,7 @@ import org.codelibs.core.exception.ResourceNotFoundRuntimeException;
 import org.codelibs.core.io.FileUtil;
 import org.codelibs.core.io.ResourceUtil;
 import org.codelibs.core.lang.StringUtil;
+import org.codelibs.core.misc.Pair;
 import org.codelibs.curl.CurlResponse;
 import org.codelibs.elasticsearch.runner.ElasticsearchClusterRunner;
 import org.codelibs.elasticsearch.runner.ElasticsearchClusterRunner.Configs;
@@ -148,8 +160,10 @@ import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.BucketOrder;
 import org.elasticsearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.collapse.CollapseBuilder;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.client.PreBuiltTransportClient;
 import org.lastaflute.core.message.UserMessages;
@@ -179,8 +193,12 @@ public class FessEsClient implements Client {
 
     protected Map<String, List<String>> configListMap = new HashMap<>();
 
+    protected static final Object SCROLL_SLICE_END = new Object();
+
     protected String scrollForSearch = "1m";
 
+    protected ExecutorService scrollSliceExecutor;
+
     protected int sizeForDelete = 100;
 
     protected String scrollForDelete = "1m";
@@ -663,6 +681,11 @@ public class FessEsClient implements Client {
     @Override
     @PreDestroy
     public void close() {
+        synchronized (this) {
+            if (scrollSliceExecutor != null) {
+                scrollSliceExecutor.shutdownNow();
+            }
+        }
         if (runner != null) {
             try {
                 client.admin().indices().prepareFlush().setForce(true).execute()
@@ -801,6 +824,153 @@ public class FessEsClient implements Client {
         return count;
     }
 
+    /**
+     * Runs a sliced scroll with the given number of slices concurrently.
+     * Fetched hits are passed to the creator and the cursor on the calling thread through a bounded buffer shared by the slices,
+     * so hits are returned in no particular order.
+     * Slices run on a shared pool sized by api.search.scroll.slice.thread.size, and a slice waiting for a thread holds no scroll context.
+     */
+    public <T> long scrollSearch(final String index, final String type, final SearchCondition<SearchRequestBuilder> condition,
+            final EntityCreator<T, SearchResponse, SearchHit> creator, final Function<T, Boolean> cursor, final int numOfSlices,
+            final int bufferSize) {
+        if (numOfSlices <= 1) {
+            return scrollSearch(index, type, condition, creator, cursor);
+        }
+
+        final SearchRequestBuilder searchRequestBuilder = client.prepareSearch(index).setTypes(type).setScroll(scrollForSearch);
+        if (!condition.build(searchRequestBuilder)) {
+            return 0;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query DSL(" + numOfSlices + " slices):\n" + searchRequestBuilder.toString());
+        }
+
+        final SearchSourceBuilder sourceBuilder =
+                searchRequestBuilder.request().source() != null ? searchRequestBuilder.request().source() : new SearchSourceBuilder();
+        final String preference = searchRequestBuilder.request().preference();
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(Math.max(bufferSize, numOfSlices));
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final ExecutorService executorService = getScrollSliceExecutor();
+        final List<Future<?>> futureList = new ArrayList<>(numOfSlices);
+        try {
+            for (int i = 0; i < numOfSlices; i++) {
+                final SearchRequestBuilder sliceRequestBuilder =
+                        client.prepareSearch(index).setTypes(type).setScroll(scrollForSearch)
+                                .setSource(sourceBuilder.copyWithNewSlice(new SliceBuilder(i, numOfSlices)));
+                if (preference != null) {
+                    sliceRequestBuilder.setPreference(preference);
+                }
+                futureList.add(executorService.submit(() -> scrollSlice(sliceRequestBuilder, queue, running, failure)));
+            }
+
+            long count = 0;
+            int activeSlices = numOfSlices;
+            while (activeSlices > 0) {
+                final Object item = queue.take();
+                if (item == SCROLL_SLICE_END) {
+                    activeSlices--;
+                    if (failure.get() != null) {
+                        break;
+                    }
+                } else {
+                    @SuppressWarnings("unchecked")
+                    final Pair<SearchResponse, SearchHit> pair = (Pair<SearchResponse, SearchHit>) item;
+                    count++;
+                    if (!cursor.apply(creator.build(pair.getFirst(), pair.getSecond()))) {
+                        return count;
+                    }
+                }
+            }
+
+            final Throwable t = failure.get();
+            if (t instanceof SearchPhaseExecutionException) {
+                throw new InvalidQueryException(messages -> messages.addErrorsInvalidQueryParseError(UserMessages.GLOBAL_PROPERTY_KEY),
+                        "Invalid query: " + searchRequestBuilder, (SearchPhaseExecutionException) t);
+            } else if (t != null) {
+                throw new SearchQueryException("Failed to scroll " + index + " with " + numOfSlices + " slices.", t);
+            }
+            return count;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchQueryException("Interrupted while scrolling " + index, e);
+        } finally {
+            running.set(false);
+            futureList.forEach(future -> future.cancel(true));
+        }
+    }
+
+    protected ExecutorService getScrollSliceExecutor() {
+        synchronized (this) {
+            if (scrollSliceExecutor == null) {
+                final int threadSize = ComponentUtil.getFessConfig().getApiSearchScrollSliceThreadSizeAsInteger().intValue();
+                final AtomicInteger threadCount = new AtomicInteger(0);
+                final ThreadPoolExecutor executor =
+                        new ThreadPoolExecutor(threadSize, threadSize, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                            final Thread thread = new Thread(r, "ScrollSlice-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                executor.allowCoreThreadTimeOut(true);
+                scrollSliceExecutor = executor;
+            }
+            return scrollSliceExecutor;
+        }
+    }
+
+    protected void scrollSlice(final SearchRequestBuilder searchRequestBuilder, final BlockingQueue<Object> queue,
+            final AtomicBoolean running, final AtomicReference<Throwable> failure) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        String scrollId = null;
+        try {
+            if (!running.get()) {
+                return;
+            }
+            SearchResponse response = searchRequestBuilder.execute().actionGet(fessConfig.getIndexSearchTimeout());
+            scrollId = response.getScrollId();
+            while (running.get()) {
+                final SearchHit[] hits = response.getHits().getHits();
+                if (hits.length == 0) {
+                    break;
+                }
+                for (final SearchHit hit : hits) {
+                    if (!offerToQueue(queue, new Pair<>(response, hit), running)) {
+                        return;
+                    }
+                }
+                response =
+                        client.prepareSearchScroll(scrollId).setScroll(scrollForSearch).execute()
+                                .actionGet(fessConfig.getIndexBulkTimeout());
+                scrollId = response.getScrollId();
+            }
+        } catch (final Throwable t) {
+            failure.compareAndSet(null, t);
+        } finally {
+            if (scrollId != null) {
+                try {
+                    client.prepareClearScroll().addScrollId(scrollId).execute();
+                } catch (final Exception e) {
+                    logger.warn("Failed to clear the scroll: " + scrollId, e);
+                }
+            }
+            try {
+                offerToQueue(queue, SCROLL_SLICE_END, running);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected boolean offerToQueue(final BlockingQueue<Object> queue, final Object item, final AtomicBoolean running)
+            throws InterruptedException {
+        while (running.get()) {
+            if (queue.offer(item, 1, TimeUnit.SECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public OptionalEntity<Map<String, Object>> getDocument(final String index, final String type,
             final SearchCondition<SearchRequestBuilder> condition) {
         return getDocument(
@@ -941,8 +1111,16 @@ public class FessEsClient implements Client {
     }
 
     public void addAll(final String index, final String type, final List<Map<String, Object>> docList) {
+        addAll(index, type, docList, Collections.emptyList());
+    }
+
+    public void addAll(final String index, final String type, final List<Map<String, Object>> docList,
+            final Collection<String> deleteIdList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         final BulkRequestBuilder bulkRequestBuilder = client.prepareBulk();
+        for (final String id : deleteIdList) {
+            bulkRequestBuilder.add(client.prepareDelete(index, type, id));
+        }
         for (final Map<String, Object> doc : docList) {
             final Object id = doc.remove(fessConfig.getIndexFieldId());
             bulkRequestBuilder.add(client.prepareIndex(index, type, id.toString()).setSource(new DocMap(doc)));
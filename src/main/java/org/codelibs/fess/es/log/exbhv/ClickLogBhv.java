@@ -20,9 +20,11 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.codelibs.fess.es.log.bsbhv.BsClickLogBhv;
+import org.codelibs.fess.es.log.exentity.ClickLog;
 import org.codelibs.fess.util.ComponentUtil;
 import org.dbflute.util.DfTypeUtil;
 import org.slf4j.Logger;
@@ -59,4 +61,10 @@ public class ClickLogBhv extends BsClickLogBhv {
         return DfTypeUtil.toLocalDateTime(value);
     }
 
+    /**
+     * Restores an entity from the map created by {@link ClickLog#toSource()}.
+     */
+    public ClickLog toEntity(final Map<String, Object> source) {
+        return createEntity(source, ClickLog.class);
+    }
 }
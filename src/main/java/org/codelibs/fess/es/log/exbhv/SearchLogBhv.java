@@ -94,4 +94,17 @@ public class SearchLogBhv extends BsSearchLogBhv {
         }
     }
 
+    /**
+     * Restores an entity from the map created by {@link SearchLog#toSource()}.
+     */
+    @SuppressWarnings("unchecked")
+    public SearchLog toEntity(final Map<String, Object> source) {
+        final SearchLog searchLog = createEntity(source, SearchLog.class);
+        final Object documentsObj = source.get("documents");
+        if (documentsObj instanceof List) {
+            ((List<Object>) documentsObj).stream().filter(d -> d instanceof Map)
+                    .forEach(d -> searchLog.addDocument((Map<String, Object>) d));
+        }
+        return searchLog;
+    }
 }
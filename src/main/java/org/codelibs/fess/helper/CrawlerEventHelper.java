@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Wakes up IndexUpdater and WebFsIndexHelper in the crawler process when crawler threads store access results or finish,
+ * so that they do not wait for their whole polling interval.
+ * A waiter passes the event count read before its last check, so an event fired in between is not lost.
+ */
+public class CrawlerEventHelper {
+
+    protected final ReentrantLock lock = new ReentrantLock();
+
+    protected final Condition accessResultCondition = lock.newCondition();
+
+    protected final Condition crawlerCondition = lock.newCondition();
+
+    protected long accessResultEventCount = 0;
+
+    protected long crawlerEventCount = 0;
+
+    protected final Map<String, Integer> finishedThreadCountMap = new HashMap<>();
+
+    /**
+     * Notifies that access results are stored or updated, or that indexing should check its state.
+     */
+    public void notifyAccessResultUpdated() {
+        lock.lock();
+        try {
+            accessResultEventCount++;
+            accessResultCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Notifies that a crawler thread for the session has finished.
+     */
+    public void notifyCrawlerThreadFinished(final String sessionId) {
+        lock.lock();
+        try {
+            if (sessionId != null) {
+                finishedThreadCountMap.merge(sessionId, 1, Integer::sum);
+            }
+            crawlerEventCount++;
+            crawlerCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAccessResultEventCount() {
+        lock.lock();
+        try {
+            return accessResultEventCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCrawlerEventCount() {
+        lock.lock();
+        try {
+            return crawlerEventCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until an access result event newer than eventCount is fired.
+     *
+     * @return true if an event is fired, false if the timeout has elapsed
+     */
+    public boolean awaitAccessResult(final long eventCount, final long timeout) throws InterruptedException {
+        return await(accessResultCondition, () -> accessResultEventCount, eventCount, timeout);
+    }
+
+    /**
+     * Waits until a crawler event newer than eventCount is fired.
+     *
+     * @return true if an event is fired, false if the timeout has elapsed
+     */
+    public boolean awaitCrawlerEvent(final long eventCount, final long timeout) throws InterruptedException {
+        return await(crawlerCondition, () -> crawlerEventCount, eventCount, timeout);
+    }
+
+    /**
+     * Returns the number of crawler threads which have finished for the session.
+     */
+    public int getFinishedThreadCount(final String sessionId) {
+        lock.lock();
+        try {
+            return finishedThreadCountMap.getOrDefault(sessionId, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected boolean await(final Condition condition, final LongSupplier counter, final long eventCount, final long timeout)
+            throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (counter.getAsLong() == eventCount) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = condition.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
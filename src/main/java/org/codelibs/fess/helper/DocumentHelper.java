@@ -31,7 +31,6 @@ import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.codelibs.core.io.ReaderUtil;
-import org.codelibs.core.io.SerializeUtil;
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.crawler.builder.RequestDataBuilder;
@@ -167,8 +166,7 @@ public class DocumentHelper {
                     final byte[] data = resultData.getData();
                     if (data != null) {
                         try {
-                            @SuppressWarnings("unchecked")
-                            final Map<String, Object> result = (Map<String, Object>) SerializeUtil.fromBinaryToObject(data);
+                            final Map<String, Object> result = ComponentUtil.getResultDataCodec().decode(data);
                             return result;
                         } catch (final Exception e) {
                             throw new CrawlerSystemException("Could not create an instance from bytes.", e);
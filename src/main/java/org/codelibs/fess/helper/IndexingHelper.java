@@ -16,8 +16,18 @@
 package org.codelibs.fess.helper;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
 
 import org.codelibs.fess.es.client.FessEsClient;
 import org.codelibs.fess.mylasta.direction.FessConfig;
@@ -25,12 +35,23 @@ import org.codelibs.fess.thumbnail.ThumbnailManager;
 import org.codelibs.fess.util.ComponentUtil;
 import org.codelibs.fess.util.DocList;
 import org.codelibs.fess.util.MemoryUtil;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetRequestBuilder;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class IndexingHelper {
     private static final Logger logger = LoggerFactory.getLogger(IndexingHelper.class);
 
@@ -40,6 +61,29 @@ public class IndexingHelper {
 
     protected long requestInterval = 500;
 
+    protected int prefetchSize;
+
+    protected long maxPrefetchIdSize;
+
+    protected Cache<String, Map<String, Object>> prefetchedDocumentCache;
+
+    protected BlockingDeque<String> prefetchIdQueue;
+
+    protected final Set<String> sendingUrlSet = new HashSet<>();
+
+    private static final Map<String, Object> NOT_FOUND_DOCUMENT = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        prefetchSize = fessConfig.getCrawlerIncrementalPrefetchSizeAsInteger().intValue();
+        maxPrefetchIdSize = fessConfig.getCrawlerIncrementalCacheSizeAsInteger().longValue();
+        prefetchedDocumentCache =
+                CacheBuilder.newBuilder().maximumSize(maxPrefetchIdSize)
+                        .expireAfterWrite(fessConfig.getCrawlerIncrementalCacheExpireAsInteger().longValue(), TimeUnit.MINUTES).build();
+        prefetchIdQueue = new LinkedBlockingDeque<>(Math.max(prefetchSize, 1));
+    }
+
     public void sendDocuments(final FessEsClient fessEsClient, final DocList docList) {
         if (docList.isEmpty()) {
             return;
@@ -68,9 +112,18 @@ public class IndexingHelper {
                             }
                         });
             }
-            synchronized (fessEsClient) {
-                deleteOldDocuments(fessEsClient, docList);
-                fessEsClient.addAll(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), docList);
+            final Set<String> urlSet = getUrlSet(docList);
+            lockUrls(urlSet);
+            try {
+                final List<String> oldIdList = getOldDocumentIdList(fessEsClient, docList);
+                fessEsClient.addAll(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), docList, oldIdList);
+            } finally {
+                unlockUrls(urlSet);
+            }
+            clearSearchResultCache();
+            if (ComponentUtil.hasMetricsHelper()) {
+                ComponentUtil.getMetricsHelper().observeIndexing(docList.size(), docList.getContentSize(),
+                        System.currentTimeMillis() - execTime);
             }
             if (logger.isInfoEnabled()) {
                 if (docList.getContentSize() > 0) {
@@ -87,10 +140,52 @@ public class IndexingHelper {
         }
     }
 
-    private void deleteOldDocuments(final FessEsClient fessEsClient, final DocList docList) {
+    protected Set<String> getUrlSet(final DocList docList) {
+        final String urlField = ComponentUtil.getFessConfig().getIndexFieldUrl();
+        final Set<String> urlSet = new HashSet<>();
+        for (final Map<String, Object> doc : docList) {
+            final Object url = doc.get(urlField);
+            if (url != null) {
+                urlSet.add(url.toString());
+            }
+        }
+        return urlSet;
+    }
+
+    /**
+     * Waits until no other batch is sending documents with the same URLs,
+     * so that old documents of a URL are looked up and deleted by one batch at a time.
+     */
+    protected void lockUrls(final Set<String> urlSet) {
+        synchronized (sendingUrlSet) {
+            boolean interrupted = false;
+            while (!Collections.disjoint(sendingUrlSet, urlSet)) {
+                try {
+                    sendingUrlSet.wait();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            sendingUrlSet.addAll(urlSet);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected void unlockUrls(final Set<String> urlSet) {
+        synchronized (sendingUrlSet) {
+            sendingUrlSet.removeAll(urlSet);
+            sendingUrlSet.notifyAll();
+        }
+    }
+
+    protected List<String> getOldDocumentIdList(final FessEsClient fessEsClient, final DocList docList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
 
-        final List<String> docIdList = new ArrayList<>();
+        final Map<String, Set<String>> idMap = new HashMap<>();
+        final Set<Object> urlSet = new HashSet<>();
+        final Set<Object> configIdSet = new HashSet<>();
         for (final Map<String, Object> inputDoc : docList) {
             final Object idValue = inputDoc.get(fessConfig.getIndexFieldId());
             if (idValue == null) {
@@ -102,54 +197,93 @@ public class IndexingHelper {
                 continue;
             }
 
-            final QueryBuilder queryBuilder =
-                    QueryBuilders.boolQuery()
-                            .must(QueryBuilders.termQuery(fessConfig.getIndexFieldUrl(), inputDoc.get(fessConfig.getIndexFieldUrl())))
-                            .filter(QueryBuilders.termQuery(fessConfig.getIndexFieldConfigId(), configIdValue));
-
-            final List<Map<String, Object>> docs =
-                    getDocumentListByQuery(fessEsClient, queryBuilder,
-                            new String[] { fessConfig.getIndexFieldId(), fessConfig.getIndexFieldDocId() });
-            for (final Map<String, Object> doc : docs) {
-                final Object oldIdValue = doc.get(fessConfig.getIndexFieldId());
-                if (!idValue.equals(oldIdValue) && oldIdValue != null) {
-                    final Object oldDocIdValue = doc.get(fessConfig.getIndexFieldDocId());
-                    if (oldDocIdValue != null) {
-                        docIdList.add(oldDocIdValue.toString());
-                    }
-                }
-            }
-            if (logger.isDebugEnabled()) {
-                logger.debug(queryBuilder.toString() + " => " + docs);
+            final Object urlValue = inputDoc.get(fessConfig.getIndexFieldUrl());
+            if (urlValue == null) {
+                continue;
             }
+
+            idMap.computeIfAbsent(getOldDocumentKey(urlValue, configIdValue), k -> new HashSet<>()).add(idValue.toString());
+            urlSet.add(urlValue);
+            configIdSet.add(configIdValue);
+        }
+        if (idMap.isEmpty()) {
+            return Collections.emptyList();
         }
-        if (!docIdList.isEmpty()) {
-            fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(),
-                    QueryBuilders.idsQuery(fessConfig.getIndexDocumentType()).addIds(docIdList.stream().toArray(n -> new String[n])));
 
+        final QueryBuilder queryBuilder =
+                QueryBuilders.boolQuery().filter(QueryBuilders.termsQuery(fessConfig.getIndexFieldUrl(), urlSet))
+                        .filter(QueryBuilders.termsQuery(fessConfig.getIndexFieldConfigId(), configIdSet));
+        final String[] fields = new String[] { fessConfig.getIndexFieldUrl(), fessConfig.getIndexFieldConfigId() };
+        SearchHits searchHits = searchOldDocuments(fessEsClient, queryBuilder, fields, Math.max(defaultRowSize, docList.size() * 2));
+        if (searchHits.getTotalHits() > searchHits.getHits().length) {
+            searchHits = searchOldDocuments(fessEsClient, queryBuilder, fields, (int) searchHits.getTotalHits());
+        }
+
+        final List<String> oldIdList = new ArrayList<>();
+        for (final SearchHit hit : searchHits.getHits()) {
+            final Map<String, Object> source = hit.getSourceAsMap();
+            if (source == null) {
+                continue;
+            }
+            final Set<String> idSet =
+                    idMap.get(getOldDocumentKey(source.get(fessConfig.getIndexFieldUrl()), source.get(fessConfig.getIndexFieldConfigId())));
+            if (idSet == null) {
+                continue;
+            }
+            final String oldId = hit.getId();
+            if (idSet.size() > 1 || !idSet.contains(oldId)) {
+                oldIdList.add(oldId);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(queryBuilder.toString() + " => " + oldIdList);
         }
+        return oldIdList;
+    }
+
+    private String getOldDocumentKey(final Object url, final Object configId) {
+        return url + "\n" + configId;
+    }
+
+    private SearchHits searchOldDocuments(final FessEsClient fessEsClient, final QueryBuilder queryBuilder, final String[] fields,
+            final int size) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        return fessEsClient.prepareSearch(fessConfig.getIndexDocumentUpdateIndex()).setTypes(fessConfig.getIndexDocumentType())
+                .setQuery(queryBuilder).setFetchSource(fields, null).setSize(size).execute()
+                .actionGet(fessConfig.getIndexSearchTimeout()).getHits();
     }
 
     public boolean updateDocument(final FessEsClient fessEsClient, final String id, final String field, final Object value) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        return fessEsClient.update(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), id, field, value);
+        final boolean result =
+                fessEsClient.update(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), id, field, value);
+        clearSearchResultCache();
+        return result;
     }
 
     public boolean deleteDocument(final FessEsClient fessEsClient, final String id) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        return fessEsClient.delete(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), id, 0);
+        final boolean result = fessEsClient.delete(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), id, 0);
+        clearSearchResultCache();
+        return result;
     }
 
     public long deleteDocumentByUrl(final FessEsClient fessEsClient, final String url) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        return fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(),
-                QueryBuilders.termQuery(fessConfig.getIndexFieldUrl(), url));
+        final long count =
+                fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(),
+                        QueryBuilders.termQuery(fessConfig.getIndexFieldUrl(), url));
+        clearSearchResultCache();
+        return count;
     }
 
     public long deleteDocumentsByDocId(final FessEsClient fessEsClient, final List<String> docIdList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        return fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), QueryBuilders
-                .idsQuery(fessConfig.getIndexDocumentType()).addIds(docIdList.stream().toArray(n -> new String[n])));
+        final long count =
+                fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), QueryBuilders
+                        .idsQuery(fessConfig.getIndexDocumentType()).addIds(docIdList.stream().toArray(n -> new String[n])));
+        clearSearchResultCache();
+        return count;
     }
 
     public Map<String, Object> getDocument(final FessEsClient fessEsClient, final String id, final String[] fields) {
@@ -161,6 +295,98 @@ public class IndexingHelper {
         }).orElse(null);
     }
 
+    /**
+     * Registers the id of a document whose URL was accepted into the URL queue.
+     * Ids are kept in insertion order and only the next crawler.incremental.prefetch.size ids are held,
+     * so a multi-get covers the documents that are about to be processed.
+     */
+    public void addPrefetchDocumentId(final String id) {
+        if (prefetchSize > 1 && prefetchedDocumentCache.getIfPresent(id) == null && !prefetchIdQueue.contains(id)) {
+            prefetchIdQueue.offer(id);
+        }
+    }
+
+    public Map<String, Object> getPrefetchedDocument(final FessEsClient fessEsClient, final String id, final String[] fields) {
+        if (prefetchSize <= 1) {
+            return getDocument(fessEsClient, id, fields);
+        }
+
+        Map<String, Object> doc = prefetchedDocumentCache.getIfPresent(id);
+        if (doc == null) {
+            prefetchDocuments(fessEsClient, id, fields);
+            doc = prefetchedDocumentCache.getIfPresent(id);
+            if (doc == null) {
+                return getDocument(fessEsClient, id, fields);
+            }
+        }
+        prefetchedDocumentCache.invalidate(id);
+        return doc == NOT_FOUND_DOCUMENT ? null : doc;
+    }
+
+    protected void prefetchDocuments(final FessEsClient fessEsClient, final String id, final String[] fields) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final List<String> idList = new ArrayList<>(prefetchSize);
+        idList.add(id);
+        prefetchIdQueue.remove(id);
+        String prefetchId;
+        while (idList.size() < prefetchSize && (prefetchId = prefetchIdQueue.poll()) != null) {
+            if (!idList.contains(prefetchId) && prefetchedDocumentCache.getIfPresent(prefetchId) == null) {
+                idList.add(prefetchId);
+            }
+        }
+
+        try {
+            final long execTime = System.currentTimeMillis();
+            final Map<String, Map<String, Object>> docMap = getDocumentMapByIds(fessEsClient, idList, fields);
+            for (final String docId : idList) {
+                final Map<String, Object> doc = docMap.get(docId);
+                prefetchedDocumentCache.put(docId, doc != null ? doc : NOT_FOUND_DOCUMENT);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Prefetched " + idList.size() + " documents in " + (System.currentTimeMillis() - execTime) + "ms.");
+            }
+        } catch (final Exception e) {
+            logger.warn("Failed to prefetch " + idList.size() + " documents.", e);
+        }
+    }
+
+    /**
+     * Gets documents by ids with one multi-get request.
+     * A document that does not exist or cannot be fetched is not contained in the returned map.
+     */
+    public Map<String, Map<String, Object>> getDocumentMapByIds(final FessEsClient fessEsClient, final Collection<String> ids,
+            final String[] fields) {
+        final Map<String, Map<String, Object>> docMap = new HashMap<>(ids.size());
+        if (ids.isEmpty()) {
+            return docMap;
+        }
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final FetchSourceContext fetchSourceContext = new FetchSourceContext(true, fields, null);
+        final MultiGetRequestBuilder builder = fessEsClient.prepareMultiGet();
+        for (final String docId : ids) {
+            builder.add(new MultiGetRequest.Item(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(), docId)
+                    .fetchSourceContext(fetchSourceContext));
+        }
+        final MultiGetResponse response = builder.execute().actionGet(fessConfig.getIndexSearchTimeout());
+        for (final MultiGetItemResponse item : response) {
+            if (item.isFailed()) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Failed to get " + item.getId() + ": " + item.getFailure().getMessage());
+                }
+                continue;
+            }
+            final GetResponse getResponse = item.getResponse();
+            if (getResponse.isExists()) {
+                final Map<String, Object> source = getResponse.getSourceAsMap();
+                final Map<String, Object> doc = source != null ? new HashMap<>(source) : new HashMap<>();
+                doc.put(fessConfig.getIndexFieldId(), getResponse.getId());
+                doc.put(fessConfig.getIndexFieldVersion(), getResponse.getVersion());
+                docMap.put(getResponse.getId(), doc);
+            }
+        }
+        return docMap;
+    }
+
     public List<Map<String, Object>> getDocumentListByPrefixId(final FessEsClient fessEsClient, final String id, final String[] fields) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         final QueryBuilder queryBuilder = QueryBuilders.prefixQuery(fessConfig.getIndexFieldId(), id);
@@ -171,6 +397,7 @@ public class IndexingHelper {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         fessEsClient.deleteByQuery(fessConfig.getIndexDocumentUpdateIndex(), fessConfig.getIndexDocumentType(),
                 QueryBuilders.termQuery(fessConfig.getIndexFieldParentId(), id));
+        clearSearchResultCache();
     }
 
     public List<Map<String, Object>> getChildDocumentList(final FessEsClient fessEsClient, final String id, final String[] fields) {
@@ -200,6 +427,12 @@ public class IndexingHelper {
 
     }
 
+    protected void clearSearchResultCache() {
+        if (ComponentUtil.hasSearchResultCacheHelper()) {
+            ComponentUtil.getSearchResultCacheHelper().clearCache();
+        }
+    }
+
     public void setMaxRetryCount(final int maxRetryCount) {
         this.maxRetryCount = maxRetryCount;
     }
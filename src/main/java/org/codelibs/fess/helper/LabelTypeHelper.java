@@ -18,6 +18,7 @@ package org.codelibs.fess.helper;
 import static org.codelibs.core.stream.StreamUtil.stream;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -45,6 +46,8 @@ public class LabelTypeHelper {
 
     protected volatile List<LabelTypePattern> labelTypePatternList;
 
+    protected volatile LabelTypeMatcher labelTypeMatcher;
+
     @PostConstruct
     public void init() {
         update();
@@ -134,6 +137,7 @@ public class LabelTypeHelper {
                             }
                         }
                     }
+                    labelTypeMatcher = new LabelTypeMatcher(list);
                     labelTypePatternList = list;
                 }
             }
@@ -143,13 +147,12 @@ public class LabelTypeHelper {
             return Collections.emptySet();
         }
 
-        final Set<String> valueSet = new HashSet<>();
-        for (final LabelTypePattern pattern : labelTypePatternList) {
-            if (pattern.match(path)) {
-                valueSet.add(pattern.getValue());
-            }
+        LabelTypeMatcher matcher = labelTypeMatcher;
+        if (matcher == null || matcher.patternList != labelTypePatternList) {
+            matcher = new LabelTypeMatcher(labelTypePatternList);
+            labelTypeMatcher = matcher;
         }
-        return valueSet;
+        return matcher.match(path);
     }
 
     protected static class LabelTypeItem {
@@ -202,11 +205,14 @@ public class LabelTypeHelper {
 
         private Pattern excludedPaths;
 
+        private List<String> pathPrefixList;
+
         public LabelTypePattern(final String value, final String includedPaths, final String excludedPaths) {
             this.value = value;
 
             if (StringUtil.isNotBlank(includedPaths)) {
                 final StringBuilder buf = new StringBuilder(100);
+                List<String> prefixList = new ArrayList<>();
                 char split = 0;
                 for (final String path : includedPaths.split("\n")) {
                     if (split == 0) {
@@ -214,9 +220,19 @@ public class LabelTypeHelper {
                     } else {
                         buf.append(split);
                     }
-                    buf.append(ComponentUtil.getSystemHelper().normalizePath(path));
+                    final String regex = ComponentUtil.getSystemHelper().normalizePath(path);
+                    buf.append(regex);
+                    if (prefixList != null && regex.length() > 0) {
+                        final String prefix = getLiteralPrefix(regex);
+                        if (prefix.length() > 0) {
+                            prefixList.add(prefix);
+                        } else {
+                            prefixList = null;
+                        }
+                    }
                 }
                 this.includedPaths = Pattern.compile(buf.toString());
+                this.pathPrefixList = prefixList;
             }
 
             if (StringUtil.isNotBlank(excludedPaths)) {
@@ -238,6 +254,13 @@ public class LabelTypeHelper {
             return value;
         }
 
+        /**
+         * Returns literal prefixes which a matched path starts with, or null if any path can match.
+         */
+        public List<String> getPathPrefixList() {
+            return pathPrefixList;
+        }
+
         public boolean match(final String path) {
             if (includedPaths != null) {
                 if (includedPaths.matcher(path).matches()) {
@@ -256,11 +279,162 @@ public class LabelTypeHelper {
             } else {
                 boolean match = !excludedPaths.matcher(path).matches();
                 if (!match && logger.isDebugEnabled()) {
-                    logger.debug("Path " + path + " matched against the excludes paths expression " + includedPaths.toString());
+                    logger.debug("Path " + path + " matched against the excludes paths expression " + excludedPaths.toString());
                 }
                 return match;
             }
         }
 
     }
+
+    protected static String getLiteralPrefix(final String regex) {
+        final StringBuilder buf = new StringBuilder(regex.length());
+        boolean inPrefix = true;
+        boolean escaped = false;
+        boolean inClass = false;
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (escaped) {
+                escaped = false;
+                if (inPrefix) {
+                    if (Character.isLetterOrDigit(c)) {
+                        // \d, \w, \Q and so on
+                        inPrefix = false;
+                    } else {
+                        buf.append(c);
+                    }
+                }
+                continue;
+            }
+            if (c == '\\') {
+                escaped = true;
+                continue;
+            }
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+                continue;
+            }
+            switch (c) {
+            case '[':
+                inClass = true;
+                inPrefix = false;
+                break;
+            case '(':
+                depth++;
+                inPrefix = false;
+                break;
+            case ')':
+                depth--;
+                break;
+            case '|':
+                if (depth == 0) {
+                    // top-level alternation
+                    return StringUtil.EMPTY;
+                }
+                break;
+            case '^':
+                if (i > 0) {
+                    inPrefix = false;
+                }
+                break;
+            case '?':
+            case '*':
+            case '{':
+                if (inPrefix && buf.length() > 0) {
+                    // the last character is optional
+                    buf.setLength(buf.length() - 1);
+                }
+                inPrefix = false;
+                break;
+            case '.':
+            case '+':
+            case '$':
+                inPrefix = false;
+                break;
+            default:
+                if (inPrefix) {
+                    buf.append(c);
+                }
+                break;
+            }
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Finds candidate patterns by the literal prefixes of their included paths with a trie,
+     * and evaluates the regular expressions of the candidates only.
+     */
+    public static class LabelTypeMatcher {
+
+        protected final List<LabelTypePattern> patternList;
+
+        protected final PrefixNode root = new PrefixNode();
+
+        protected final int[] unindexedPatterns;
+
+        public LabelTypeMatcher(final List<LabelTypePattern> patternList) {
+            this.patternList = patternList;
+            final List<Integer> unindexedList = new ArrayList<>();
+            for (int i = 0; i < patternList.size(); i++) {
+                final List<String> prefixList = patternList.get(i).getPathPrefixList();
+                if (prefixList == null) {
+                    unindexedList.add(i);
+                } else {
+                    for (final String prefix : prefixList) {
+                        PrefixNode node = root;
+                        for (int j = 0; j < prefix.length(); j++) {
+                            node = node.children.computeIfAbsent(prefix.charAt(j), k -> new PrefixNode());
+                        }
+                        node.patternIndexList.add(i);
+                    }
+                }
+            }
+            unindexedPatterns = unindexedList.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        public Set<String> match(final String path) {
+            final Set<String> valueSet = new HashSet<>();
+            if (StringUtil.isEmpty(path)) {
+                for (final LabelTypePattern pattern : patternList) {
+                    if (pattern.match(path)) {
+                        valueSet.add(pattern.getValue());
+                    }
+                }
+                return valueSet;
+            }
+
+            final BitSet candidates = new BitSet(patternList.size());
+            for (final int index : unindexedPatterns) {
+                candidates.set(index);
+            }
+            PrefixNode node = root;
+            for (int i = 0; i < path.length(); i++) {
+                node = node.children.get(path.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                for (final Integer index : node.patternIndexList) {
+                    candidates.set(index);
+                }
+            }
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                final LabelTypePattern pattern = patternList.get(i);
+                if (pattern.match(path)) {
+                    valueSet.add(pattern.getValue());
+                }
+            }
+            return valueSet;
+        }
+
+        protected static class PrefixNode {
+
+            protected final Map<Character, PrefixNode> children = new HashMap<>();
+
+            protected final List<Integer> patternIndexList = new ArrayList<>(1);
+        }
+    }
 }
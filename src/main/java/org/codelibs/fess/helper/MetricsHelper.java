@@ -0,0 +1,368 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import javax.annotation.PostConstruct;
+
+import org.codelibs.fess.util.ComponentUtil;
+import org.codelibs.fess.util.GroovyUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Keeps in-process counters, gauges and latency histograms, and writes them in the Prometheus text format.
+ */
+public class MetricsHelper {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHelper.class);
+
+    public static final double[] LATENCY_BUCKETS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+    public static final double[] SIZE_BUCKETS = { 1, 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    protected final Map<String, Metric> metricMap = new ConcurrentSkipListMap<>();
+
+    protected Histogram searchDuration;
+
+    protected Histogram searchQueryDuration;
+
+    protected Counter searchCachedCount;
+
+    protected Histogram indexingBatchSize;
+
+    protected Histogram indexingDuration;
+
+    protected Counter indexingDocumentCount;
+
+    protected Counter indexingBytes;
+
+    protected Histogram crawlerFetchDuration;
+
+    protected Histogram crawlerTransformDuration;
+
+    @PostConstruct
+    public void init() {
+        searchDuration = histogram("fess_search_duration_milliseconds", "Latency of SearchService.search.", LATENCY_BUCKETS);
+        searchQueryDuration =
+                histogram("fess_search_query_duration_milliseconds", "Query time reported by Elasticsearch.", LATENCY_BUCKETS);
+        searchCachedCount = counter("fess_search_cached_total", "Searches served from the search result cache.");
+        indexingBatchSize = histogram("fess_indexing_batch_documents", "Documents in a bulk request.", SIZE_BUCKETS);
+        indexingDuration = histogram("fess_indexing_duration_milliseconds", "Latency of a bulk request.", LATENCY_BUCKETS);
+        indexingDocumentCount = counter("fess_indexing_documents_total", "Documents sent to the index.");
+        indexingBytes = counter("fess_indexing_content_bytes_total", "Content bytes of documents sent to the index.");
+        crawlerFetchDuration = histogram("fess_crawler_fetch_duration_milliseconds", "Time to fetch a crawled content.", LATENCY_BUCKETS);
+        crawlerTransformDuration =
+                histogram("fess_crawler_transform_duration_milliseconds", "Time to transform a crawled content.", LATENCY_BUCKETS);
+
+        counter("fess_groovy_script_cache_hits_total", "Hits of the Groovy script cache.", () -> GroovyUtil.getScriptCacheStats()
+                .hitCount());
+        counter("fess_groovy_script_cache_misses_total", "Misses of the Groovy script cache.", () -> GroovyUtil.getScriptCacheStats()
+                .missCount());
+        counter("fess_query_parser_cache_hits_total", "Hits of the parsed query cache.", () -> getParsedQueryCacheStats().hitCount());
+        counter("fess_query_parser_cache_misses_total", "Misses of the parsed query cache.", () -> getParsedQueryCacheStats()
+                .missCount());
+        counter("fess_search_result_cache_hits_total", "Hits of the search result cache.", () -> getSearchResultCacheStats().hitCount());
+        counter("fess_search_result_cache_misses_total", "Misses of the search result cache.", () -> getSearchResultCacheStats()
+                .missCount());
+        gauge("fess_search_log_queue_size", "Search logs waiting to be stored.", () -> ComponentUtil.getSearchLogHelper()
+                .getSearchLogQueueSize());
+        gauge("fess_click_log_queue_size", "Click logs waiting to be stored.", () -> ComponentUtil.getSearchLogHelper()
+                .getClickLogQueueSize());
+        counter("fess_search_log_dropped_total", "Search and click logs dropped by the overflow policy.", () -> ComponentUtil
+                .getSearchLogHelper().getDroppedLogCount());
+        counter("fess_search_log_spilled_total", "Search and click logs spilled to a local file.", () -> ComponentUtil
+                .getSearchLogHelper().getSpilledLogCount());
+        gauge("fess_search_result_cache_size", "Entries in the search result cache.",
+                () -> ComponentUtil.hasSearchResultCacheHelper() ? ComponentUtil.getSearchResultCacheHelper().getCacheSize() : 0);
+    }
+
+    public void observeSearch(final long execTime, final long queryTime, final boolean cached) {
+        searchDuration.observe(execTime);
+        if (cached) {
+            searchCachedCount.inc();
+        } else {
+            searchQueryDuration.observe(queryTime);
+        }
+    }
+
+    public void observeIndexing(final int size, final long contentSize, final long execTime) {
+        indexingBatchSize.observe(size);
+        indexingDuration.observe(execTime);
+        indexingDocumentCount.add(size);
+        indexingBytes.add(contentSize);
+    }
+
+    public void observeCrawlerFetch(final long execTime) {
+        crawlerFetchDuration.observe(execTime);
+    }
+
+    public void observeCrawlerTransform(final long execTime) {
+        crawlerTransformDuration.observe(execTime);
+    }
+
+    protected CacheStats getParsedQueryCacheStats() {
+        return ComponentUtil.hasQueryHelper() ? ComponentUtil.getQueryHelper().getParsedQueryCacheStats() : new CacheStats(0, 0, 0, 0,
+                0, 0);
+    }
+
+    protected CacheStats getSearchResultCacheStats() {
+        return ComponentUtil.hasSearchResultCacheHelper() ? ComponentUtil.getSearchResultCacheHelper().getCacheStats() : new CacheStats(0,
+                0, 0, 0, 0, 0);
+    }
+
+    public Counter counter(final String name, final String help) {
+        return (Counter) metricMap.computeIfAbsent(name, k -> new Counter(help));
+    }
+
+    public Histogram histogram(final String name, final String help, final double[] buckets) {
+        return (Histogram) metricMap.computeIfAbsent(name, k -> new Histogram(help, buckets));
+    }
+
+    public void counter(final String name, final String help, final LongSupplier supplier) {
+        metricMap.put(name, new FunctionCounter(help, supplier));
+    }
+
+    public void gauge(final String name, final String help, final DoubleSupplier supplier) {
+        metricMap.put(name, new Gauge(help, supplier));
+    }
+
+    public void write(final Writer out) throws IOException {
+        for (final Map.Entry<String, Metric> entry : metricMap.entrySet()) {
+            final String name = entry.getKey();
+            final Metric metric = entry.getValue();
+            out.write("# HELP " + name + " " + metric.help + "\n");
+            out.write("# TYPE " + name + " " + metric.getType() + "\n");
+            metric.write(name, out);
+        }
+    }
+
+    /**
+     * Returns the current values. A histogram is reported by its count and sum.
+     */
+    public Map<String, Object> getValueMap() {
+        final Map<String, Object> valueMap = new LinkedHashMap<>();
+        metricMap.entrySet().forEach(entry -> {
+            final Metric metric = entry.getValue();
+            if (metric instanceof Histogram) {
+                valueMap.put(entry.getKey() + "_count", ((Histogram) metric).getCount());
+                valueMap.put(entry.getKey() + "_sum", ((Histogram) metric).getSum());
+            } else {
+                valueMap.put(entry.getKey(), metric.getValue());
+            }
+        });
+        return valueMap;
+    }
+
+    protected static String format(final double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    protected abstract static class Metric {
+        protected final String help;
+
+        protected Metric(final String help) {
+            this.help = help;
+        }
+
+        protected abstract String getType();
+
+        protected abstract Object getValue();
+
+        protected abstract void write(String name, Writer out) throws IOException;
+    }
+
+    public static class Counter extends Metric {
+        protected final LongAdder adder = new LongAdder();
+
+        protected Counter(final String help) {
+            super(help);
+        }
+
+        public void inc() {
+            adder.increment();
+        }
+
+        public void add(final long value) {
+            adder.add(value);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+
+        @Override
+        protected String getType() {
+            return "counter";
+        }
+
+        @Override
+        protected Object getValue() {
+            return get();
+        }
+
+        @Override
+        protected void write(final String name, final Writer out) throws IOException {
+            out.write(name + " " + get() + "\n");
+        }
+    }
+
+    public static class FunctionCounter extends Metric {
+        protected final LongSupplier supplier;
+
+        protected FunctionCounter(final String help, final LongSupplier supplier) {
+            super(help);
+            this.supplier = supplier;
+        }
+
+        public long get() {
+            try {
+                return supplier.getAsLong();
+            } catch (final Exception e) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Failed to get a counter value.", e);
+                }
+                return 0L;
+            }
+        }
+
+        @Override
+        protected String getType() {
+            return "counter";
+        }
+
+        @Override
+        protected Object getValue() {
+            return get();
+        }
+
+        @Override
+        protected void write(final String name, final Writer out) throws IOException {
+            out.write(name + " " + get() + "\n");
+        }
+    }
+
+    public static class Gauge extends Metric {
+        protected final DoubleSupplier supplier;
+
+        protected Gauge(final String help, final DoubleSupplier supplier) {
+            super(help);
+            this.supplier = supplier;
+        }
+
+        public double get() {
+            try {
+                return supplier.getAsDouble();
+            } catch (final Exception e) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Failed to get a gauge value.", e);
+                }
+                return Double.NaN;
+            }
+        }
+
+        @Override
+        protected String getType() {
+            return "gauge";
+        }
+
+        @Override
+        protected Object getValue() {
+            return get();
+        }
+
+        @Override
+        protected void write(final String name, final Writer out) throws IOException {
+            out.write(name + " " + format(get()) + "\n");
+        }
+    }
+
+    public static class Histogram extends Metric {
+        protected final double[] buckets;
+
+        protected final LongAdder[] counts;
+
+        protected final DoubleAdder sum = new DoubleAdder();
+
+        protected Histogram(final String help, final double[] buckets) {
+            super(help);
+            this.buckets = buckets.clone();
+            Arrays.sort(this.buckets);
+            counts = new LongAdder[this.buckets.length + 1];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        public void observe(final double value) {
+            int index = Arrays.binarySearch(buckets, value);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            counts[index].increment();
+            sum.add(value);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (final LongAdder adder : counts) {
+                count += adder.sum();
+            }
+            return count;
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+
+        @Override
+        protected String getType() {
+            return "histogram";
+        }
+
+        @Override
+        protected Object getValue() {
+            return getCount();
+        }
+
+        @Override
+        protected void write(final String name, final Writer out) throws IOException {
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                count += counts[i].sum();
+                out.write(name + "_bucket{le=\"" + format(buckets[i]) + "\"} " + count + "\n");
+            }
+            count += counts[buckets.length].sum();
+            out.write(name + "_bucket{le=\"+Inf\"} " + count + "\n");
+            out.write(name + "_sum " + format(getSum()) + "\n");
+            out.write(name + "_count " + count + "\n");
+        }
+    }
+}
@@ -21,10 +21,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.annotation.PostConstruct;
 
 import org.codelibs.core.lang.StringUtil;
+import org.codelibs.core.misc.Pair;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.es.config.exbhv.PathMappingBhv;
 import org.codelibs.fess.es.config.exentity.PathMapping;
@@ -49,6 +51,8 @@ public class PathMappingHelper {
 
     protected volatile List<PathMapping> cachedPathMappingList = null;
 
+    protected volatile Pair<List<PathMapping>, Pattern[]> cachedUrlPatterns = null;
+
     @PostConstruct
     public void init() {
         update();
@@ -66,6 +70,7 @@ public class PathMappingHelper {
                 cb.query().setProcessType_InScope(ptList);
                 cb.fetchFirst(ComponentUtil.getFessConfig().getPagePathMappingMaxFetchSizeAsInteger());
             });
+            getUrlPatterns(cachedPathMappingList);
             return cachedPathMappingList.size();
         } catch (final ComponentNotFoundException e) {
             if (logger.isDebugEnabled()) {
@@ -115,17 +120,74 @@ public class PathMappingHelper {
                 }
             }
         }
-        String result = text;
-        for (final PathMapping pathMapping : cachedPathMappingList) {
-            if (matchUserAgent(pathMapping)) {
+        final List<PathMapping> pathMappingList = cachedPathMappingList;
+        final Pattern[] patterns = getUrlPatterns(pathMappingList);
+        final List<Pair<Pattern, String>> replacerList = new ArrayList<>(patterns.length);
+        for (int i = 0; i < patterns.length; i++) {
+            final PathMapping pathMapping = pathMappingList.get(i);
+            if (patterns[i] != null && matchUserAgent(pathMapping)) {
                 String replacement = pathMapping.getReplacement();
                 if (replacement == null) {
                     replacement = StringUtil.EMPTY;
                 }
-                result = result.replaceAll("(\"[^\"]*)" + pathMapping.getRegex() + "([^\"]*\")", "$1" + replacement + "$2");
+                replacerList.add(new Pair<>(patterns[i], "$1" + replacement + "$2"));
+            }
+        }
+        if (replacerList.isEmpty() || text == null) {
+            return text;
+        }
+
+        // rewrite each quoted value once with all path mappings
+        final StringBuilder buf = new StringBuilder(text.length() + 100);
+        int pos = 0;
+        int start = text.indexOf('"');
+        while (start != -1) {
+            final int end = text.indexOf('"', start + 1);
+            if (end == -1) {
+                break;
+            }
+            String value = text.substring(start + 1, end);
+            boolean replaced = false;
+            for (final Pair<Pattern, String> replacer : replacerList) {
+                final Matcher matcher = replacer.getFirst().matcher(value);
+                if (matcher.matches()) {
+                    final StringBuffer sb = new StringBuffer(value.length() + 50);
+                    matcher.appendReplacement(sb, replacer.getSecond());
+                    value = sb.toString();
+                    replaced = true;
+                }
+            }
+            if (replaced) {
+                buf.append(text, pos, start + 1).append(value).append('"');
+                pos = end + 1;
+                start = text.indexOf('"', end + 1);
+            } else {
+                start = end;
+            }
+        }
+        if (pos == 0) {
+            return text;
+        }
+        buf.append(text, pos, text.length());
+        return buf.toString();
+    }
+
+    protected Pattern[] getUrlPatterns(final List<PathMapping> pathMappingList) {
+        final Pair<List<PathMapping>, Pattern[]> urlPatterns = cachedUrlPatterns;
+        if (urlPatterns != null && urlPatterns.getFirst() == pathMappingList) {
+            return urlPatterns.getSecond();
+        }
+        final Pattern[] patterns = new Pattern[pathMappingList.size()];
+        for (int i = 0; i < patterns.length; i++) {
+            final String regex = pathMappingList.get(i).getRegex();
+            try {
+                patterns[i] = Pattern.compile("([^\"]*)" + regex + "([^\"]*)");
+            } catch (final Exception e) {
+                logger.warn("Invalid path mapping: " + regex, e);
             }
         }
-        return result;
+        cachedUrlPatterns = new Pair<>(pathMappingList, patterns);
+        return patterns;
     }
 
     public String replaceUrl(final String url) {
@@ -20,6 +20,7 @@ import static org.codelibs.core.stream.StreamUtil.stream;
 
 import java.lang.Character.UnicodeBlock;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -28,6 +29,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
@@ -76,8 +78,15 @@ import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 import org.lastaflute.core.message.UserMessages;
 import org.lastaflute.web.util.LaRequestUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
 public class QueryHelper {
+    private static final Logger logger = LoggerFactory.getLogger(QueryHelper.class);
 
     protected static final String PREFERENCE_QUERY = "_query";
 
@@ -131,9 +140,23 @@ public class QueryHelper {
 
     protected List<QueryRescorer> queryRescorerList = new ArrayList<>();
 
+    protected Cache<String, Query> parsedQueryCache;
+
+    protected volatile String queryParserSignature;
+
+    protected Cache<Set<String>, List<String>> roleFilterCache;
+
     @PostConstruct
     public void init() {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final long parsedQueryCacheSize = fessConfig.getQueryParserCacheSizeAsInteger().longValue();
+        if (parsedQueryCacheSize > 0) {
+            parsedQueryCache = CacheBuilder.newBuilder().maximumSize(parsedQueryCacheSize).recordStats().build();
+        }
+        final long roleFilterCacheSize = fessConfig.getQueryRoleFilterCacheSizeAsInteger().longValue();
+        if (roleFilterCacheSize > 0) {
+            roleFilterCache = CacheBuilder.newBuilder().maximumSize(roleFilterCacheSize).build();
+        }
         if (responseFields == null) {
             responseFields = fessConfig.getQueryAdditionalResponseFields(//
                     SCORE_FIELD, //
@@ -354,16 +377,25 @@ public class QueryHelper {
             final Set<String> roleSet = ComponentUtil.getRoleQueryHelper().build(searchRequestType);
             if (!roleSet.isEmpty()) {
                 queryContext.addQuery(boolQuery -> {
-                    final BoolQueryBuilder roleQuery = QueryBuilders.boolQuery();
-                    roleSet.stream().forEach(name -> {
-                        roleQuery.should(QueryBuilders.termQuery(ComponentUtil.getFessConfig().getIndexFieldRole(), name));
-                    });
-                    boolQuery.filter(roleQuery);
+                    boolQuery.filter(buildRoleFilter(roleSet));
                 });
             }
         }
     }
 
+    public QueryBuilder buildRoleFilter(final Set<String> roleSet) {
+        final String roleField = ComponentUtil.getFessConfig().getIndexFieldRole();
+        if (roleFilterCache == null) {
+            return QueryBuilders.termsQuery(roleField, roleSet.stream().sorted().toArray(n -> new String[n]));
+        }
+        List<String> roleList = roleFilterCache.getIfPresent(roleSet);
+        if (roleList == null) {
+            roleList = Collections.unmodifiableList(roleSet.stream().sorted().collect(Collectors.toList()));
+            roleFilterCache.put(Collections.unmodifiableSet(new HashSet<>(roleSet)), roleList);
+        }
+        return QueryBuilders.termsQuery(roleField, roleList);
+    }
+
     protected void buildBoostQuery(final QueryContext queryContext) {
         queryContext.addFunctionScore(list -> {
             list.add(new FilterFunctionBuilder(ScoreFunctionBuilders.fieldValueFactorFunction(ComponentUtil.getFessConfig()
@@ -375,7 +407,7 @@ public class QueryHelper {
 
     public void buildBaseQuery(final QueryContext queryContext, final Consumer<QueryContext> context) {
         try {
-            final Query query = getQueryParser().parse(queryContext.getQueryString());
+            final Query query = parseQuery(queryContext);
             final QueryBuilder queryBuilder = convertQuery(queryContext, query, 1.0f);
             if (queryBuilder != null) {
                 queryContext.setQueryBuilder(queryBuilder);
@@ -390,6 +422,66 @@ public class QueryHelper {
         }
     }
 
+    protected Query parseQuery(final QueryContext queryContext) throws ParseException {
+        final QueryParser queryParser = getQueryParser();
+        if (parsedQueryCache == null) {
+            return queryParser.parse(queryContext.getQueryString());
+        }
+
+        if (queryParserSignature == null) {
+            queryParserSignature = getQueryParserSignature(queryParser);
+        }
+
+        final String key = queryContext.getDefaultField() + "\n" + queryContext.getQueryString();
+        Query query = parsedQueryCache.getIfPresent(key);
+        if (query == null) {
+            query = queryParser.parse(queryContext.getQueryString());
+            parsedQueryCache.put(key, query);
+        }
+        return query;
+    }
+
+    protected String getQueryParserSignature(final QueryParser queryParser) {
+        final StringBuilder buf = new StringBuilder(200);
+        buf.append(queryParser.getClass().getName()).append(',');
+        buf.append(queryParser.getField()).append(',');
+        buf.append(queryParser.getAnalyzer().getClass().getName()).append(',');
+        buf.append(queryParser.getDefaultOperator()).append(',');
+        buf.append(queryParser.getAllowLeadingWildcard()).append(',');
+        buf.append(queryParser.getAutoGeneratePhraseQueries()).append(',');
+        buf.append(queryParser.getSplitOnWhitespace()).append(',');
+        buf.append(queryParser.getEnablePositionIncrements()).append(',');
+        buf.append(queryParser.getPhraseSlop()).append(',');
+        buf.append(queryParser.getFuzzyMinSim()).append(',');
+        buf.append(queryParser.getFuzzyPrefixLength()).append(',');
+        buf.append(queryParser.getLocale());
+        return buf.toString();
+    }
+
+    /**
+     * Checks the configuration of the query parser, and clears the parsed query cache if it is changed.
+     */
+    public void updateQueryParser() {
+        final String signature = getQueryParserSignature(getQueryParser());
+        if (!signature.equals(queryParserSignature)) {
+            if (queryParserSignature != null && logger.isInfoEnabled()) {
+                logger.info("Query parser configuration is changed: " + signature);
+            }
+            clearParsedQueryCache();
+            queryParserSignature = signature;
+        }
+    }
+
+    public void clearParsedQueryCache() {
+        if (parsedQueryCache != null) {
+            parsedQueryCache.invalidateAll();
+        }
+    }
+
+    public CacheStats getParsedQueryCacheStats() {
+        return parsedQueryCache != null ? parsedQueryCache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
+
     protected QueryParser getQueryParser() {
         return ComponentUtil.getQueryParser();
     }
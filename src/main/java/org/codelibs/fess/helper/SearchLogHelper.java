@@ -17,25 +17,47 @@ package org.codelibs.fess.helper;
 
 import static org.codelibs.core.stream.StreamUtil.stream;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.StringUtils;
 import org.codelibs.core.collection.LruHashMap;
+import org.codelibs.core.exception.IORuntimeException;
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.app.service.SearchService;
 import org.codelibs.fess.entity.SearchRequestParams;
 import org.codelibs.fess.entity.SearchRequestParams.SearchRequestType;
+import org.codelibs.fess.es.log.allcommon.EsAbstractEntity;
 import org.codelibs.fess.es.log.exbhv.ClickLogBhv;
 import org.codelibs.fess.es.log.exbhv.FavoriteLogBhv;
 import org.codelibs.fess.es.log.exbhv.SearchLogBhv;
@@ -43,18 +65,28 @@ import org.codelibs.fess.es.log.exbhv.UserInfoBhv;
 import org.codelibs.fess.es.log.exentity.ClickLog;
 import org.codelibs.fess.es.log.exentity.SearchLog;
 import org.codelibs.fess.es.log.exentity.UserInfo;
+import org.codelibs.fess.exception.FessSystemException;
 import org.codelibs.fess.mylasta.action.FessUserBean;
 import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.util.BoundedLogQueue;
+import org.codelibs.fess.util.BoundedLogQueue.OverflowPolicy;
 import org.codelibs.fess.util.ComponentUtil;
 import org.codelibs.fess.util.DocumentUtil;
 import org.codelibs.fess.util.QueryResponseList;
 import org.dbflute.optional.OptionalThing;
 import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.script.Script;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.lastaflute.web.util.LaRequestUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class SearchLogHelper {
     private static final Logger logger = LoggerFactory.getLogger(SearchLogHelper.class);
 
@@ -62,15 +94,76 @@ public class SearchLogHelper {
 
     protected int userInfoCacheSize = 1000;
 
-    protected volatile Queue<SearchLog> searchLogQueue = new ConcurrentLinkedQueue<>();
+    protected static final String SEARCH_LOG_SPILL_FILE = "search_log.spill";
+
+    protected static final String CLICK_LOG_SPILL_FILE = "click_log.spill";
+
+    protected static final String REPLAY_SUFFIX = ".replay";
+
+    protected static final String SPILL_ID_FIELD = "_id";
+
+    protected BoundedLogQueue<SearchLog> searchLogQueue;
+
+    protected BoundedLogQueue<ClickLog> clickLogQueue;
+
+    protected int flushSize;
+
+    protected long flushInterval;
+
+    protected File spillDir;
 
-    protected volatile Queue<ClickLog> clickLogQueue = new ConcurrentLinkedQueue<>();
+    protected final Object flushLock = new Object();
+
+    protected final Object spillLock = new Object();
+
+    protected final Map<String, BufferedWriter> spillWriterMap = new HashMap<>();
+
+    protected final ObjectMapper objectMapper = new ObjectMapper();
+
+    protected Cache<String, Boolean> storedQueryIdCache;
+
+    protected volatile boolean running;
+
+    protected volatile Thread logFlushThread;
 
     protected Map<String, Long> userInfoCache;
 
+    protected String logUrlField = "url";
+
+    protected Cache<String, Long> clickCountCache;
+
+    protected Cache<String, Long> favoriteCountCache;
+
     @PostConstruct
     public void init() {
         userInfoCache = new LruHashMap<>(userInfoCacheSize);
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final int queueSize = fessConfig.getLoggingSearchLogQueueSizeAsInteger().intValue();
+        final OverflowPolicy overflowPolicy = OverflowPolicy.of(fessConfig.getLoggingSearchLogOverflowPolicy());
+        final int sampleRate = fessConfig.getLoggingSearchLogSampleRateAsInteger().intValue();
+        flushSize = fessConfig.getLoggingSearchLogFlushSizeAsInteger().intValue();
+        flushInterval = fessConfig.getLoggingSearchLogFlushIntervalAsInteger().longValue();
+        final String spillPath = fessConfig.getLoggingSearchLogSpillDir();
+        if (StringUtil.isNotBlank(spillPath)) {
+            spillDir = new File(spillPath);
+        } else {
+            spillDir = new File(System.getProperty("java.io.tmpdir"), "fess_search_log");
+        }
+        searchLogQueue =
+                new BoundedLogQueue<>(queueSize, overflowPolicy, sampleRate, searchLog -> spill(SEARCH_LOG_SPILL_FILE,
+                        searchLog.toSource()));
+        clickLogQueue =
+                new BoundedLogQueue<>(queueSize, overflowPolicy, sampleRate, clickLog -> spill(CLICK_LOG_SPILL_FILE, clickLog.toSource()));
+        // search logs are stored without a refresh, so recent query ids are kept to resolve click logs
+        storedQueryIdCache = CacheBuilder.newBuilder().maximumSize(queueSize).expireAfterWrite(1, TimeUnit.MINUTES).build();
+        final long countCacheSize = fessConfig.getIndexerLogCountCacheSizeAsInteger().longValue();
+        if (countCacheSize > 0) {
+            final long countCacheExpire = fessConfig.getIndexerLogCountCacheExpireAsInteger().longValue();
+            clickCountCache =
+                    CacheBuilder.newBuilder().maximumSize(countCacheSize).expireAfterWrite(countCacheExpire, TimeUnit.MINUTES).build();
+            favoriteCountCache =
+                    CacheBuilder.newBuilder().maximumSize(countCacheSize).expireAfterWrite(countCacheExpire, TimeUnit.MINUTES).build();
+        }
     }
 
     public void addSearchLog(final SearchRequestParams params, final LocalDateTime requestedTime, final String queryId, final String query,
@@ -91,7 +184,8 @@ public class SearchLogHelper {
         searchLog.setQueryId(queryId);
         searchLog.setHitCount(queryResponseList.getAllRecordCount());
         searchLog.setResponseTime(queryResponseList.getExecTime());
-        searchLog.setQueryTime(queryResponseList.getQueryTime());
+        // a cached result did not reach Elasticsearch
+        searchLog.setQueryTime(queryResponseList.isCached() ? 0L : queryResponseList.getQueryTime());
         searchLog.setSearchWord(StringUtils.abbreviate(query, 1000));
         searchLog.setRequestedAt(requestedTime);
         searchLog.setSearchQuery(StringUtils.abbreviate(queryResponseList.getSearchQuery(), 1000));
@@ -141,7 +235,7 @@ public class SearchLogHelper {
 
         addDocumentsInResponse(queryResponseList, searchLog);
 
-        searchLogQueue.add(searchLog);
+        offer(searchLogQueue, searchLog);
     }
 
     protected void addDocumentsInResponse(final QueryResponseList queryResponseList, final SearchLog searchLog) {
@@ -155,23 +249,292 @@ public class SearchLogHelper {
     }
 
     public void addClickLog(final ClickLog clickLog) {
-        clickLogQueue.add(clickLog);
+        offer(clickLogQueue, clickLog);
+    }
+
+    protected <T> void offer(final BoundedLogQueue<T> queue, final T log) {
+        queue.offer(log);
+        final Thread thread = logFlushThread;
+        if (thread == null) {
+            startFlushThread();
+        } else if (queue.size() >= flushSize) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    protected synchronized void startFlushThread() {
+        if (logFlushThread != null) {
+            return;
+        }
+        running = true;
+        final Thread thread = new Thread((Runnable) () -> {
+            while (running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushInterval));
+                try {
+                    storeSearchLog();
+                } catch (final Exception e) {
+                    if (running) {
+                        logger.warn("Failed to store logs.", e);
+                    }
+                }
+            }
+        }, "SearchLogFlusher");
+        thread.setDaemon(true);
+        thread.start();
+        logFlushThread = thread;
     }
 
+    @PreDestroy
+    public void destroy() {
+        final Thread thread = logFlushThread;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(10000);
+        } catch (final InterruptedException e) {
+            logger.warn("Search log thread is timeouted.", e);
+        }
+        try {
+            storeSearchLog();
+        } catch (final Exception e) {
+            logger.warn("Failed to store logs.", e);
+        }
+        synchronized (spillLock) {
+            new ArrayList<>(spillWriterMap.keySet()).forEach(this::closeSpillWriter);
+        }
+    }
+
+    /**
+     * Stores buffered and spilled logs. This is called by the flush thread and AggregateLogJob.
+     * Logs which could not be stored are returned to their queue, so they are spilled or retried on the next flush.
+     */
     public void storeSearchLog() {
-        if (!searchLogQueue.isEmpty()) {
-            final Queue<SearchLog> queue = searchLogQueue;
-            searchLogQueue = new ConcurrentLinkedQueue<>();
-            processSearchLogQueue(queue);
+        synchronized (flushLock) {
+            if (!searchLogQueue.isEmpty()) {
+                final Queue<SearchLog> queue = new ArrayDeque<>(searchLogQueue.size());
+                searchLogQueue.drainTo(queue, searchLogQueue.getCapacity());
+                try {
+                    processSearchLogQueue(queue);
+                } catch (final Exception e) {
+                    logger.warn("Failed to store " + queue.size() + " search logs.", e);
+                    searchLogQueue.requeue(queue);
+                }
+            }
+
+            flushSpillWriters();
+            replaySpilledLogs(SEARCH_LOG_SPILL_FILE, source -> ComponentUtil.getComponent(SearchLogBhv.class).toEntity(source), queue -> {
+                try {
+                    processSearchLogQueue(queue);
+                    return true;
+                } catch (final Exception e) {
+                    logger.warn("Failed to store " + queue.size() + " spilled search logs.", e);
+                    return false;
+                }
+            });
+
+            if (!clickLogQueue.isEmpty()) {
+                final Queue<ClickLog> queue = new ArrayDeque<>(clickLogQueue.size());
+                clickLogQueue.drainTo(queue, clickLogQueue.getCapacity());
+                boolean stored;
+                try {
+                    stored = processClickLogQueue(queue);
+                } catch (final Exception e) {
+                    logger.warn("Failed to process click logs.", e);
+                    stored = false;
+                }
+                if (!stored) {
+                    logger.warn("Failed to store " + queue.size() + " click logs.");
+                    clickLogQueue.requeue(queue);
+                }
+            }
+            replaySpilledLogs(CLICK_LOG_SPILL_FILE, source -> ComponentUtil.getComponent(ClickLogBhv.class).toEntity(source), queue -> {
+                try {
+                    return processClickLogQueue(queue);
+                } catch (final Exception e) {
+                    logger.warn("Failed to store " + queue.size() + " spilled click logs.", e);
+                    return false;
+                }
+            });
         }
+    }
 
-        if (!clickLogQueue.isEmpty()) {
-            final Queue<ClickLog> queue = clickLogQueue;
-            clickLogQueue = new ConcurrentLinkedQueue<>();
-            processClickLogQueue(queue);
+    /**
+     * Appends the log to the spill file. The writer is kept open, and its buffer is flushed by the flush thread,
+     * so a search thread only serializes the log and appends it to the buffer.
+     * The spilled log has an id, so storing it again on a replay overwrites it.
+     */
+    protected void spill(final String name, final Map<String, Object> source) {
+        final Map<String, Object> spillMap = new LinkedHashMap<>(source);
+        spillMap.put(SPILL_ID_FIELD, UUID.randomUUID().toString().replace("-", StringUtil.EMPTY));
+        try {
+            final String line = objectMapper.writeValueAsString(spillMap);
+            synchronized (spillLock) {
+                final BufferedWriter writer = getSpillWriter(name);
+                try {
+                    writer.write(line);
+                    writer.newLine();
+                } catch (final IOException e) {
+                    closeSpillWriter(name);
+                    throw e;
+                }
+            }
+        } catch (final IOException e) {
+            throw new IORuntimeException(e);
         }
     }
 
+    protected BufferedWriter getSpillWriter(final String name) throws IOException {
+        BufferedWriter writer = spillWriterMap.get(name);
+        if (writer == null) {
+            if (!spillDir.isDirectory() && !spillDir.mkdirs()) {
+                throw new FessSystemException("Could not create " + spillDir.getAbsolutePath());
+            }
+            writer =
+                    Files.newBufferedWriter(new File(spillDir, name).toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND);
+            spillWriterMap.put(name, writer);
+        }
+        return writer;
+    }
+
+    protected void flushSpillWriters() {
+        synchronized (spillLock) {
+            for (final String name : new ArrayList<>(spillWriterMap.keySet())) {
+                try {
+                    spillWriterMap.get(name).flush();
+                } catch (final IOException e) {
+                    logger.warn("Failed to flush " + name, e);
+                    closeSpillWriter(name);
+                }
+            }
+        }
+    }
+
+    protected void closeSpillWriter(final String name) {
+        final BufferedWriter writer = spillWriterMap.remove(name);
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (final IOException e) {
+                logger.warn("Failed to close " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Stores spilled logs in batches. When a batch fails, the replay file keeps only the lines from the failed batch,
+     * and it is replayed again on the next flush.
+     */
+    protected <T extends EsAbstractEntity> void replaySpilledLogs(final String name, final Function<Map<String, Object>, T> converter,
+            final Predicate<Queue<T>> processor) {
+        final File replayFile = new File(spillDir, name + REPLAY_SUFFIX);
+        if (!replayFile.exists()) {
+            final File spillFile = new File(spillDir, name);
+            synchronized (spillLock) {
+                closeSpillWriter(name);
+                if (!spillFile.exists() || !spillFile.renameTo(replayFile)) {
+                    return;
+                }
+            }
+        }
+
+        final int batchSize = searchLogQueue.getCapacity();
+        final File remainingFile = new File(spillDir, name + REPLAY_SUFFIX + ".tmp");
+        int count = 0;
+        boolean completed = true;
+        try (BufferedReader reader = Files.newBufferedReader(replayFile.toPath(), StandardCharsets.UTF_8)) {
+            final List<String> lineList = new ArrayList<>();
+            final Queue<T> queue = new ArrayDeque<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (StringUtil.isBlank(line)) {
+                    continue;
+                }
+                final T entity = toSpilledEntity(line, converter);
+                if (entity == null) {
+                    continue;
+                }
+                lineList.add(line);
+                queue.add(entity);
+                if (queue.size() >= batchSize) {
+                    if (!processor.test(queue)) {
+                        completed = false;
+                        writeRemainingLines(remainingFile, lineList, reader);
+                        break;
+                    }
+                    count += queue.size();
+                    queue.clear();
+                    lineList.clear();
+                }
+            }
+            if (completed && !queue.isEmpty()) {
+                if (processor.test(queue)) {
+                    count += queue.size();
+                } else {
+                    completed = false;
+                    writeRemainingLines(remainingFile, lineList, reader);
+                }
+            }
+        } catch (final IOException e) {
+            // the file is replayed again on the next flush
+            logger.warn("Failed to replay " + replayFile.getAbsolutePath(), e);
+            return;
+        }
+
+        if (completed) {
+            if (!replayFile.delete()) {
+                logger.warn("Failed to delete " + replayFile.getAbsolutePath());
+            }
+        } else {
+            try {
+                Files.move(remainingFile.toPath(), replayFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (final IOException e) {
+                logger.warn("Failed to update " + replayFile.getAbsolutePath(), e);
+            }
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Replayed " + count + " spilled logs from " + replayFile.getAbsolutePath()
+                    + (completed ? "" : ", and the rest is replayed on the next flush"));
+        }
+    }
+
+    protected <T extends EsAbstractEntity> T toSpilledEntity(final String line, final Function<Map<String, Object>, T> converter) {
+        try {
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> source = objectMapper.readValue(line, Map.class);
+            final Object id = source.remove(SPILL_ID_FIELD);
+            final T entity = converter.apply(source);
+            if (id != null) {
+                entity.asDocMeta().id(id.toString());
+            }
+            return entity;
+        } catch (final Exception e) {
+            logger.warn("Skipped an invalid spilled log: " + line, e);
+            return null;
+        }
+    }
+
+    protected void writeRemainingLines(final File file, final List<String> lineList, final BufferedReader reader) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (final String line : lineList) {
+                writer.write(line);
+                writer.newLine();
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * @deprecated use {@link #getClickCountMap(Collection)}
+     */
+    @Deprecated
     public int getClickCount(final String url) {
         final ClickLogBhv clickLogBhv = ComponentUtil.getComponent(ClickLogBhv.class);
         return clickLogBhv.selectCount(cb -> {
@@ -179,6 +542,10 @@ public class SearchLogHelper {
         });
     }
 
+    /**
+     * @deprecated use {@link #getFavoriteCountMap(Collection)}
+     */
+    @Deprecated
     public long getFavoriteCount(final String url) {
         final FavoriteLogBhv favoriteLogBhv = ComponentUtil.getComponent(FavoriteLogBhv.class);
         return favoriteLogBhv.selectCount(cb -> {
@@ -186,6 +553,66 @@ public class SearchLogHelper {
         });
     }
 
+    public Map<String, Long> getClickCountMap(final Collection<String> urls) {
+        final ClickLogBhv clickLogBhv = ComponentUtil.getComponent(ClickLogBhv.class);
+        return getUrlCountMap(clickLogBhv.asEsIndexType(), clickLogBhv.asEsSearchType(), urls, clickCountCache);
+    }
+
+    public Map<String, Long> getFavoriteCountMap(final Collection<String> urls) {
+        final FavoriteLogBhv favoriteLogBhv = ComponentUtil.getComponent(FavoriteLogBhv.class);
+        return getUrlCountMap(favoriteLogBhv.asEsIndexType(), favoriteLogBhv.asEsSearchType(), urls, favoriteCountCache);
+    }
+
+    protected Map<String, Long> getUrlCountMap(final String indexType, final String searchType, final Collection<String> urls,
+            final Cache<String, Long> countCache) {
+        final Map<String, Long> countMap = new HashMap<>();
+        final Set<String> targetUrlSet = new LinkedHashSet<>();
+        for (final String url : urls) {
+            final Long count = countCache != null ? countCache.getIfPresent(url) : null;
+            if (count != null) {
+                countMap.put(url, count);
+            } else {
+                targetUrlSet.add(url);
+            }
+        }
+        if (targetUrlSet.isEmpty()) {
+            return countMap;
+        }
+
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final String index = fessConfig.getIndexLogIndex() + "." + indexType;
+        final String aggName = "count_" + logUrlField;
+        final Map<String, Long> resultMap = ComponentUtil.getFessEsClient().search(index, searchType, searchRequestBuilder -> {
+            searchRequestBuilder.setQuery(QueryBuilders.termsQuery(logUrlField, targetUrlSet));
+            searchRequestBuilder.setSize(0);
+            searchRequestBuilder.addAggregation(AggregationBuilders.terms(aggName).field(logUrlField).size(targetUrlSet.size()));
+            return true;
+        }, (searchRequestBuilder, execTime, searchResponse) -> {
+            final Map<String, Long> map = new HashMap<>();
+            searchResponse.ifPresent(response -> {
+                if (response.getAggregations() != null) {
+                    final Terms terms = response.getAggregations().get(aggName);
+                    if (terms != null) {
+                        terms.getBuckets().forEach(bucket -> map.put(bucket.getKeyAsString(), bucket.getDocCount()));
+                    }
+                }
+            });
+            if (logger.isDebugEnabled()) {
+                logger.debug("Loaded " + map.size() + "/" + targetUrlSet.size() + " counts from " + index + " in " + execTime + "ms.");
+            }
+            return map;
+        });
+
+        for (final String url : targetUrlSet) {
+            final Long count = resultMap.getOrDefault(url, 0L);
+            countMap.put(url, count);
+            if (countCache != null) {
+                countCache.put(url, count);
+            }
+        }
+        return countMap;
+    }
+
     public void updateUserInfo(final String userCode) {
         final long current = System.currentTimeMillis();
         final Long time = userInfoCache.get(userCode);
@@ -210,6 +637,22 @@ public class SearchLogHelper {
         }
     }
 
+    public int getSearchLogQueueSize() {
+        return searchLogQueue.size();
+    }
+
+    public int getClickLogQueueSize() {
+        return clickLogQueue.size();
+    }
+
+    public long getDroppedLogCount() {
+        return searchLogQueue.getDroppedCount() + clickLogQueue.getDroppedCount();
+    }
+
+    public long getSpilledLogCount() {
+        return searchLogQueue.getSpilledCount() + clickLogQueue.getSpilledCount();
+    }
+
     protected void processSearchLogQueue(final Queue<SearchLog> queue) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         final String value = fessConfig.getPurgeByBots();
@@ -276,34 +719,56 @@ public class SearchLogHelper {
 
     private void storeSearchLogList(final List<SearchLog> searchLogList) {
         final SearchLogBhv searchLogBhv = ComponentUtil.getComponent(SearchLogBhv.class);
-        searchLogBhv.batchUpdate(searchLogList, op -> {
-            op.setRefreshPolicy(Constants.TRUE);
-        });
+        searchLogBhv.batchUpdate(searchLogList);
+        searchLogList.stream().map(SearchLog::getQueryId).filter(StringUtil::isNotBlank)
+                .forEach(queryId -> storedQueryIdCache.put(queryId, Boolean.TRUE));
     }
 
-    protected void processClickLogQueue(final Queue<ClickLog> queue) {
+    /**
+     * @return false if the click logs could not be stored
+     */
+    protected boolean processClickLogQueue(final Queue<ClickLog> queue) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final int batchSize = fessConfig.getLoggingClickLogBatchSizeAsInteger().intValue();
+        final long startTime = System.currentTimeMillis();
+
+        final List<String> queryIdList =
+                new ArrayList<>(queue.stream().map(ClickLog::getQueryId).filter(StringUtil::isNotBlank)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+        final Set<String> existingQueryIdSet = new HashSet<>(queryIdList.size());
+        final List<String> unresolvedIdList = new ArrayList<>(queryIdList.size());
+        queryIdList.forEach(queryId -> {
+            if (storedQueryIdCache.getIfPresent(queryId) != null) {
+                existingQueryIdSet.add(queryId);
+            } else {
+                unresolvedIdList.add(queryId);
+            }
+        });
+        final SearchLogBhv searchLogBhv = ComponentUtil.getComponent(SearchLogBhv.class);
+        for (int i = 0; i < unresolvedIdList.size(); i += batchSize) {
+            final List<String> idList = unresolvedIdList.subList(i, Math.min(i + batchSize, unresolvedIdList.size()));
+            try {
+                searchLogBhv.selectList(cb -> {
+                    cb.query().setQueryId_InScope(idList);
+                    cb.specify().columnQueryId();
+                    cb.fetchFirst(idList.size());
+                }).forEach(entity -> existingQueryIdSet.add(entity.getQueryId()));
+            } catch (final Exception e) {
+                // click logs are not stored without their search logs
+                logger.warn("Failed to get search logs for " + idList.size() + " query ids.", e);
+                return false;
+            }
+        }
+        final long resolveTime = System.currentTimeMillis();
+
         final Map<String, Integer> clickCountMap = new HashMap<>();
         final List<ClickLog> clickLogList = new ArrayList<>();
         for (final ClickLog clickLog : queue) {
-            try {
-                final SearchLogBhv searchLogBhv = ComponentUtil.getComponent(SearchLogBhv.class);
-                searchLogBhv.selectEntity(cb -> {
-                    cb.query().setQueryId_Equal(clickLog.getQueryId());
-                }).ifPresent(entity -> {
-                    clickLogList.add(clickLog);
-                    final String docId = clickLog.getDocId();
-                    Integer countObj = clickCountMap.get(docId);
-                    if (countObj == null) {
-                        countObj = Integer.valueOf(1);
-                    } else {
-                        countObj = countObj.intValue() + 1;
-                    }
-                    clickCountMap.put(docId, countObj);
-                }).orElse(() -> {
-                    logger.warn("Not Found for SearchLog: " + clickLog);
-                });
-            } catch (final Exception e) {
-                logger.warn("Failed to process: " + clickLog, e);
+            if (existingQueryIdSet.contains(clickLog.getQueryId())) {
+                clickLogList.add(clickLog);
+                clickCountMap.merge(clickLog.getDocId(), 1, Integer::sum);
+            } else {
+                logger.warn("Not Found for SearchLog: " + clickLog);
             }
         }
         if (!clickLogList.isEmpty()) {
@@ -312,35 +777,49 @@ public class SearchLogHelper {
                 clickLogBhv.batchInsert(clickLogList);
             } catch (final Exception e) {
                 logger.warn("Failed to insert: " + clickLogList, e);
+                return false;
             }
         }
+        final long insertTime = System.currentTimeMillis();
 
         if (!clickCountMap.isEmpty()) {
             final SearchService searchService = ComponentUtil.getComponent(SearchService.class);
+            final List<String> docIdList = new ArrayList<>(clickCountMap.keySet());
+            final int docIdBatchSize = Math.min(batchSize, fessConfig.getPagingSearchPageMaxSizeAsInteger().intValue());
             try {
                 searchService.bulkUpdate(builder -> {
-                    final FessConfig fessConfig = ComponentUtil.getFessConfig();
-                    searchService.getDocumentListByDocIds(clickCountMap.keySet().toArray(new String[clickCountMap.size()]),
-                            new String[] { fessConfig.getIndexFieldDocId() }, OptionalThing.of(FessUserBean.empty()),
-                            SearchRequestType.ADMIN_SEARCH).forEach(
-                            doc -> {
-                                final String id = DocumentUtil.getValue(doc, fessConfig.getIndexFieldId(), String.class);
-                                final String docId = DocumentUtil.getValue(doc, fessConfig.getIndexFieldDocId(), String.class);
-                                if (id != null && docId != null && clickCountMap.containsKey(docId)) {
-                                    final Integer count = clickCountMap.get(docId);
-                                    final Script script =
-                                            new Script("ctx._source." + fessConfig.getIndexFieldClickCount() + "+=" + count.toString());
-                                    final Map<String, Object> upsertMap = new HashMap<>();
-                                    upsertMap.put(fessConfig.getIndexFieldClickCount(), count);
-                                    builder.add(new UpdateRequest(fessConfig.getIndexDocumentUpdateIndex(), fessConfig
-                                            .getIndexDocumentType(), id).script(script).upsert(upsertMap));
-                                }
-                            });
+                    for (int i = 0; i < docIdList.size(); i += docIdBatchSize) {
+                        final List<String> idList = docIdList.subList(i, Math.min(i + docIdBatchSize, docIdList.size()));
+                        searchService.getDocumentListByDocIds(idList.toArray(new String[idList.size()]),
+                                new String[] { fessConfig.getIndexFieldDocId() }, OptionalThing.of(FessUserBean.empty()),
+                                SearchRequestType.ADMIN_SEARCH).forEach(
+                                doc -> {
+                                    final String id = DocumentUtil.getValue(doc, fessConfig.getIndexFieldId(), String.class);
+                                    final String docId = DocumentUtil.getValue(doc, fessConfig.getIndexFieldDocId(), String.class);
+                                    if (id != null && docId != null && clickCountMap.containsKey(docId)) {
+                                        final Integer count = clickCountMap.get(docId);
+                                        final Script script =
+                                                new Script("ctx._source." + fessConfig.getIndexFieldClickCount() + "+=" + count.toString());
+                                        final Map<String, Object> upsertMap = new HashMap<>();
+                                        upsertMap.put(fessConfig.getIndexFieldClickCount(), count);
+                                        builder.add(new UpdateRequest(fessConfig.getIndexDocumentUpdateIndex(), fessConfig
+                                                .getIndexDocumentType(), id).script(script).upsert(upsertMap));
+                                    }
+                                });
+                    }
                 });
             } catch (final Exception e) {
                 logger.warn("Failed to update clickCounts", e);
             }
         }
+        final long updateTime = System.currentTimeMillis();
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Processed " + queue.size() + " click logs (query ids: " + queryIdList.size() + ", stored: " + clickLogList.size()
+                    + ", documents: " + clickCountMap.size() + "): resolve " + (resolveTime - startTime) + "ms, insert "
+                    + (insertTime - resolveTime) + "ms, update " + (updateTime - insertTime) + "ms");
+        }
+        return true;
     }
 
     public void setUserCheckInterval(final long userCheckInterval) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.util.ComponentUtil;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+public class SearchResultCacheHelper {
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultCacheHelper.class);
+
+    protected static final char CACHE_KEY_SPLITTER = '\n';
+
+    protected Cache<String, SearchResponse> cache;
+
+    @PostConstruct
+    public void init() {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final long cacheSize = fessConfig.getQueryResultCacheSizeAsInteger().longValue();
+        if (cacheSize > 0) {
+            cache =
+                    CacheBuilder.newBuilder().maximumSize(cacheSize)
+                            .expireAfterWrite(fessConfig.getQueryResultCacheExpireAsInteger().longValue(), TimeUnit.SECONDS)
+                            .recordStats().build();
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Creates a key from the built request. The source contains the parsed query, role and virtual host filters,
+     * language boosts, facets, geo, sort, offset and size, so equal keys always return the same response.
+     */
+    public String getCacheKey(final SearchRequestBuilder searchRequestBuilder) {
+        final SearchRequest request = searchRequestBuilder.request();
+        final StringBuilder buf = new StringBuilder(1000);
+        buf.append(String.join(",", request.indices())).append(CACHE_KEY_SPLITTER);
+        buf.append(String.join(",", request.types())).append(CACHE_KEY_SPLITTER);
+        if (request.source() != null) {
+            buf.append(request.source().toString());
+        }
+        return buf.toString();
+    }
+
+    public SearchResponse getSearchResponse(final String key) {
+        if (cache == null) {
+            return null;
+        }
+        final SearchResponse response = cache.getIfPresent(key);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Search result cache " + (response != null ? "hit" : "miss") + ": " + cache.stats());
+        }
+        return response;
+    }
+
+    public void putSearchResponse(final String key, final SearchResponse response) {
+        if (cache == null || response == null) {
+            return;
+        }
+        if (response.isTimedOut() || response.getTotalShards() != response.getSuccessfulShards()) {
+            // partial results
+            return;
+        }
+        cache.put(key, response);
+    }
+
+    public void clearCache() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long getCacheSize() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    public CacheStats getCacheStats() {
+        return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
+}
@@ -408,6 +408,7 @@ public class SystemHelper {
         ComponentUtil.getRelatedContentHelper().update();
         ComponentUtil.getRelatedQueryHelper().update();
         ComponentUtil.getKeyMatchHelper().update();
+        ComponentUtil.getQueryHelper().updateQueryParser();
     }
 
     public String updateConfiguration() {
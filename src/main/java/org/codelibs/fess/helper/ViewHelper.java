@@ -47,6 +47,7 @@ import org.codelibs.core.CoreLibConstants;
 import org.codelibs.core.io.CloseableUtil;
 import org.codelibs.core.lang.StringUtil;
 import org.codelibs.core.misc.DynamicProperties;
+import org.codelibs.core.misc.Pair;
 import org.codelibs.fess.Constants;
 import org.codelibs.fess.crawler.builder.RequestDataBuilder;
 import org.codelibs.fess.crawler.client.CrawlerClient;
@@ -94,6 +95,8 @@ public class ViewHelper {
 
     protected static final Pattern SHARED_FOLDER_PATTERN = Pattern.compile("^file:/+[^/]\\.");
 
+    protected static final Pattern HTML_TAG_PATTERN = Pattern.compile("<[^>]+>");
+
     protected boolean encodeUrlLink = false;
 
     protected String urlLinkEncoding = Constants.UTF_8;
@@ -120,6 +123,8 @@ public class ViewHelper {
 
     protected String cacheTemplateName = "cache";
 
+    protected volatile Pair<Long, Template> cacheTemplate = null;
+
     protected String escapedHighlightPre = null;
 
     protected String escapedHighlightPost = null;
@@ -407,8 +412,6 @@ public class ViewHelper {
 
     public String createCacheContent(final Map<String, Object> doc, final String[] queries) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        final FileTemplateLoader loader = new FileTemplateLoader(ResourceUtil.getViewTemplatePath().toFile());
-        final Handlebars handlebars = new Handlebars(loader);
 
         Locale locale = ComponentUtil.getRequestManager().getUserLocale();
         if (locale == null) {
@@ -450,7 +453,7 @@ public class ViewHelper {
         }
 
         try {
-            final Template template = handlebars.compile(cacheTemplateName);
+            final Template template = getCacheTemplate();
             final Context hbsContext = Context.newContext(doc);
             return template.apply(hbsContext);
         } catch (final Exception e) {
@@ -460,37 +463,73 @@ public class ViewHelper {
         return null;
     }
 
+    protected Template getCacheTemplate() throws IOException {
+        final File templateFile = ResourceUtil.getViewTemplatePath(cacheTemplateName + ".hbs").toFile();
+        final long lastModified = templateFile.lastModified();
+        final Pair<Long, Template> cached = cacheTemplate;
+        if (cached != null && cached.getFirst().longValue() == lastModified) {
+            return cached.getSecond();
+        }
+
+        final FileTemplateLoader loader = new FileTemplateLoader(ResourceUtil.getViewTemplatePath().toFile());
+        final Handlebars handlebars = new Handlebars(loader);
+        final Template template = handlebars.compile(cacheTemplateName);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Compiled " + templateFile.getAbsolutePath() + " (lastModified: " + lastModified + ")");
+        }
+        cacheTemplate = new Pair<>(lastModified, template);
+        return template;
+    }
+
+    public void clearCacheTemplate() {
+        cacheTemplate = null;
+    }
+
     protected String replaceHighlightQueries(final String cache, final String[] queries) {
-        final StringBuffer buf = new StringBuffer(cache.length() + 100);
-        final StringBuffer segBuf = new StringBuffer(1000);
-        final Pattern p = Pattern.compile("<[^>]+>");
-        final Matcher m = p.matcher(cache);
-        final String[] regexQueries = new String[queries.length];
-        final String[] hlQueries = new String[queries.length];
-        for (int i = 0; i < queries.length; i++) {
-            regexQueries[i] = Pattern.quote(queries[i]);
-            hlQueries[i] = highlightTagPre + queries[i] + highlightTagPost;
+        final Map<String, String> hlQueryMap = new HashMap<>();
+        final StringBuilder regexBuf = new StringBuilder(100);
+        for (final String query : queries) {
+            if (StringUtil.isBlank(query)) {
+                continue;
+            }
+            final String key = query.toLowerCase(Locale.ROOT);
+            if (!hlQueryMap.containsKey(key)) {
+                hlQueryMap.put(key, Matcher.quoteReplacement(highlightTagPre + query + highlightTagPost));
+                if (regexBuf.length() > 0) {
+                    regexBuf.append('|');
+                }
+                regexBuf.append(Pattern.quote(query));
+            }
         }
+        if (hlQueryMap.isEmpty()) {
+            return cache;
+        }
+        final Matcher queryMatcher = Pattern.compile(regexBuf.toString(), Pattern.CASE_INSENSITIVE).matcher(StringUtil.EMPTY);
+
+        final StringBuffer buf = new StringBuffer(cache.length() + 100);
+        final Matcher m = HTML_TAG_PATTERN.matcher(cache);
+        int start = 0;
         while (m.find()) {
-            segBuf.setLength(0);
-            m.appendReplacement(segBuf, StringUtil.EMPTY);
-            String segment = segBuf.toString();
-            for (int i = 0; i < queries.length; i++) {
-                segment = Pattern.compile(regexQueries[i], Pattern.CASE_INSENSITIVE).matcher(segment).replaceAll(hlQueries[i]);
-            }
-            buf.append(segment);
+            appendHighlightedSegment(buf, cache.substring(start, m.start()), queryMatcher, hlQueryMap);
             buf.append(m.group(0));
+            start = m.end();
         }
-        segBuf.setLength(0);
-        m.appendTail(segBuf);
-        String segment = segBuf.toString();
-        for (int i = 0; i < queries.length; i++) {
-            segment = Pattern.compile(regexQueries[i], Pattern.CASE_INSENSITIVE).matcher(segment).replaceAll(hlQueries[i]);
-        }
-        buf.append(segment);
+        appendHighlightedSegment(buf, cache.substring(start), queryMatcher, hlQueryMap);
         return buf.toString();
     }
 
+    protected void appendHighlightedSegment(final StringBuffer buf, final String segment, final Matcher queryMatcher,
+            final Map<String, String> hlQueryMap) {
+        if (segment.isEmpty()) {
+            return;
+        }
+        queryMatcher.reset(segment);
+        while (queryMatcher.find()) {
+            queryMatcher.appendReplacement(buf, hlQueryMap.get(queryMatcher.group(0).toLowerCase(Locale.ROOT)));
+        }
+        queryMatcher.appendTail(buf);
+    }
+
     public Object getSitePath(final Map<String, Object> docMap) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         final Object urlLink = docMap.get(fessConfig.getResponseFieldUrlLink());
@@ -82,8 +82,6 @@ public class WebFsIndexHelper {
     }
 
     protected void doCrawl(final String sessionId, final List<WebConfig> webConfigList, final List<FileConfig> fileConfigList) {
-        final int multiprocessCrawlingCount = ComponentUtil.getFessConfig().getCrawlingThreadCount();
-
         final SystemHelper systemHelper = ComponentUtil.getSystemHelper();
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
 
@@ -364,9 +362,52 @@ public class WebFsIndexHelper {
         });
         indexUpdater.start();
 
+        runCrawlers(crawlerStatusList, indexUpdater);
+        crawlerList.clear();
+        crawlerStatusList.clear();
+
+        // put cralwing info
+        final CrawlingInfoHelper crawlingInfoHelper = ComponentUtil.getCrawlingInfoHelper();
+
+        final long execTime = System.currentTimeMillis() - startTime;
+        crawlingInfoHelper.putToInfoMap(Constants.WEB_FS_CRAWLING_EXEC_TIME, Long.toString(execTime));
+        if (logger.isInfoEnabled()) {
+            logger.info("[EXEC TIME] crawling time: " + execTime + "ms");
+        }
+
+        indexUpdater.setFinishCrawling(true);
+        try {
+            indexUpdater.join();
+        } catch (final InterruptedException e) {
+            logger.warn("Interrupted index update.", e);
+        }
+
+        crawlingInfoHelper.putToInfoMap(Constants.WEB_FS_INDEX_EXEC_TIME, Long.toString(indexUpdater.getExecuteTime()));
+        crawlingInfoHelper.putToInfoMap(Constants.WEB_FS_INDEX_SIZE, Long.toString(indexUpdater.getDocumentSize()));
+
+        if (systemHelper.isForceStop()) {
+            return;
+        }
+
+        for (final String sid : sessionIdList) {
+            // remove config
+            ComponentUtil.getCrawlingConfigHelper().remove(sid);
+            deleteCrawlData(sid);
+        }
+    }
+
+    /**
+     * Starts the crawlers, at most crawling.thread.count at a time, and waits until all of them are done.
+     */
+    protected void runCrawlers(final List<String> crawlerStatusList, final IndexUpdater indexUpdater) {
+        final int multiprocessCrawlingCount = ComponentUtil.getFessConfig().getCrawlingThreadCount();
+        final SystemHelper systemHelper = ComponentUtil.getSystemHelper();
+
         int startedCrawlerNum = 0;
         int activeCrawlerNum = 0;
         while (startedCrawlerNum < crawlerList.size()) {
+            final long eventCount = getCrawlerEventCount();
+
             // Force to stop crawl
             if (systemHelper.isForceStop()) {
                 for (final Crawler crawler : crawlerList) {
@@ -381,20 +422,13 @@ public class WebFsIndexHelper {
                 crawlerStatusList.set(startedCrawlerNum, Constants.RUNNING);
                 startedCrawlerNum++;
                 activeCrawlerNum++;
-                try {
-                    Thread.sleep(crawlingExecutionInterval);
-                } catch (final InterruptedException e) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Interrupted.", e);
-                    }
-                }
+                awaitCrawlerEvent(eventCount, crawlingExecutionInterval);
                 continue;
             }
 
             // check status
             for (int i = 0; i < startedCrawlerNum; i++) {
-                if (crawlerList.get(i).getCrawlerContext().getStatus() == CrawlerStatus.DONE
-                        && crawlerStatusList.get(i).equals(Constants.RUNNING)) {
+                if (crawlerStatusList.get(i).equals(Constants.RUNNING) && isCrawlerFinished(crawlerList.get(i))) {
                     crawlerList.get(i).awaitTermination();
                     crawlerStatusList.set(i, Constants.DONE);
                     final String sid = crawlerList.get(i).getCrawlerContext().getSessionId();
@@ -402,13 +436,7 @@ public class WebFsIndexHelper {
                     activeCrawlerNum--;
                 }
             }
-            try {
-                Thread.sleep(crawlingExecutionInterval);
-            } catch (final InterruptedException e) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Interrupted.", e);
-                }
-            }
+            awaitCrawlerEvent(eventCount, crawlingExecutionInterval);
         }
 
         boolean finishedAll = false;
@@ -427,45 +455,46 @@ public class WebFsIndexHelper {
                 }
             }
         }
-        crawlerList.clear();
-        crawlerStatusList.clear();
+    }
 
-        // put cralwing info
-        final CrawlingInfoHelper crawlingInfoHelper = ComponentUtil.getCrawlingInfoHelper();
+    protected List<BoostDocumentRule> getAvailableBoostDocumentRuleList() {
+        return ComponentUtil.getComponent(BoostDocumentRuleBhv.class).selectList(cb -> {
+            cb.query().matchAll();
+            cb.query().addOrderBy_SortOrder_Asc();
+            cb.fetchFirst(ComponentUtil.getFessConfig().getPageDocboostMaxFetchSizeAsInteger());
+        });
+    }
 
-        final long execTime = System.currentTimeMillis() - startTime;
-        crawlingInfoHelper.putToInfoMap(Constants.WEB_FS_CRAWLING_EXEC_TIME, Long.toString(execTime));
-        if (logger.isInfoEnabled()) {
-            logger.info("[EXEC TIME] crawling time: " + execTime + "ms");
+    protected long getCrawlerEventCount() {
+        if (ComponentUtil.hasCrawlerEventHelper()) {
+            return ComponentUtil.getCrawlerEventHelper().getCrawlerEventCount();
         }
+        return 0;
+    }
 
-        indexUpdater.setFinishCrawling(true);
+    protected void awaitCrawlerEvent(final long eventCount, final long timeout) {
         try {
-            indexUpdater.join();
+            if (ComponentUtil.hasCrawlerEventHelper()) {
+                ComponentUtil.getCrawlerEventHelper().awaitCrawlerEvent(eventCount, timeout);
+            } else {
+                Thread.sleep(timeout);
+            }
         } catch (final InterruptedException e) {
-            logger.warn("Interrupted index update.", e);
-        }
-
-        crawlingInfoHelper.putToInfoMap(Constants.WEB_FS_INDEX_EXEC_TIME, Long.toString(indexUpdater.getExecuteTime()));
-        crawlingInfoHelper.putToInfoMap(Constants.WEB_FS_INDEX_SIZE, Long.toString(indexUpdater.getDocumentSize()));
-
-        if (systemHelper.isForceStop()) {
-            return;
-        }
-
-        for (final String sid : sessionIdList) {
-            // remove config
-            ComponentUtil.getCrawlingConfigHelper().remove(sid);
-            deleteCrawlData(sid);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Interrupted.", e);
+            }
         }
     }
 
-    protected List<BoostDocumentRule> getAvailableBoostDocumentRuleList() {
-        return ComponentUtil.getComponent(BoostDocumentRuleBhv.class).selectList(cb -> {
-            cb.query().matchAll();
-            cb.query().addOrderBy_SortOrder_Asc();
-            cb.fetchFirst(ComponentUtil.getFessConfig().getPageDocboostMaxFetchSizeAsInteger());
-        });
+    protected boolean isCrawlerFinished(final Crawler crawler) {
+        final CrawlerContext crawlerContext = crawler.getCrawlerContext();
+        if (crawlerContext.getStatus() == CrawlerStatus.DONE) {
+            return true;
+        }
+        // all crawler threads have finished, so the crawler is about to be done
+        return ComponentUtil.hasCrawlerEventHelper()
+                && ComponentUtil.getCrawlerEventHelper().getFinishedThreadCount(crawlerContext.getSessionId()) >= crawlerContext
+                        .getNumOfThread();
     }
 
     protected void deleteCrawlData(final String sid) {
@@ -16,8 +16,18 @@
 package org.codelibs.fess.indexer;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import javax.annotation.PreDestroy;
@@ -51,7 +61,7 @@ import org.codelibs.fess.util.DocList;
 import org.codelibs.fess.util.MemoryUtil;
 import org.codelibs.fess.util.ThreadDumpUtil;
 import org.elasticsearch.action.search.SearchRequestBuilder;
-import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 import org.slf4j.Logger;
@@ -90,7 +100,7 @@ public class IndexUpdater extends Thread {
 
     protected long executeTime;
 
-    protected long documentSize;
+    protected final AtomicLong documentSize = new AtomicLong(0);
 
     protected int maxIndexerErrorCount = 0;
 
@@ -102,6 +112,22 @@ public class IndexUpdater extends Thread {
 
     private List<Crawler> crawlerList;
 
+    protected ExecutorService transformExecutor;
+
+    protected ExecutorService[] senderExecutors;
+
+    protected Semaphore pipelineSemaphore;
+
+    protected int pipelineQueueSize;
+
+    protected final Set<String> processingIdSet = ConcurrentHashMap.newKeySet();
+
+    protected final AtomicLong pendingAccessResultCount = new AtomicLong(0);
+
+    protected final Map<String, Integer> failureCountMap = new ConcurrentHashMap<>();
+
+    protected int executorTerminationTimeout = 300;
+
     public IndexUpdater() {
         // nothing
     }
@@ -152,21 +178,35 @@ public class IndexUpdater extends Thread {
         }
 
         executeTime = 0;
-        documentSize = 0;
+        documentSize.set(0);
+        if (ComponentUtil.hasMetricsHelper()) {
+            ComponentUtil.getMetricsHelper().gauge("fess_indexer_pending_access_results", "Access results waiting for indexing.",
+                    pendingAccessResultCount::get);
+        }
 
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         final long updateInterval = fessConfig.getIndexerWebfsUpdateIntervalAsInteger().longValue();
+        final long minUpdateInterval = fessConfig.getIndexerWebfsUpdateMinIntervalAsInteger().longValue();
         final int maxEmptyListCount = fessConfig.getIndexerWebfsMaxEmptyListCountAsInteger().intValue();
         final IntervalControlHelper intervalControlHelper = ComponentUtil.getIntervalControlHelper();
+        final int transformThreadSize = fessConfig.getIndexerWebfsTransformThreadSizeAsInteger().intValue();
+        if (transformThreadSize > 0) {
+            startPipeline(transformThreadSize, fessConfig.getIndexerWebfsSenderThreadSizeAsInteger().intValue(), fessConfig
+                    .getIndexerWebfsPipelineQueueSizeAsInteger().intValue());
+        }
         try {
             final Consumer<SearchRequestBuilder> cb =
                     builder -> {
-                        final QueryBuilder queryBuilder =
+                        final BoolQueryBuilder queryBuilder =
                                 QueryBuilders
                                         .boolQuery()
                                         .filter(QueryBuilders.termsQuery(EsAccessResult.SESSION_ID, sessionIdList))
                                         .filter(QueryBuilders.termQuery(EsAccessResult.STATUS,
                                                 org.codelibs.fess.crawler.Constants.OK_STATUS));
+                        if (!processingIdSet.isEmpty()) {
+                            // exclude access results which are processed in the pipeline
+                            queryBuilder.mustNot(QueryBuilders.idsQuery().addIds(processingIdSet.stream().toArray(n -> new String[n])));
+                        }
                         builder.setQuery(queryBuilder);
                         builder.setFrom(0);
                         final int maxDocumentCacheSize = fessConfig.getIndexerWebfsMaxDocumentCacheSizeAsInteger().intValue();
@@ -181,6 +221,7 @@ public class IndexUpdater extends Thread {
             int errorCount = 0;
             int emptyListCount = 0;
             long cleanupTime = -1;
+            long eventCount = getAccessResultEventCount();
             while (!finishCrawling || !accessResultList.isEmpty()) {
                 try {
                     final int sessionIdListSize = finishedSessionIdList.size();
@@ -189,13 +230,10 @@ public class IndexUpdater extends Thread {
                     updateTime = System.currentTimeMillis() - updateTime;
 
                     final long interval = updateInterval - updateTime;
+                    boolean updated = false;
                     if (interval > 0) {
-                        // sleep
-                        try {
-                            Thread.sleep(interval); // 10 sec (default)
-                        } catch (final InterruptedException e) {
-                            logger.warn("Interrupted index update.", e);
-                        }
+                        // wait for access results stored by crawler threads, 10 sec at most (default)
+                        updated = awaitAccessResults(eventCount, minUpdateInterval - updateTime, interval);
                     }
 
                     docList.clear();
@@ -208,14 +246,18 @@ public class IndexUpdater extends Thread {
                     }
 
                     updateTime = System.currentTimeMillis();
+                    eventCount = getAccessResultEventCount();
 
                     List<EsAccessResult> arList = getAccessResultList(cb, cleanupTime);
                     if (arList.isEmpty()) {
-                        emptyListCount++;
+                        if (!updated) {
+                            emptyListCount++;
+                        }
                     } else {
                         emptyListCount = 0; // reset
                     }
                     long hitCount = ((EsResultList<EsAccessResult>) arList).getTotalHits();
+                    pendingAccessResultCount.set(hitCount);
                     while (hitCount > 0) {
                         if (arList.isEmpty()) {
                             try {
@@ -224,16 +266,23 @@ public class IndexUpdater extends Thread {
                                 // ignore
                             }
                             cleanupTime = -1;
+                        } else if (transformExecutor != null) {
+                            processAccessResultsInPipeline(arList);
+                            cleanupTime = -1;
                         } else {
                             processAccessResults(docList, accessResultList, arList);
                             cleanupTime = cleanupAccessResults(accessResultList);
                         }
                         arList = getAccessResultList(cb, cleanupTime);
                         hitCount = ((EsResultList<EsAccessResult>) arList).getTotalHits();
+                        pendingAccessResultCount.set(hitCount);
                     }
                     if (!docList.isEmpty()) {
                         indexingHelper.sendDocuments(fessEsClient, docList);
                     }
+                    if (transformExecutor != null) {
+                        waitForPipeline();
+                    }
 
                     synchronized (finishedSessionIdList) {
                         if (sessionIdListSize != 0 && sessionIdListSize == finishedSessionIdList.size()) {
@@ -306,6 +355,9 @@ public class IndexUpdater extends Thread {
             forceStop();
         } finally {
             intervalControlHelper.setCrawlerRunning(true);
+            if (transformExecutor != null) {
+                stopPipeline();
+            }
         }
 
         if (logger.isInfoEnabled()) {
@@ -317,12 +369,46 @@ public class IndexUpdater extends Thread {
     private void processAccessResults(final DocList docList, final List<EsAccessResult> accessResultList, final List<EsAccessResult> arList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         final long maxDocumentRequestSize = fessConfig.getIndexerWebfsMaxDocumentRequestSizeAsInteger().longValue();
+        for (final EsAccessResult accessResult : arList) {
+            accessResult.setStatus(Constants.DONE_STATUS);
+            accessResultList.add(accessResult);
+        }
+
+        for (final IndexingTarget target : transformAccessResults(arList)) {
+            final EsAccessResult accessResult = target.accessResult;
+            try {
+                docList.add(target.map);
+                final long processingTime = System.currentTimeMillis() - target.startTime;
+                docList.addProcessingTime(processingTime);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Added the document(" + MemoryUtil.byteCountToDisplaySize(docList.getContentSize()) + ", "
+                            + processingTime + "ms). " + "The number of a document cache is " + docList.size() + ".");
+                }
+
+                if (accessResult.getContentLength() == null) {
+                    indexingHelper.sendDocuments(fessEsClient, docList);
+                } else {
+                    docList.addContentSize(accessResult.getContentLength().longValue());
+                    if (docList.getContentSize() >= maxDocumentRequestSize) {
+                        indexingHelper.sendDocuments(fessEsClient, docList);
+                    }
+                }
+                final long size = documentSize.incrementAndGet();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("The number of an added document is " + size + ".");
+                }
+            } catch (final Exception e) {
+                logger.warn("Could not add a doc: " + accessResult.getUrl(), e);
+            }
+        }
+    }
+
+    protected List<IndexingTarget> transformAccessResults(final List<EsAccessResult> arList) {
+        final List<IndexingTarget> targetList = new ArrayList<>(arList.size());
         for (final EsAccessResult accessResult : arList) {
             if (logger.isDebugEnabled()) {
                 logger.debug("Indexing " + accessResult.getUrl());
             }
-            accessResult.setStatus(Constants.DONE_STATUS);
-            accessResultList.add(accessResult);
 
             if (accessResult.getHttpStatusCode() != 200) {
                 // invalid page
@@ -360,28 +446,7 @@ public class IndexUpdater extends Thread {
                         map.remove(Constants.INDEXING_TARGET);
                     }
 
-                    updateDocument(map);
-
-                    docList.add(map);
-                    final long processingTime = System.currentTimeMillis() - startTime;
-                    docList.addProcessingTime(processingTime);
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Added the document(" + MemoryUtil.byteCountToDisplaySize(docList.getContentSize()) + ", "
-                                + processingTime + "ms). " + "The number of a document cache is " + docList.size() + ".");
-                    }
-
-                    if (accessResult.getContentLength() == null) {
-                        indexingHelper.sendDocuments(fessEsClient, docList);
-                    } else {
-                        docList.addContentSize(accessResult.getContentLength().longValue());
-                        if (docList.getContentSize() >= maxDocumentRequestSize) {
-                            indexingHelper.sendDocuments(fessEsClient, docList);
-                        }
-                    }
-                    documentSize++;
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("The number of an added document is " + documentSize + ".");
-                    }
+                    targetList.add(new IndexingTarget(accessResult, map, startTime));
                 } catch (final Exception e) {
                     logger.warn("Could not add a doc: " + accessResult.getUrl(), e);
                 }
@@ -392,18 +457,200 @@ public class IndexUpdater extends Thread {
             }
 
         }
+
+        if (targetList.isEmpty()) {
+            return targetList;
+        }
+
+        try {
+            final List<Map<String, Object>> mapList = new ArrayList<>(targetList.size());
+            targetList.forEach(target -> mapList.add(target.map));
+            updateCountFields(mapList);
+        } catch (final Exception e) {
+            // indexing without the counts would reset them
+            logger.warn("Could not load click/favorite counts.", e);
+            for (final IndexingTarget target : targetList) {
+                logger.warn("Could not add a doc: " + target.accessResult.getUrl());
+            }
+            return new ArrayList<>();
+        }
+
+        final List<IndexingTarget> resultList = new ArrayList<>(targetList.size());
+        for (final IndexingTarget target : targetList) {
+            try {
+                updateDocument(target.map);
+                resultList.add(target);
+            } catch (final Exception e) {
+                logger.warn("Could not add a doc: " + target.accessResult.getUrl(), e);
+            }
+        }
+        return resultList;
+    }
+
+    protected void startPipeline(final int transformThreadSize, final int senderThreadSize, final int queueSize) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Starting indexing pipeline: transform=" + transformThreadSize + ", sender=" + senderThreadSize + ", queue="
+                    + queueSize);
+        }
+        pipelineQueueSize = queueSize < 1 ? 1 : queueSize;
+        pipelineSemaphore = new Semaphore(pipelineQueueSize);
+        if (ComponentUtil.hasMetricsHelper()) {
+            ComponentUtil.getMetricsHelper().gauge("fess_indexer_pipeline_in_flight", "Access results in the indexing pipeline.",
+                    () -> pipelineQueueSize - pipelineSemaphore.availablePermits());
+        }
+        transformExecutor = newFixedThreadPool(transformThreadSize);
+        senderExecutors = new ExecutorService[senderThreadSize < 1 ? 1 : senderThreadSize];
+        for (int i = 0; i < senderExecutors.length; i++) {
+            // a single thread per lane keeps the order of bulk requests in a session
+            senderExecutors[i] = newFixedThreadPool(1);
+        }
     }
 
-    protected void updateDocument(final Map<String, Object> map) {
+    protected ExecutorService newFixedThreadPool(final int nThreads) {
+        return new ThreadPoolExecutor(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+    }
+
+    protected void processAccessResultsInPipeline(final List<EsAccessResult> arList) throws InterruptedException {
+        final Map<String, List<EsAccessResult>> sessionMap = new LinkedHashMap<>();
+        for (final EsAccessResult accessResult : arList) {
+            if (processingIdSet.add(accessResult.getId())) {
+                sessionMap.computeIfAbsent(String.valueOf(accessResult.getSessionId()), k -> new ArrayList<>()).add(accessResult);
+            }
+        }
+
+        for (final Map.Entry<String, List<EsAccessResult>> entry : sessionMap.entrySet()) {
+            final List<EsAccessResult> batchList = entry.getValue();
+            try {
+                pipelineSemaphore.acquire();
+            } catch (final InterruptedException e) {
+                sessionMap.values().forEach(list -> list.forEach(accessResult -> processingIdSet.remove(accessResult.getId())));
+                throw e;
+            }
+            try {
+                final Future<List<DocList>> future = transformExecutor.submit(() -> createDocLists(transformAccessResults(batchList)));
+                final ExecutorService senderExecutor = senderExecutors[Math.abs(entry.getKey().hashCode() % senderExecutors.length)];
+                senderExecutor.execute(() -> {
+                    try {
+                        sendAccessResults(batchList, future);
+                    } finally {
+                        pipelineSemaphore.release();
+                    }
+                });
+            } catch (final Exception e) {
+                pipelineSemaphore.release();
+                batchList.forEach(accessResult -> processingIdSet.remove(accessResult.getId()));
+                throw e;
+            }
+        }
+    }
+
+    protected List<DocList> createDocLists(final List<IndexingTarget> targetList) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final long maxDocumentRequestSize = fessConfig.getIndexerWebfsMaxDocumentRequestSizeAsInteger().longValue();
+        final List<DocList> docListList = new ArrayList<>();
+        DocList docList = new DocList();
+        for (final IndexingTarget target : targetList) {
+            docList.add(target.map);
+            docList.addProcessingTime(System.currentTimeMillis() - target.startTime);
+            final Long contentLength = target.accessResult.getContentLength();
+            if (contentLength != null) {
+                docList.addContentSize(contentLength.longValue());
+            }
+            if (contentLength == null || docList.getContentSize() >= maxDocumentRequestSize) {
+                docListList.add(docList);
+                docList = new DocList();
+            }
+        }
+        if (!docList.isEmpty()) {
+            docListList.add(docList);
+        }
+        return docListList;
+    }
+
+    protected void sendAccessResults(final List<EsAccessResult> batchList, final Future<List<DocList>> future) {
+        try {
+            int size = 0;
+            for (final DocList docList : future.get()) {
+                size += docList.size();
+                indexingHelper.sendDocuments(fessEsClient, docList);
+            }
+            updateAccessResults(batchList);
+            documentSize.addAndGet(size);
+        } catch (final Exception e) {
+            final List<EsAccessResult> abortedList = new ArrayList<>();
+            for (final EsAccessResult accessResult : batchList) {
+                final int count = failureCountMap.merge(accessResult.getId(), 1, Integer::sum);
+                if (count > maxErrorCount) {
+                    abortedList.add(accessResult);
+                }
+            }
+            logger.warn("Failed to index " + batchList.size() + " docs. " + abortedList.size() + " docs are skipped.", e);
+            if (!abortedList.isEmpty()) {
+                try {
+                    updateAccessResults(abortedList);
+                } catch (final Exception e1) {
+                    logger.warn("Failed to update access results.", e1);
+                }
+            }
+        } finally {
+            batchList.forEach(accessResult -> processingIdSet.remove(accessResult.getId()));
+        }
+    }
+
+    private void updateAccessResults(final List<EsAccessResult> accessResultList) {
+        final long execTime = System.currentTimeMillis();
+        for (final EsAccessResult accessResult : accessResultList) {
+            accessResult.setStatus(Constants.DONE_STATUS);
+            failureCountMap.remove(accessResult.getId());
+        }
+        dataService.update(accessResultList);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updated " + accessResultList.size() + " access results. The execution time is "
+                    + (System.currentTimeMillis() - execTime) + "ms.");
+        }
+    }
+
+    protected void waitForPipeline() throws InterruptedException {
+        pipelineSemaphore.acquire(pipelineQueueSize);
+        pipelineSemaphore.release(pipelineQueueSize);
+    }
+
+    protected void stopPipeline() {
+        final List<ExecutorService> executorList = new ArrayList<>();
+        executorList.add(transformExecutor);
+        for (final ExecutorService executor : senderExecutors) {
+            executorList.add(executor);
+        }
+        for (final ExecutorService executor : executorList) {
+            try {
+                executor.shutdown();
+                executor.awaitTermination(executorTerminationTimeout, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Interrupted.", e);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        transformExecutor = null;
+        senderExecutors = null;
+    }
+
+    protected void updateCountFields(final List<Map<String, Object>> mapList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
 
         if (fessConfig.getIndexerClickCountEnabledAsBoolean()) {
-            addClickCountField(map);
+            addClickCountField(mapList);
         }
 
         if (fessConfig.getIndexerFavoriteCountEnabledAsBoolean()) {
-            addFavoriteCountField(map);
+            addFavoriteCountField(mapList);
         }
+    }
+
+    protected void updateDocument(final Map<String, Object> map) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
 
         float documentBoost = 0.0f;
         for (final DocBoostMatcher docBoostMatcher : docBoostMatcherList) {
@@ -430,30 +677,86 @@ public class IndexUpdater extends Thread {
         }
     }
 
-    protected void addClickCountField(final Map<String, Object> doc) {
+    protected void addClickCountField(final List<Map<String, Object>> mapList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        final String url = (String) doc.get(fessConfig.getIndexFieldUrl());
-        if (StringUtil.isNotBlank(url)) {
-            final SearchLogHelper searchLogHelper = ComponentUtil.getSearchLogHelper();
-            final int count = searchLogHelper.getClickCount(url);
-            doc.put(fessConfig.getIndexFieldClickCount(), count);
-            if (logger.isDebugEnabled()) {
-                logger.debug("Click Count: " + count + ", url: " + url);
+        final List<String> urlList = getUrlList(mapList);
+        if (urlList.isEmpty()) {
+            return;
+        }
+        final SearchLogHelper searchLogHelper = ComponentUtil.getSearchLogHelper();
+        final Map<String, Long> countMap = searchLogHelper.getClickCountMap(urlList);
+        for (final Map<String, Object> doc : mapList) {
+            final String url = (String) doc.get(fessConfig.getIndexFieldUrl());
+            if (StringUtil.isNotBlank(url)) {
+                final int count = countMap.getOrDefault(url, 0L).intValue();
+                doc.put(fessConfig.getIndexFieldClickCount(), count);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Click Count: " + count + ", url: " + url);
+                }
             }
         }
     }
 
-    protected void addFavoriteCountField(final Map<String, Object> map) {
+    protected void addFavoriteCountField(final List<Map<String, Object>> mapList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        final String url = (String) map.get(fessConfig.getIndexFieldUrl());
-        if (StringUtil.isNotBlank(url)) {
-            final SearchLogHelper searchLogHelper = ComponentUtil.getSearchLogHelper();
-            final long count = searchLogHelper.getFavoriteCount(url);
-            map.put(fessConfig.getIndexFieldFavoriteCount(), count);
-            if (logger.isDebugEnabled()) {
-                logger.debug("Favorite Count: " + count + ", url: " + url);
+        final List<String> urlList = getUrlList(mapList);
+        if (urlList.isEmpty()) {
+            return;
+        }
+        final SearchLogHelper searchLogHelper = ComponentUtil.getSearchLogHelper();
+        final Map<String, Long> countMap = searchLogHelper.getFavoriteCountMap(urlList);
+        for (final Map<String, Object> map : mapList) {
+            final String url = (String) map.get(fessConfig.getIndexFieldUrl());
+            if (StringUtil.isNotBlank(url)) {
+                final long count = countMap.getOrDefault(url, 0L).longValue();
+                map.put(fessConfig.getIndexFieldFavoriteCount(), count);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Favorite Count: " + count + ", url: " + url);
+                }
+            }
+        }
+    }
+
+    private List<String> getUrlList(final List<Map<String, Object>> mapList) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final List<String> urlList = new ArrayList<>(mapList.size());
+        for (final Map<String, Object> map : mapList) {
+            final String url = (String) map.get(fessConfig.getIndexFieldUrl());
+            if (StringUtil.isNotBlank(url)) {
+                urlList.add(url);
+            }
+        }
+        return urlList;
+    }
+
+    protected long getAccessResultEventCount() {
+        if (ComponentUtil.hasCrawlerEventHelper()) {
+            return ComponentUtil.getCrawlerEventHelper().getAccessResultEventCount();
+        }
+        return 0;
+    }
+
+    /**
+     * Waits for the interval, or returns after the minimum interval when crawler threads store access results.
+     *
+     * @return true if access results were stored while waiting
+     */
+    protected boolean awaitAccessResults(final long eventCount, final long minInterval, final long interval) {
+        try {
+            if (minInterval > 0) {
+                Thread.sleep(Math.min(minInterval, interval));
+            }
+            final long timeout = minInterval > 0 ? interval - minInterval : interval;
+            if (ComponentUtil.hasCrawlerEventHelper()) {
+                return ComponentUtil.getCrawlerEventHelper().awaitAccessResult(eventCount, timeout);
+            }
+            if (timeout > 0) {
+                Thread.sleep(timeout);
             }
+        } catch (final InterruptedException e) {
+            logger.warn("Interrupted index update.", e);
         }
+        return false;
     }
 
     private long cleanupAccessResults(final List<EsAccessResult> accessResultList) {
@@ -558,10 +861,13 @@ public class IndexUpdater extends Thread {
 
     public void setFinishCrawling(final boolean finishCrawling) {
         this.finishCrawling = finishCrawling;
+        if (finishCrawling && ComponentUtil.hasCrawlerEventHelper()) {
+            ComponentUtil.getCrawlerEventHelper().notifyAccessResultUpdated();
+        }
     }
 
     public long getDocumentSize() {
-        return documentSize;
+        return documentSize.get();
     }
 
     @Override
@@ -584,4 +890,22 @@ public class IndexUpdater extends Thread {
     public void setCrawlerList(final List<Crawler> crawlerList) {
         this.crawlerList = crawlerList;
     }
+
+    public void setExecutorTerminationTimeout(final int executorTerminationTimeout) {
+        this.executorTerminationTimeout = executorTerminationTimeout;
+    }
+
+    protected static class IndexingTarget {
+        protected final EsAccessResult accessResult;
+
+        protected final Map<String, Object> map;
+
+        protected final long startTime;
+
+        protected IndexingTarget(final EsAccessResult accessResult, final Map<String, Object> map, final long startTime) {
+            this.accessResult = accessResult;
+            this.map = map;
+            this.startTime = startTime;
+        }
+    }
 }
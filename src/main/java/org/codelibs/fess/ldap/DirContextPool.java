@@ -0,0 +1,158 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.ldap;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Hashtable;
+import java.util.Iterator;
+
+import javax.naming.NamingException;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps authenticated DirContext instances for one environment.
+ * A context idle for longer than the idle timeout is closed, and a context is validated before it is reused.
+ * Borrowing never blocks: when no idle context is available, a new one is created,
+ * and a returned context is closed when the pool already has the maximum number of idle contexts.
+ */
+public class DirContextPool {
+    private static final Logger logger = LoggerFactory.getLogger(DirContextPool.class);
+
+    protected final Hashtable<String, String> env;
+
+    protected final int maxIdleSize;
+
+    protected final long idleTimeout;
+
+    protected final Deque<PooledContext> idleContexts = new ArrayDeque<>();
+
+    protected volatile boolean closed = false;
+
+    /**
+     * @param env the environment to create contexts
+     * @param maxIdleSize the maximum number of idle contexts
+     * @param idleTimeout the time in milliseconds after which an idle context is closed
+     */
+    public DirContextPool(final Hashtable<String, String> env, final int maxIdleSize, final long idleTimeout) {
+        this.env = env;
+        this.maxIdleSize = maxIdleSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public boolean accepts(final Hashtable<String, String> env) {
+        return !closed && this.env.equals(env);
+    }
+
+    public DirContext borrow() throws NamingException {
+        evictIdleContexts();
+        while (true) {
+            final PooledContext pooled;
+            synchronized (idleContexts) {
+                pooled = idleContexts.pollFirst();
+            }
+            if (pooled == null) {
+                break;
+            }
+            if (validate(pooled.context)) {
+                return pooled.context;
+            }
+            closeContext(pooled.context);
+        }
+        return createContext();
+    }
+
+    public void release(final DirContext context) {
+        if (!closed) {
+            synchronized (idleContexts) {
+                if (idleContexts.size() < maxIdleSize) {
+                    idleContexts.addFirst(new PooledContext(context, System.currentTimeMillis()));
+                    return;
+                }
+            }
+        }
+        closeContext(context);
+    }
+
+    public void evictIdleContexts() {
+        final long expiredTime = System.currentTimeMillis() - idleTimeout;
+        synchronized (idleContexts) {
+            // the oldest contexts are at the end
+            final Iterator<PooledContext> iter = idleContexts.descendingIterator();
+            while (iter.hasNext()) {
+                final PooledContext pooled = iter.next();
+                if (pooled.lastUsedTime >= expiredTime) {
+                    break;
+                }
+                iter.remove();
+                closeContext(pooled.context);
+            }
+        }
+    }
+
+    public int getIdleSize() {
+        synchronized (idleContexts) {
+            return idleContexts.size();
+        }
+    }
+
+    public void close() {
+        closed = true;
+        synchronized (idleContexts) {
+            idleContexts.forEach(pooled -> closeContext(pooled.context));
+            idleContexts.clear();
+        }
+    }
+
+    protected DirContext createContext() throws NamingException {
+        return new InitialDirContext(env);
+    }
+
+    protected boolean validate(final DirContext context) {
+        try {
+            context.getAttributes("", new String[] { "objectClass" });
+            return true;
+        } catch (final Exception e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Invalid DirContext: " + context, e);
+            }
+            return false;
+        }
+    }
+
+    protected void closeContext(final DirContext context) {
+        try {
+            context.close();
+        } catch (final NamingException e) {
+            // ignored
+        }
+    }
+
+    protected static class PooledContext {
+        protected final DirContext context;
+
+        protected final long lastUsedTime;
+
+        protected PooledContext(final DirContext context, final long lastUsedTime) {
+            this.context = context;
+            this.lastUsedTime = lastUsedTime;
+        }
+    }
+}
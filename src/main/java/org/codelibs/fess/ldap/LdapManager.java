@@ -23,12 +23,14 @@ import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.naming.Context;
 import javax.naming.NamingException;
 import javax.naming.directory.Attribute;
@@ -57,6 +59,9 @@ import org.dbflute.util.DfTypeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class LdapManager {
     private static final Logger logger = LoggerFactory.getLogger(LdapManager.class);
 
@@ -66,9 +71,23 @@ public class LdapManager {
 
     protected FessConfig fessConfig;
 
+    protected Cache<String, String[]> roleCache;
+
+    protected volatile DirContextPool contextPool;
+
     @PostConstruct
     public void init() {
         fessConfig = ComponentUtil.getFessConfig();
+        final long roleCacheSize = fessConfig.getLdapRoleCacheSizeAsInteger().longValue();
+        final long roleCacheExpire = fessConfig.getLdapRoleCacheExpireAsInteger().longValue();
+        if (roleCacheSize > 0 && roleCacheExpire > 0) {
+            roleCache = CacheBuilder.newBuilder().maximumSize(roleCacheSize).expireAfterWrite(roleCacheExpire, TimeUnit.SECONDS).build();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        closeContextPool();
     }
 
     protected Hashtable<String, String> createEnvironment(final String initialContextFactory, final String securityAuthentication,
@@ -111,6 +130,21 @@ public class LdapManager {
 
     public void updateConfig() {
         isBind = false;
+        invalidateRoleCache();
+        closeContextPool();
+    }
+
+    public void invalidateRoleCache() {
+        if (roleCache != null) {
+            roleCache.invalidateAll();
+        }
+    }
+
+    protected synchronized void closeContextPool() {
+        if (contextPool != null) {
+            contextPool.close();
+            contextPool = null;
+        }
     }
 
     protected boolean validate() {
@@ -170,6 +204,24 @@ public class LdapManager {
     }
 
     public String[] getRoles(final LdapUser ldapUser, final String bindDn, final String accountFilter) {
+        // LDAP: cn=%s
+        // AD: (&(objectClass=user)(sAMAccountName=%s))
+        final String filter = String.format(accountFilter, ldapUser.getName());
+        if (roleCache == null) {
+            return searchRoles(ldapUser, bindDn, filter);
+        }
+        final String key = bindDn + "\n" + filter;
+        String[] roles = roleCache.getIfPresent(key);
+        if (roles == null) {
+            roles = searchRoles(ldapUser, bindDn, filter);
+            roleCache.put(key, roles);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("cached roles: " + key);
+        }
+        return roles.clone();
+    }
+
+    protected String[] searchRoles(final LdapUser ldapUser, final String bindDn, final String filter) {
         final SystemHelper systemHelper = ComponentUtil.getSystemHelper();
         final List<String> roleList = new ArrayList<>();
 
@@ -177,9 +229,6 @@ public class LdapManager {
             roleList.add(systemHelper.getSearchRoleByUser(ldapUser.getName()));
         }
 
-        // LDAP: cn=%s
-        // AD: (&(objectClass=user)(sAMAccountName=%s))
-        final String filter = String.format(accountFilter, ldapUser.getName());
         if (logger.isDebugEnabled()) {
             logger.debug("filter: " + filter);
         }
@@ -362,6 +411,7 @@ public class LdapManager {
         if (!fessConfig.isLdapAdminEnabled(user.getName())) {
             return;
         }
+        invalidateRoleCache();
 
         final Supplier<Hashtable<String, String>> adminEnv = () -> createAdminEnv();
         final String userDN = fessConfig.getLdapAdminUserSecurityPrincipal(user.getName());
@@ -823,6 +873,7 @@ public class LdapManager {
         if (!fessConfig.isLdapAdminEnabled(user.getName())) {
             return;
         }
+        invalidateRoleCache();
 
         final Supplier<Hashtable<String, String>> adminEnv = () -> createAdminEnv();
         final String userDN = fessConfig.getLdapAdminUserSecurityPrincipal(user.getName());
@@ -866,6 +917,7 @@ public class LdapManager {
         if (!fessConfig.isLdapAdminEnabled()) {
             return;
         }
+        invalidateRoleCache();
 
         final Supplier<Hashtable<String, String>> adminEnv = () -> createAdminEnv();
         search(fessConfig.getLdapAdminRoleBaseDn(), fessConfig.getLdapAdminRoleFilter(role.getName()), null, adminEnv, result -> {
@@ -891,6 +943,7 @@ public class LdapManager {
         if (!fessConfig.isLdapAdminEnabled()) {
             return;
         }
+        invalidateRoleCache();
 
         final Supplier<Hashtable<String, String>> adminEnv = () -> createAdminEnv();
         search(fessConfig.getLdapAdminRoleBaseDn(), fessConfig.getLdapAdminRoleFilter(role.getName()), null, adminEnv, result -> {
@@ -921,6 +974,7 @@ public class LdapManager {
         if (!fessConfig.isLdapAdminEnabled()) {
             return;
         }
+        invalidateRoleCache();
 
         final Supplier<Hashtable<String, String>> adminEnv = () -> createAdminEnv();
         final String entryDN = fessConfig.getLdapAdminGroupSecurityPrincipal(group.getName());
@@ -962,6 +1016,7 @@ public class LdapManager {
         if (!fessConfig.isLdapAdminEnabled()) {
             return;
         }
+        invalidateRoleCache();
 
         final Supplier<Hashtable<String, String>> adminEnv = () -> createAdminEnv();
         search(fessConfig.getLdapAdminGroupBaseDn(), fessConfig.getLdapAdminGroupFilter(group.getName()), null, adminEnv, result -> {
@@ -1064,7 +1119,12 @@ public class LdapManager {
         if (holder == null) {
             final Hashtable<String, String> env = envSupplier.get();
             try {
-                holder = new DirContextHolder(new InitialDirContext(env));
+                final DirContextPool pool = getContextPool(env);
+                if (pool != null) {
+                    holder = new DirContextHolder(pool.borrow(), pool);
+                } else {
+                    holder = new DirContextHolder(new InitialDirContext(env), null);
+                }
                 contextLocal.set(holder);
                 return holder;
             } catch (final NamingException e) {
@@ -1076,13 +1136,40 @@ public class LdapManager {
         }
     }
 
+    /**
+     * Returns the pool for the admin environment, or null if the environment is another one.
+     */
+    protected DirContextPool getContextPool(final Hashtable<String, String> env) {
+        final int poolSize = fessConfig.getLdapContextPoolSizeAsInteger().intValue();
+        if (poolSize <= 0 || !env.equals(createAdminEnv())) {
+            return null;
+        }
+        DirContextPool pool = contextPool;
+        if (pool == null || !pool.accepts(env)) {
+            synchronized (this) {
+                pool = contextPool;
+                if (pool == null || !pool.accepts(env)) {
+                    if (pool != null) {
+                        pool.close();
+                    }
+                    pool = new DirContextPool(env, poolSize, fessConfig.getLdapContextPoolIdleTimeoutAsInteger().longValue() * 1000L);
+                    contextPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
     protected class DirContextHolder implements AutoCloseable {
         private final DirContext context;
 
+        private final DirContextPool pool;
+
         private int counter = 1;
 
-        protected DirContextHolder(final DirContext context) {
+        protected DirContextHolder(final DirContext context, final DirContextPool pool) {
             this.context = context;
+            this.pool = pool;
         }
 
         public DirContext get() {
@@ -1099,7 +1186,9 @@ public class LdapManager {
                 counter--;
             } else {
                 contextLocal.remove();
-                if (context != null) {
+                if (pool != null) {
+                    pool.release(context);
+                } else if (context != null) {
                     try {
                         context.close();
                     } catch (final NamingException e) {
@@ -165,6 +165,12 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. 4000 */
     String MAX_LOG_OUTPUT_LENGTH = "max.log.output.length";
 
+    /** The key of the configuration. e.g. true */
+    String GROOVY_SCRIPT_CACHE_ENABLED = "groovy.script.cache.enabled";
+
+    /** The key of the configuration. e.g. 1000 */
+    String GROOVY_SCRIPT_CACHE_SIZE = "groovy.script.cache.size";
+
     /** The key of the configuration. e.g. js */
     String SUPPORTED_UPLOADED_JS_EXTENTIONS = "supported.uploaded.js.extentions";
 
@@ -189,6 +195,12 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g.  */
     String API_ACCESS_TOKEN_REQUEST_PARAMETER = "api.access.token.request.parameter";
 
+    /** The key of the configuration. e.g. 1000 */
+    String API_ACCESS_TOKEN_CACHE_SIZE = "api.access.token.cache.size";
+
+    /** The key of the configuration. e.g. 60 */
+    String API_ACCESS_TOKEN_CACHE_EXPIRE = "api.access.token.cache.expire";
+
     /** The key of the configuration. e.g. Radmin-api */
     String API_ADMIN_ACCESS_PERMISSIONS = "api.admin.access.permissions";
 
@@ -198,6 +210,18 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. false */
     String API_SEARCH_SCROLL = "api.search.scroll";
 
+    /** The key of the configuration. e.g. 8 */
+    String API_SEARCH_SCROLL_MAX_SLICES = "api.search.scroll.max.slices";
+
+    /** The key of the configuration. e.g. 1000 */
+    String API_SEARCH_SCROLL_BUFFER_SIZE = "api.search.scroll.buffer.size";
+
+    /** The key of the configuration. e.g. 8 */
+    String API_SEARCH_SCROLL_SLICE_THREAD_SIZE = "api.search.scroll.slice.thread.size";
+
+    /** The key of the configuration. e.g. false */
+    String API_METRICS_ENABLED = "api.metrics.enabled";
+
     /** The key of the configuration. e.g.  */
     String VIRTUAL_HOST_HEADERS = "virtual.host.headers";
 
@@ -264,9 +288,21 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. 404 */
     String CRAWLER_FAILURE_URL_STATUS_CODES = "crawler.failure.url.status.codes";
 
+    /** The key of the configuration. e.g. 100 */
+    String CRAWLER_INCREMENTAL_PREFETCH_SIZE = "crawler.incremental.prefetch.size";
+
+    /** The key of the configuration. e.g. 10000 */
+    String CRAWLER_INCREMENTAL_CACHE_SIZE = "crawler.incremental.cache.size";
+
+    /** The key of the configuration. e.g. 30 */
+    String CRAWLER_INCREMENTAL_CACHE_EXPIRE = "crawler.incremental.cache.expire";
+
     /** The key of the configuration. e.g. 60 */
     String CRAWLER_SYSTEM_MONITOR_INTERVAL = "crawler.system.monitor.interval";
 
+    /** The key of the configuration. e.g. false */
+    String CRAWLER_RESULT_DATA_COMPRESSION_ENABLED = "crawler.result.data.compression.enabled";
+
     /** The key of the configuration. e.g. resourceName,X-Parsed-By,Content-Encoding.*,Content-Type.* */
     String CRAWLER_METADATA_CONTENT_EXCLUDES = "crawler.metadata.content.excludes";
 
@@ -344,6 +380,12 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. true */
     String INDEXER_FAVORITE_COUNT_ENABLED = "indexer.favorite.count.enabled";
 
+    /** The key of the configuration. e.g. 0 */
+    String INDEXER_LOG_COUNT_CACHE_SIZE = "indexer.log.count.cache.size";
+
+    /** The key of the configuration. e.g. 60 */
+    String INDEXER_LOG_COUNT_CACHE_EXPIRE = "indexer.log.count.cache.expire";
+
     /** The key of the configuration. e.g. 5000 */
     String INDEXER_WEBFS_COMMIT_MARGIN_TIME = "indexer.webfs.commit.margin.time";
 
@@ -353,18 +395,33 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. 10000 */
     String INDEXER_WEBFS_UPDATE_INTERVAL = "indexer.webfs.update.interval";
 
+    /** The key of the configuration. e.g. 1000 */
+    String INDEXER_WEBFS_UPDATE_MIN_INTERVAL = "indexer.webfs.update.min.interval";
+
     /** The key of the configuration. e.g. 20 */
     String INDEXER_WEBFS_MAX_DOCUMENT_CACHE_SIZE = "indexer.webfs.max.document.cache.size";
 
     /** The key of the configuration. e.g. 10485760 */
     String INDEXER_WEBFS_MAX_DOCUMENT_REQUEST_SIZE = "indexer.webfs.max.document.request.size";
 
+    /** The key of the configuration. e.g. 0 */
+    String INDEXER_WEBFS_TRANSFORM_THREAD_SIZE = "indexer.webfs.transform.thread.size";
+
+    /** The key of the configuration. e.g. 1 */
+    String INDEXER_WEBFS_SENDER_THREAD_SIZE = "indexer.webfs.sender.thread.size";
+
+    /** The key of the configuration. e.g. 10 */
+    String INDEXER_WEBFS_PIPELINE_QUEUE_SIZE = "indexer.webfs.pipeline.queue.size";
+
     /** The key of the configuration. e.g. 5 */
     String INDEXER_DATA_MAX_DOCUMENT_CACHE_SIZE = "indexer.data.max.document.cache.size";
 
     /** The key of the configuration. e.g. 10485760 */
     String INDEXER_DATA_MAX_DOCUMENT_REQUEST_SIZE = "indexer.data.max.document.request.size";
 
+    /** The key of the configuration. e.g. 1 */
+    String INDEXER_DATA_MAX_INFLIGHT_REQUESTS = "indexer.data.max.inflight.requests";
+
     /** The key of the configuration. e.g. default */
     String INDEX_CODEC = "index.codec";
 
@@ -572,6 +629,18 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. true */
     String QUERY_TIMEOUT_LOGGING = "query.timeout.logging";
 
+    /** The key of the configuration. e.g. 0 */
+    String QUERY_RESULT_CACHE_SIZE = "query.result.cache.size";
+
+    /** The key of the configuration. e.g. 60 */
+    String QUERY_RESULT_CACHE_EXPIRE = "query.result.cache.expire";
+
+    /** The key of the configuration. e.g. 1000 */
+    String QUERY_PARSER_CACHE_SIZE = "query.parser.cache.size";
+
+    /** The key of the configuration. e.g. 1000 */
+    String QUERY_ROLE_FILTER_CACHE_SIZE = "query.role.filter.cache.size";
+
     /** The key of the configuration. e.g. location */
     String QUERY_GEO_FIELDS = "query.geo.fields";
 
@@ -757,6 +826,27 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. true */
     String LOGGING_SEARCH_DOCS_ENABLED = "logging.search.docs.enabled";
 
+    /** The key of the configuration. e.g. 1000 */
+    String LOGGING_CLICK_LOG_BATCH_SIZE = "logging.click.log.batch.size";
+
+    /** The key of the configuration. e.g. 10000 */
+    String LOGGING_SEARCH_LOG_QUEUE_SIZE = "logging.search.log.queue.size";
+
+    /** The key of the configuration. e.g. 100 */
+    String LOGGING_SEARCH_LOG_FLUSH_SIZE = "logging.search.log.flush.size";
+
+    /** The key of the configuration. e.g. 10000 */
+    String LOGGING_SEARCH_LOG_FLUSH_INTERVAL = "logging.search.log.flush.interval";
+
+    /** The key of the configuration. e.g. drop_oldest */
+    String LOGGING_SEARCH_LOG_OVERFLOW_POLICY = "logging.search.log.overflow.policy";
+
+    /** The key of the configuration. e.g. 10 */
+    String LOGGING_SEARCH_LOG_SAMPLE_RATE = "logging.search.log.sample.rate";
+
+    /** The key of the configuration. e.g.  */
+    String LOGGING_SEARCH_LOG_SPILL_DIR = "logging.search.log.spill.dir";
+
     /** The key of the configuration. e.g. filetype,created,click_count,title,doc_id,url,score,site,filename,host,digest,boost,mimetype,favorite_count,_id,lang,last_modified,content_length,timestamp */
     String LOGGING_SEARCH_DOCS_FIELDS = "logging.search.docs.fields";
 
@@ -967,6 +1057,9 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. true */
     String THUMBNAIL_CRAWLER_ENABLED = "thumbnail.crawler.enabled";
 
+    /** The key of the configuration. e.g. 3600 */
+    String THUMBNAIL_HTTP_CACHE_MAX_AGE = "thumbnail.http.cache.max.age";
+
     /** The key of the configuration. e.g. userCode */
     String USER_CODE_REQUEST_PARAMETER = "user.code.request.parameter";
 
@@ -1237,6 +1330,18 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
     /** The key of the configuration. e.g. true */
     String LDAP_ROLE_SEARCH_ROLE_ENABLED = "ldap.role.search.role.enabled";
 
+    /** The key of the configuration. e.g. 1000 */
+    String LDAP_ROLE_CACHE_SIZE = "ldap.role.cache.size";
+
+    /** The key of the configuration. e.g. 300 */
+    String LDAP_ROLE_CACHE_EXPIRE = "ldap.role.cache.expire";
+
+    /** The key of the configuration. e.g. 5 */
+    String LDAP_CONTEXT_POOL_SIZE = "ldap.context.pool.size";
+
+    /** The key of the configuration. e.g. 60 */
+    String LDAP_CONTEXT_POOL_IDLE_TIMEOUT = "ldap.context.pool.idle.timeout";
+
     /** The key of the configuration. e.g. sn */
     String LDAP_ATTR_SURNAME = "ldap.attr.surname";
 
@@ -1678,6 +1783,35 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     Integer getMaxLogOutputLengthAsInteger();
 
+    /**
+     * Get the value for the key 'groovy.script.cache.enabled'. <br>
+     * The value is, e.g. true <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getGroovyScriptCacheEnabled();
+
+    /**
+     * Is the property for the key 'groovy.script.cache.enabled' true? <br>
+     * The value is, e.g. true <br>
+     * @return The determination, true or false. (if not found, exception but basically no way)
+     */
+    boolean isGroovyScriptCacheEnabled();
+
+    /**
+     * Get the value for the key 'groovy.script.cache.size'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getGroovyScriptCacheSize();
+
+    /**
+     * Get the value for the key 'groovy.script.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getGroovyScriptCacheSizeAsInteger();
+
     /**
      * Get the value for the key 'supported.uploaded.js.extentions'. <br>
      * The value is, e.g. js <br>
@@ -1757,6 +1891,36 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     Integer getApiAccessTokenRequestParameterAsInteger();
 
+    /**
+     * Get the value for the key 'api.access.token.cache.size'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getApiAccessTokenCacheSize();
+
+    /**
+     * Get the value for the key 'api.access.token.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getApiAccessTokenCacheSizeAsInteger();
+
+    /**
+     * Get the value for the key 'api.access.token.cache.expire'. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getApiAccessTokenCacheExpire();
+
+    /**
+     * Get the value for the key 'api.access.token.cache.expire' as {@link Integer}. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getApiAccessTokenCacheExpireAsInteger();
+
     /**
      * Get the value for the key 'api.admin.access.permissions'. <br>
      * The value is, e.g. Radmin-api <br>
@@ -1793,6 +1957,65 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     boolean isApiSearchScroll();
 
+    /**
+     * Get the value for the key 'api.search.scroll.max.slices'. <br>
+     * The value is, e.g. 8 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getApiSearchScrollMaxSlices();
+
+    /**
+     * Get the value for the key 'api.search.scroll.max.slices' as {@link Integer}. <br>
+     * The value is, e.g. 8 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getApiSearchScrollMaxSlicesAsInteger();
+
+    /**
+     * Get the value for the key 'api.search.scroll.buffer.size'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getApiSearchScrollBufferSize();
+
+    /**
+     * Get the value for the key 'api.search.scroll.buffer.size' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getApiSearchScrollBufferSizeAsInteger();
+
+    /**
+     * Get the value for the key 'api.search.scroll.slice.thread.size'. <br>
+     * The value is, e.g. 8 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getApiSearchScrollSliceThreadSize();
+
+    /**
+     * Get the value for the key 'api.search.scroll.slice.thread.size' as {@link Integer}. <br>
+     * The value is, e.g. 8 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getApiSearchScrollSliceThreadSizeAsInteger();
+
+    /**
+     * Get the value for the key 'api.metrics.enabled'. <br>
+     * The value is, e.g. false <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getApiMetricsEnabled();
+
+    /**
+     * Is the property for the key 'api.metrics.enabled' true? <br>
+     * The value is, e.g. false <br>
+     * @return The determination, true or false. (if not found, exception but basically no way)
+     */
+    boolean isApiMetricsEnabled();
+
     /**
      * Get the value for the key 'virtual.host.headers'. <br>
      * The value is, e.g.  <br>
@@ -2063,6 +2286,51 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     Integer getCrawlerFailureUrlStatusCodesAsInteger();
 
+    /**
+     * Get the value for the key 'crawler.incremental.prefetch.size'. <br>
+     * The value is, e.g. 100 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getCrawlerIncrementalPrefetchSize();
+
+    /**
+     * Get the value for the key 'crawler.incremental.prefetch.size' as {@link Integer}. <br>
+     * The value is, e.g. 100 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getCrawlerIncrementalPrefetchSizeAsInteger();
+
+    /**
+     * Get the value for the key 'crawler.incremental.cache.size'. <br>
+     * The value is, e.g. 10000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getCrawlerIncrementalCacheSize();
+
+    /**
+     * Get the value for the key 'crawler.incremental.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 10000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getCrawlerIncrementalCacheSizeAsInteger();
+
+    /**
+     * Get the value for the key 'crawler.incremental.cache.expire'. <br>
+     * The value is, e.g. 30 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getCrawlerIncrementalCacheExpire();
+
+    /**
+     * Get the value for the key 'crawler.incremental.cache.expire' as {@link Integer}. <br>
+     * The value is, e.g. 30 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getCrawlerIncrementalCacheExpireAsInteger();
+
     /**
      * Get the value for the key 'crawler.system.monitor.interval'. <br>
      * The value is, e.g. 60 <br>
@@ -2078,6 +2346,20 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     Integer getCrawlerSystemMonitorIntervalAsInteger();
 
+    /**
+     * Get the value for the key 'crawler.result.data.compression.enabled'. <br>
+     * The value is, e.g. false <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getCrawlerResultDataCompressionEnabled();
+
+    /**
+     * Is the property for the key 'crawler.result.data.compression.enabled' true? <br>
+     * The value is, e.g. false <br>
+     * @return The determination, true or false. (if not found, exception but basically no way)
+     */
+    boolean isCrawlerResultDataCompressionEnabled();
+
     /**
      * Get the value for the key 'crawler.metadata.content.excludes'. <br>
      * The value is, e.g. resourceName,X-Parsed-By,Content-Encoding.*,Content-Type.* <br>
@@ -2376,6 +2658,36 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     boolean isIndexerFavoriteCountEnabled();
 
+    /**
+     * Get the value for the key 'indexer.log.count.cache.size'. <br>
+     * The value is, e.g. 0 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getIndexerLogCountCacheSize();
+
+    /**
+     * Get the value for the key 'indexer.log.count.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 0 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getIndexerLogCountCacheSizeAsInteger();
+
+    /**
+     * Get the value for the key 'indexer.log.count.cache.expire'. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getIndexerLogCountCacheExpire();
+
+    /**
+     * Get the value for the key 'indexer.log.count.cache.expire' as {@link Integer}. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getIndexerLogCountCacheExpireAsInteger();
+
     /**
      * Get the value for the key 'indexer.webfs.commit.margin.time'. <br>
      * The value is, e.g. 5000 <br>
@@ -2421,6 +2733,21 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     Integer getIndexerWebfsUpdateIntervalAsInteger();
 
+    /**
+     * Get the value for the key 'indexer.webfs.update.min.interval'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getIndexerWebfsUpdateMinInterval();
+
+    /**
+     * Get the value for the key 'indexer.webfs.update.min.interval' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getIndexerWebfsUpdateMinIntervalAsInteger();
+
     /**
      * Get the value for the key 'indexer.webfs.max.document.cache.size'. <br>
      * The value is, e.g. 20 <br>
@@ -2451,6 +2778,51 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     Integer getIndexerWebfsMaxDocumentRequestSizeAsInteger();
 
+    /**
+     * Get the value for the key 'indexer.webfs.transform.thread.size'. <br>
+     * The value is, e.g. 0 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getIndexerWebfsTransformThreadSize();
+
+    /**
+     * Get the value for the key 'indexer.webfs.transform.thread.size' as {@link Integer}. <br>
+     * The value is, e.g. 0 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getIndexerWebfsTransformThreadSizeAsInteger();
+
+    /**
+     * Get the value for the key 'indexer.webfs.sender.thread.size'. <br>
+     * The value is, e.g. 1 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getIndexerWebfsSenderThreadSize();
+
+    /**
+     * Get the value for the key 'indexer.webfs.sender.thread.size' as {@link Integer}. <br>
+     * The value is, e.g. 1 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getIndexerWebfsSenderThreadSizeAsInteger();
+
+    /**
+     * Get the value for the key 'indexer.webfs.pipeline.queue.size'. <br>
+     * The value is, e.g. 10 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getIndexerWebfsPipelineQueueSize();
+
+    /**
+     * Get the value for the key 'indexer.webfs.pipeline.queue.size' as {@link Integer}. <br>
+     * The value is, e.g. 10 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getIndexerWebfsPipelineQueueSizeAsInteger();
+
     /**
      * Get the value for the key 'indexer.data.max.document.cache.size'. <br>
      * The value is, e.g. 5 <br>
@@ -2481,6 +2853,21 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     Integer getIndexerDataMaxDocumentRequestSizeAsInteger();
 
+    /**
+     * Get the value for the key 'indexer.data.max.inflight.requests'. <br>
+     * The value is, e.g. 1 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getIndexerDataMaxInflightRequests();
+
+    /**
+     * Get the value for the key 'indexer.data.max.inflight.requests' as {@link Integer}. <br>
+     * The value is, e.g. 1 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getIndexerDataMaxInflightRequestsAsInteger();
+
     /**
      * Get the value for the key 'index.codec'. <br>
      * The value is, e.g. default <br>
@@ -3039,7 +3426,67 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      * The value is, e.g. true <br>
      * @return The determination, true or false. (if not found, exception but basically no way)
      */
-    boolean isQueryTimeoutLogging();
+    boolean isQueryTimeoutLogging();
+
+    /**
+     * Get the value for the key 'query.result.cache.size'. <br>
+     * The value is, e.g. 0 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getQueryResultCacheSize();
+
+    /**
+     * Get the value for the key 'query.result.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 0 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getQueryResultCacheSizeAsInteger();
+
+    /**
+     * Get the value for the key 'query.result.cache.expire'. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getQueryResultCacheExpire();
+
+    /**
+     * Get the value for the key 'query.result.cache.expire' as {@link Integer}. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getQueryResultCacheExpireAsInteger();
+
+    /**
+     * Get the value for the key 'query.parser.cache.size'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getQueryParserCacheSize();
+
+    /**
+     * Get the value for the key 'query.parser.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getQueryParserCacheSizeAsInteger();
+
+    /**
+     * Get the value for the key 'query.role.filter.cache.size'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getQueryRoleFilterCacheSize();
+
+    /**
+     * Get the value for the key 'query.role.filter.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getQueryRoleFilterCacheSizeAsInteger();
 
     /**
      * Get the value for the key 'query.geo.fields'. <br>
@@ -3620,6 +4067,95 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     boolean isLoggingSearchDocsEnabled();
 
+    /**
+     * Get the value for the key 'logging.click.log.batch.size'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLoggingClickLogBatchSize();
+
+    /**
+     * Get the value for the key 'logging.click.log.batch.size' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLoggingClickLogBatchSizeAsInteger();
+
+    /**
+     * Get the value for the key 'logging.search.log.queue.size'. <br>
+     * The value is, e.g. 10000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLoggingSearchLogQueueSize();
+
+    /**
+     * Get the value for the key 'logging.search.log.queue.size' as {@link Integer}. <br>
+     * The value is, e.g. 10000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLoggingSearchLogQueueSizeAsInteger();
+
+    /**
+     * Get the value for the key 'logging.search.log.flush.size'. <br>
+     * The value is, e.g. 100 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLoggingSearchLogFlushSize();
+
+    /**
+     * Get the value for the key 'logging.search.log.flush.size' as {@link Integer}. <br>
+     * The value is, e.g. 100 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLoggingSearchLogFlushSizeAsInteger();
+
+    /**
+     * Get the value for the key 'logging.search.log.flush.interval'. <br>
+     * The value is, e.g. 10000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLoggingSearchLogFlushInterval();
+
+    /**
+     * Get the value for the key 'logging.search.log.flush.interval' as {@link Integer}. <br>
+     * The value is, e.g. 10000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLoggingSearchLogFlushIntervalAsInteger();
+
+    /**
+     * Get the value for the key 'logging.search.log.overflow.policy'. <br>
+     * The value is, e.g. drop_oldest <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLoggingSearchLogOverflowPolicy();
+
+    /**
+     * Get the value for the key 'logging.search.log.sample.rate'. <br>
+     * The value is, e.g. 10 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLoggingSearchLogSampleRate();
+
+    /**
+     * Get the value for the key 'logging.search.log.sample.rate' as {@link Integer}. <br>
+     * The value is, e.g. 10 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLoggingSearchLogSampleRateAsInteger();
+
+    /**
+     * Get the value for the key 'logging.search.log.spill.dir'. <br>
+     * The value is, e.g.  <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLoggingSearchLogSpillDir();
+
     /**
      * Get the value for the key 'logging.search.docs.fields'. <br>
      * The value is, e.g. filetype,created,click_count,title,doc_id,url,score,site,filename,host,digest,boost,mimetype,favorite_count,_id,lang,last_modified,content_length,timestamp <br>
@@ -4580,6 +5116,21 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     boolean isThumbnailCrawlerEnabled();
 
+    /**
+     * Get the value for the key 'thumbnail.http.cache.max.age'. <br>
+     * The value is, e.g. 3600 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getThumbnailHttpCacheMaxAge();
+
+    /**
+     * Get the value for the key 'thumbnail.http.cache.max.age' as {@link Integer}. <br>
+     * The value is, e.g. 3600 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getThumbnailHttpCacheMaxAgeAsInteger();
+
     /**
      * Get the value for the key 'user.code.request.parameter'. <br>
      * The value is, e.g. userCode <br>
@@ -5421,6 +5972,66 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
      */
     boolean isLdapRoleSearchRoleEnabled();
 
+    /**
+     * Get the value for the key 'ldap.role.cache.size'. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLdapRoleCacheSize();
+
+    /**
+     * Get the value for the key 'ldap.role.cache.size' as {@link Integer}. <br>
+     * The value is, e.g. 1000 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLdapRoleCacheSizeAsInteger();
+
+    /**
+     * Get the value for the key 'ldap.role.cache.expire'. <br>
+     * The value is, e.g. 300 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLdapRoleCacheExpire();
+
+    /**
+     * Get the value for the key 'ldap.role.cache.expire' as {@link Integer}. <br>
+     * The value is, e.g. 300 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLdapRoleCacheExpireAsInteger();
+
+    /**
+     * Get the value for the key 'ldap.context.pool.size'. <br>
+     * The value is, e.g. 5 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLdapContextPoolSize();
+
+    /**
+     * Get the value for the key 'ldap.context.pool.size' as {@link Integer}. <br>
+     * The value is, e.g. 5 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLdapContextPoolSizeAsInteger();
+
+    /**
+     * Get the value for the key 'ldap.context.pool.idle.timeout'. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     */
+    String getLdapContextPoolIdleTimeout();
+
+    /**
+     * Get the value for the key 'ldap.context.pool.idle.timeout' as {@link Integer}. <br>
+     * The value is, e.g. 60 <br>
+     * @return The value of found property. (NotNull: if not found, exception but basically no way)
+     * @throws NumberFormatException When the property is not integer.
+     */
+    Integer getLdapContextPoolIdleTimeoutAsInteger();
+
     /**
      * Get the value for the key 'ldap.attr.surname'. <br>
      * The value is, e.g. sn <br>
@@ -5977,6 +6588,22 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return getAsInteger(FessConfig.MAX_LOG_OUTPUT_LENGTH);
         }
 
+        public String getGroovyScriptCacheEnabled() {
+            return get(FessConfig.GROOVY_SCRIPT_CACHE_ENABLED);
+        }
+
+        public boolean isGroovyScriptCacheEnabled() {
+            return is(FessConfig.GROOVY_SCRIPT_CACHE_ENABLED);
+        }
+
+        public String getGroovyScriptCacheSize() {
+            return get(FessConfig.GROOVY_SCRIPT_CACHE_SIZE);
+        }
+
+        public Integer getGroovyScriptCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.GROOVY_SCRIPT_CACHE_SIZE);
+        }
+
         public String getSupportedUploadedJsExtentions() {
             return get(FessConfig.SUPPORTED_UPLOADED_JS_EXTENTIONS);
         }
@@ -6021,6 +6648,22 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return getAsInteger(FessConfig.API_ACCESS_TOKEN_REQUEST_PARAMETER);
         }
 
+        public String getApiAccessTokenCacheSize() {
+            return get(FessConfig.API_ACCESS_TOKEN_CACHE_SIZE);
+        }
+
+        public Integer getApiAccessTokenCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.API_ACCESS_TOKEN_CACHE_SIZE);
+        }
+
+        public String getApiAccessTokenCacheExpire() {
+            return get(FessConfig.API_ACCESS_TOKEN_CACHE_EXPIRE);
+        }
+
+        public Integer getApiAccessTokenCacheExpireAsInteger() {
+            return getAsInteger(FessConfig.API_ACCESS_TOKEN_CACHE_EXPIRE);
+        }
+
         public String getApiAdminAccessPermissions() {
             return get(FessConfig.API_ADMIN_ACCESS_PERMISSIONS);
         }
@@ -6041,6 +6684,38 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return is(FessConfig.API_SEARCH_SCROLL);
         }
 
+        public String getApiSearchScrollMaxSlices() {
+            return get(FessConfig.API_SEARCH_SCROLL_MAX_SLICES);
+        }
+
+        public Integer getApiSearchScrollMaxSlicesAsInteger() {
+            return getAsInteger(FessConfig.API_SEARCH_SCROLL_MAX_SLICES);
+        }
+
+        public String getApiSearchScrollBufferSize() {
+            return get(FessConfig.API_SEARCH_SCROLL_BUFFER_SIZE);
+        }
+
+        public Integer getApiSearchScrollBufferSizeAsInteger() {
+            return getAsInteger(FessConfig.API_SEARCH_SCROLL_BUFFER_SIZE);
+        }
+
+        public String getApiSearchScrollSliceThreadSize() {
+            return get(FessConfig.API_SEARCH_SCROLL_SLICE_THREAD_SIZE);
+        }
+
+        public Integer getApiSearchScrollSliceThreadSizeAsInteger() {
+            return getAsInteger(FessConfig.API_SEARCH_SCROLL_SLICE_THREAD_SIZE);
+        }
+
+        public String getApiMetricsEnabled() {
+            return get(FessConfig.API_METRICS_ENABLED);
+        }
+
+        public boolean isApiMetricsEnabled() {
+            return is(FessConfig.API_METRICS_ENABLED);
+        }
+
         public String getVirtualHostHeaders() {
             return get(FessConfig.VIRTUAL_HOST_HEADERS);
         }
@@ -6189,6 +6864,30 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return getAsInteger(FessConfig.CRAWLER_FAILURE_URL_STATUS_CODES);
         }
 
+        public String getCrawlerIncrementalPrefetchSize() {
+            return get(FessConfig.CRAWLER_INCREMENTAL_PREFETCH_SIZE);
+        }
+
+        public Integer getCrawlerIncrementalPrefetchSizeAsInteger() {
+            return getAsInteger(FessConfig.CRAWLER_INCREMENTAL_PREFETCH_SIZE);
+        }
+
+        public String getCrawlerIncrementalCacheSize() {
+            return get(FessConfig.CRAWLER_INCREMENTAL_CACHE_SIZE);
+        }
+
+        public Integer getCrawlerIncrementalCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.CRAWLER_INCREMENTAL_CACHE_SIZE);
+        }
+
+        public String getCrawlerIncrementalCacheExpire() {
+            return get(FessConfig.CRAWLER_INCREMENTAL_CACHE_EXPIRE);
+        }
+
+        public Integer getCrawlerIncrementalCacheExpireAsInteger() {
+            return getAsInteger(FessConfig.CRAWLER_INCREMENTAL_CACHE_EXPIRE);
+        }
+
         public String getCrawlerSystemMonitorInterval() {
             return get(FessConfig.CRAWLER_SYSTEM_MONITOR_INTERVAL);
         }
@@ -6197,6 +6896,14 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return getAsInteger(FessConfig.CRAWLER_SYSTEM_MONITOR_INTERVAL);
         }
 
+        public String getCrawlerResultDataCompressionEnabled() {
+            return get(FessConfig.CRAWLER_RESULT_DATA_COMPRESSION_ENABLED);
+        }
+
+        public boolean isCrawlerResultDataCompressionEnabled() {
+            return is(FessConfig.CRAWLER_RESULT_DATA_COMPRESSION_ENABLED);
+        }
+
         public String getCrawlerMetadataContentExcludes() {
             return get(FessConfig.CRAWLER_METADATA_CONTENT_EXCLUDES);
         }
@@ -6357,6 +7064,22 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return is(FessConfig.INDEXER_FAVORITE_COUNT_ENABLED);
         }
 
+        public String getIndexerLogCountCacheSize() {
+            return get(FessConfig.INDEXER_LOG_COUNT_CACHE_SIZE);
+        }
+
+        public Integer getIndexerLogCountCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.INDEXER_LOG_COUNT_CACHE_SIZE);
+        }
+
+        public String getIndexerLogCountCacheExpire() {
+            return get(FessConfig.INDEXER_LOG_COUNT_CACHE_EXPIRE);
+        }
+
+        public Integer getIndexerLogCountCacheExpireAsInteger() {
+            return getAsInteger(FessConfig.INDEXER_LOG_COUNT_CACHE_EXPIRE);
+        }
+
         public String getIndexerWebfsCommitMarginTime() {
             return get(FessConfig.INDEXER_WEBFS_COMMIT_MARGIN_TIME);
         }
@@ -6381,6 +7104,14 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return getAsInteger(FessConfig.INDEXER_WEBFS_UPDATE_INTERVAL);
         }
 
+        public String getIndexerWebfsUpdateMinInterval() {
+            return get(FessConfig.INDEXER_WEBFS_UPDATE_MIN_INTERVAL);
+        }
+
+        public Integer getIndexerWebfsUpdateMinIntervalAsInteger() {
+            return getAsInteger(FessConfig.INDEXER_WEBFS_UPDATE_MIN_INTERVAL);
+        }
+
         public String getIndexerWebfsMaxDocumentCacheSize() {
             return get(FessConfig.INDEXER_WEBFS_MAX_DOCUMENT_CACHE_SIZE);
         }
@@ -6397,6 +7128,30 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return getAsInteger(FessConfig.INDEXER_WEBFS_MAX_DOCUMENT_REQUEST_SIZE);
         }
 
+        public String getIndexerWebfsTransformThreadSize() {
+            return get(FessConfig.INDEXER_WEBFS_TRANSFORM_THREAD_SIZE);
+        }
+
+        public Integer getIndexerWebfsTransformThreadSizeAsInteger() {
+            return getAsInteger(FessConfig.INDEXER_WEBFS_TRANSFORM_THREAD_SIZE);
+        }
+
+        public String getIndexerWebfsSenderThreadSize() {
+            return get(FessConfig.INDEXER_WEBFS_SENDER_THREAD_SIZE);
+        }
+
+        public Integer getIndexerWebfsSenderThreadSizeAsInteger() {
+            return getAsInteger(FessConfig.INDEXER_WEBFS_SENDER_THREAD_SIZE);
+        }
+
+        public String getIndexerWebfsPipelineQueueSize() {
+            return get(FessConfig.INDEXER_WEBFS_PIPELINE_QUEUE_SIZE);
+        }
+
+        public Integer getIndexerWebfsPipelineQueueSizeAsInteger() {
+            return getAsInteger(FessConfig.INDEXER_WEBFS_PIPELINE_QUEUE_SIZE);
+        }
+
         public String getIndexerDataMaxDocumentCacheSize() {
             return get(FessConfig.INDEXER_DATA_MAX_DOCUMENT_CACHE_SIZE);
         }
@@ -6413,6 +7168,14 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return getAsInteger(FessConfig.INDEXER_DATA_MAX_DOCUMENT_REQUEST_SIZE);
         }
 
+        public String getIndexerDataMaxInflightRequests() {
+            return get(FessConfig.INDEXER_DATA_MAX_INFLIGHT_REQUESTS);
+        }
+
+        public Integer getIndexerDataMaxInflightRequestsAsInteger() {
+            return getAsInteger(FessConfig.INDEXER_DATA_MAX_INFLIGHT_REQUESTS);
+        }
+
         public String getIndexCodec() {
             return get(FessConfig.INDEX_CODEC);
         }
@@ -6725,6 +7488,38 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return is(FessConfig.QUERY_TIMEOUT_LOGGING);
         }
 
+        public String getQueryResultCacheSize() {
+            return get(FessConfig.QUERY_RESULT_CACHE_SIZE);
+        }
+
+        public Integer getQueryResultCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.QUERY_RESULT_CACHE_SIZE);
+        }
+
+        public String getQueryResultCacheExpire() {
+            return get(FessConfig.QUERY_RESULT_CACHE_EXPIRE);
+        }
+
+        public Integer getQueryResultCacheExpireAsInteger() {
+            return getAsInteger(FessConfig.QUERY_RESULT_CACHE_EXPIRE);
+        }
+
+        public String getQueryParserCacheSize() {
+            return get(FessConfig.QUERY_PARSER_CACHE_SIZE);
+        }
+
+        public Integer getQueryParserCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.QUERY_PARSER_CACHE_SIZE);
+        }
+
+        public String getQueryRoleFilterCacheSize() {
+            return get(FessConfig.QUERY_ROLE_FILTER_CACHE_SIZE);
+        }
+
+        public Integer getQueryRoleFilterCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.QUERY_ROLE_FILTER_CACHE_SIZE);
+        }
+
         public String getQueryGeoFields() {
             return get(FessConfig.QUERY_GEO_FIELDS);
         }
@@ -7005,6 +7800,54 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return is(FessConfig.LOGGING_SEARCH_DOCS_ENABLED);
         }
 
+        public String getLoggingClickLogBatchSize() {
+            return get(FessConfig.LOGGING_CLICK_LOG_BATCH_SIZE);
+        }
+
+        public Integer getLoggingClickLogBatchSizeAsInteger() {
+            return getAsInteger(FessConfig.LOGGING_CLICK_LOG_BATCH_SIZE);
+        }
+
+        public String getLoggingSearchLogQueueSize() {
+            return get(FessConfig.LOGGING_SEARCH_LOG_QUEUE_SIZE);
+        }
+
+        public Integer getLoggingSearchLogQueueSizeAsInteger() {
+            return getAsInteger(FessConfig.LOGGING_SEARCH_LOG_QUEUE_SIZE);
+        }
+
+        public String getLoggingSearchLogFlushSize() {
+            return get(FessConfig.LOGGING_SEARCH_LOG_FLUSH_SIZE);
+        }
+
+        public Integer getLoggingSearchLogFlushSizeAsInteger() {
+            return getAsInteger(FessConfig.LOGGING_SEARCH_LOG_FLUSH_SIZE);
+        }
+
+        public String getLoggingSearchLogFlushInterval() {
+            return get(FessConfig.LOGGING_SEARCH_LOG_FLUSH_INTERVAL);
+        }
+
+        public Integer getLoggingSearchLogFlushIntervalAsInteger() {
+            return getAsInteger(FessConfig.LOGGING_SEARCH_LOG_FLUSH_INTERVAL);
+        }
+
+        public String getLoggingSearchLogOverflowPolicy() {
+            return get(FessConfig.LOGGING_SEARCH_LOG_OVERFLOW_POLICY);
+        }
+
+        public String getLoggingSearchLogSampleRate() {
+            return get(FessConfig.LOGGING_SEARCH_LOG_SAMPLE_RATE);
+        }
+
+        public Integer getLoggingSearchLogSampleRateAsInteger() {
+            return getAsInteger(FessConfig.LOGGING_SEARCH_LOG_SAMPLE_RATE);
+        }
+
+        public String getLoggingSearchLogSpillDir() {
+            return get(FessConfig.LOGGING_SEARCH_LOG_SPILL_DIR);
+        }
+
         public String getLoggingSearchDocsFields() {
             return get(FessConfig.LOGGING_SEARCH_DOCS_FIELDS);
         }
@@ -7513,6 +8356,14 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return is(FessConfig.THUMBNAIL_CRAWLER_ENABLED);
         }
 
+        public String getThumbnailHttpCacheMaxAge() {
+            return get(FessConfig.THUMBNAIL_HTTP_CACHE_MAX_AGE);
+        }
+
+        public Integer getThumbnailHttpCacheMaxAgeAsInteger() {
+            return getAsInteger(FessConfig.THUMBNAIL_HTTP_CACHE_MAX_AGE);
+        }
+
         public String getUserCodeRequestParameter() {
             return get(FessConfig.USER_CODE_REQUEST_PARAMETER);
         }
@@ -7977,6 +8828,38 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             return is(FessConfig.LDAP_ROLE_SEARCH_ROLE_ENABLED);
         }
 
+        public String getLdapRoleCacheSize() {
+            return get(FessConfig.LDAP_ROLE_CACHE_SIZE);
+        }
+
+        public Integer getLdapRoleCacheSizeAsInteger() {
+            return getAsInteger(FessConfig.LDAP_ROLE_CACHE_SIZE);
+        }
+
+        public String getLdapRoleCacheExpire() {
+            return get(FessConfig.LDAP_ROLE_CACHE_EXPIRE);
+        }
+
+        public Integer getLdapRoleCacheExpireAsInteger() {
+            return getAsInteger(FessConfig.LDAP_ROLE_CACHE_EXPIRE);
+        }
+
+        public String getLdapContextPoolSize() {
+            return get(FessConfig.LDAP_CONTEXT_POOL_SIZE);
+        }
+
+        public Integer getLdapContextPoolSizeAsInteger() {
+            return getAsInteger(FessConfig.LDAP_CONTEXT_POOL_SIZE);
+        }
+
+        public String getLdapContextPoolIdleTimeout() {
+            return get(FessConfig.LDAP_CONTEXT_POOL_IDLE_TIMEOUT);
+        }
+
+        public Integer getLdapContextPoolIdleTimeoutAsInteger() {
+            return getAsInteger(FessConfig.LDAP_CONTEXT_POOL_IDLE_TIMEOUT);
+        }
+
         public String getLdapAttrSurname() {
             return get(FessConfig.LDAP_ATTR_SURNAME);
         }
@@ -8265,6 +9148,8 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.PATH_ENCODING, "UTF-8");
             defaultMap.put(FessConfig.USE_OWN_TMP_DIR, "true");
             defaultMap.put(FessConfig.MAX_LOG_OUTPUT_LENGTH, "4000");
+            defaultMap.put(FessConfig.GROOVY_SCRIPT_CACHE_ENABLED, "true");
+            defaultMap.put(FessConfig.GROOVY_SCRIPT_CACHE_SIZE, "1000");
             defaultMap.put(FessConfig.SUPPORTED_UPLOADED_JS_EXTENTIONS, "js");
             defaultMap.put(FessConfig.SUPPORTED_UPLOADED_CSS_EXTENTIONS, "css");
             defaultMap.put(FessConfig.SUPPORTED_UPLOADED_MEDIA_EXTENTIONS, "jpg,jpeg,gif,png,swf");
@@ -8275,9 +9160,15 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.API_ACCESS_TOKEN_LENGTH, "60");
             defaultMap.put(FessConfig.API_ACCESS_TOKEN_REQUIRED, "false");
             defaultMap.put(FessConfig.API_ACCESS_TOKEN_REQUEST_PARAMETER, "");
+            defaultMap.put(FessConfig.API_ACCESS_TOKEN_CACHE_SIZE, "1000");
+            defaultMap.put(FessConfig.API_ACCESS_TOKEN_CACHE_EXPIRE, "60");
             defaultMap.put(FessConfig.API_ADMIN_ACCESS_PERMISSIONS, "Radmin-api");
             defaultMap.put(FessConfig.API_SEARCH_ACCEPT_REFERERS, "");
             defaultMap.put(FessConfig.API_SEARCH_SCROLL, "false");
+            defaultMap.put(FessConfig.API_SEARCH_SCROLL_MAX_SLICES, "8");
+            defaultMap.put(FessConfig.API_SEARCH_SCROLL_BUFFER_SIZE, "1000");
+            defaultMap.put(FessConfig.API_SEARCH_SCROLL_SLICE_THREAD_SIZE, "8");
+            defaultMap.put(FessConfig.API_METRICS_ENABLED, "false");
             defaultMap.put(FessConfig.VIRTUAL_HOST_HEADERS, "");
             defaultMap.put(FessConfig.HTTP_PROXY_HOST, "");
             defaultMap.put(FessConfig.HTTP_PROXY_PORT, "8080");
@@ -8302,7 +9193,11 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.CRAWLER_IGNORE_ROBOTS_TAGS, "false");
             defaultMap.put(FessConfig.CRAWLER_IGNORE_CONTENT_EXCEPTION, "true");
             defaultMap.put(FessConfig.CRAWLER_FAILURE_URL_STATUS_CODES, "404");
+            defaultMap.put(FessConfig.CRAWLER_INCREMENTAL_PREFETCH_SIZE, "100");
+            defaultMap.put(FessConfig.CRAWLER_INCREMENTAL_CACHE_SIZE, "10000");
+            defaultMap.put(FessConfig.CRAWLER_INCREMENTAL_CACHE_EXPIRE, "30");
             defaultMap.put(FessConfig.CRAWLER_SYSTEM_MONITOR_INTERVAL, "60");
+            defaultMap.put(FessConfig.CRAWLER_RESULT_DATA_COMPRESSION_ENABLED, "false");
             defaultMap.put(FessConfig.CRAWLER_METADATA_CONTENT_EXCLUDES, "resourceName,X-Parsed-By,Content-Encoding.*,Content-Type.*");
             defaultMap.put(FessConfig.CRAWLER_METADATA_NAME_MAPPING, "title=title:string\nTitle=title:string\n");
             defaultMap.put(FessConfig.CRAWLER_DOCUMENT_HTML_CONTENT_XPATH, "//BODY");
@@ -8328,13 +9223,20 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.INDEXER_UNPROCESSED_DOCUMENT_SIZE, "1000");
             defaultMap.put(FessConfig.INDEXER_CLICK_COUNT_ENABLED, "true");
             defaultMap.put(FessConfig.INDEXER_FAVORITE_COUNT_ENABLED, "true");
+            defaultMap.put(FessConfig.INDEXER_LOG_COUNT_CACHE_SIZE, "0");
+            defaultMap.put(FessConfig.INDEXER_LOG_COUNT_CACHE_EXPIRE, "60");
             defaultMap.put(FessConfig.INDEXER_WEBFS_COMMIT_MARGIN_TIME, "5000");
             defaultMap.put(FessConfig.INDEXER_WEBFS_MAX_EMPTY_LIST_COUNT, "3600");
             defaultMap.put(FessConfig.INDEXER_WEBFS_UPDATE_INTERVAL, "10000");
+            defaultMap.put(FessConfig.INDEXER_WEBFS_UPDATE_MIN_INTERVAL, "1000");
             defaultMap.put(FessConfig.INDEXER_WEBFS_MAX_DOCUMENT_CACHE_SIZE, "20");
             defaultMap.put(FessConfig.INDEXER_WEBFS_MAX_DOCUMENT_REQUEST_SIZE, "10485760");
+            defaultMap.put(FessConfig.INDEXER_WEBFS_TRANSFORM_THREAD_SIZE, "0");
+            defaultMap.put(FessConfig.INDEXER_WEBFS_SENDER_THREAD_SIZE, "1");
+            defaultMap.put(FessConfig.INDEXER_WEBFS_PIPELINE_QUEUE_SIZE, "10");
             defaultMap.put(FessConfig.INDEXER_DATA_MAX_DOCUMENT_CACHE_SIZE, "5");
             defaultMap.put(FessConfig.INDEXER_DATA_MAX_DOCUMENT_REQUEST_SIZE, "10485760");
+            defaultMap.put(FessConfig.INDEXER_DATA_MAX_INFLIGHT_REQUESTS, "1");
             defaultMap.put(FessConfig.INDEX_CODEC, "default");
             defaultMap.put(FessConfig.INDEX_number_of_shards, "5");
             defaultMap.put(FessConfig.INDEX_auto_expand_replicas, "0-1");
@@ -8404,6 +9306,10 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.QUERY_MAX_LENGTH, "1000");
             defaultMap.put(FessConfig.QUERY_TIMEOUT, "10000");
             defaultMap.put(FessConfig.QUERY_TIMEOUT_LOGGING, "true");
+            defaultMap.put(FessConfig.QUERY_RESULT_CACHE_SIZE, "0");
+            defaultMap.put(FessConfig.QUERY_RESULT_CACHE_EXPIRE, "60");
+            defaultMap.put(FessConfig.QUERY_PARSER_CACHE_SIZE, "1000");
+            defaultMap.put(FessConfig.QUERY_ROLE_FILTER_CACHE_SIZE, "1000");
             defaultMap.put(FessConfig.QUERY_GEO_FIELDS, "location");
             defaultMap.put(FessConfig.QUERY_BROWSER_LANG_PARAMETER_NAME, "browser_lang");
             defaultMap.put(FessConfig.QUERY_REPLACE_TERM_WITH_PREFIX_QUERY, "true");
@@ -8448,6 +9354,13 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.INDEX_BACKUP_TARGETS, ".fess_basic_config.bulk,.fess_config.bulk,.fess_user.bulk,system.properties");
             defaultMap.put(FessConfig.INDEX_BACKUP_LOG_TARGETS, "click_log.ndjson,favorite_log.ndjson,search_log.ndjson,user_info.ndjson");
             defaultMap.put(FessConfig.LOGGING_SEARCH_DOCS_ENABLED, "true");
+            defaultMap.put(FessConfig.LOGGING_CLICK_LOG_BATCH_SIZE, "1000");
+            defaultMap.put(FessConfig.LOGGING_SEARCH_LOG_QUEUE_SIZE, "10000");
+            defaultMap.put(FessConfig.LOGGING_SEARCH_LOG_FLUSH_SIZE, "100");
+            defaultMap.put(FessConfig.LOGGING_SEARCH_LOG_FLUSH_INTERVAL, "10000");
+            defaultMap.put(FessConfig.LOGGING_SEARCH_LOG_OVERFLOW_POLICY, "drop_oldest");
+            defaultMap.put(FessConfig.LOGGING_SEARCH_LOG_SAMPLE_RATE, "10");
+            defaultMap.put(FessConfig.LOGGING_SEARCH_LOG_SPILL_DIR, "");
             defaultMap
                     .put(FessConfig.LOGGING_SEARCH_DOCS_FIELDS,
                             "filetype,created,click_count,title,doc_id,url,score,site,filename,host,digest,boost,mimetype,favorite_count,_id,lang,last_modified,content_length,timestamp");
@@ -8520,6 +9433,7 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.THUMBNAIL_GENERATOR_INTERVAL, "0");
             defaultMap.put(FessConfig.THUMBNAIL_GENERATOR_TARGETS, "all");
             defaultMap.put(FessConfig.THUMBNAIL_CRAWLER_ENABLED, "true");
+            defaultMap.put(FessConfig.THUMBNAIL_HTTP_CACHE_MAX_AGE, "3600");
             defaultMap.put(FessConfig.USER_CODE_REQUEST_PARAMETER, "userCode");
             defaultMap.put(FessConfig.USER_CODE_MIN_LENGTH, "20");
             defaultMap.put(FessConfig.USER_CODE_MAX_LENGTH, "100");
@@ -8610,6 +9524,10 @@ public interface FessConfig extends FessEnv, org.codelibs.fess.mylasta.direction
             defaultMap.put(FessConfig.LDAP_ROLE_SEARCH_USER_ENABLED, "true");
             defaultMap.put(FessConfig.LDAP_ROLE_SEARCH_GROUP_ENABLED, "true");
             defaultMap.put(FessConfig.LDAP_ROLE_SEARCH_ROLE_ENABLED, "true");
+            defaultMap.put(FessConfig.LDAP_ROLE_CACHE_SIZE, "1000");
+            defaultMap.put(FessConfig.LDAP_ROLE_CACHE_EXPIRE, "300");
+            defaultMap.put(FessConfig.LDAP_CONTEXT_POOL_SIZE, "5");
+            defaultMap.put(FessConfig.LDAP_CONTEXT_POOL_IDLE_TIMEOUT, "60");
             defaultMap.put(FessConfig.LDAP_ATTR_SURNAME, "sn");
             defaultMap.put(FessConfig.LDAP_ATTR_GIVEN_NAME, "givenName");
             defaultMap.put(FessConfig.LDAP_ATTR_EMPLOYEE_NUMBER, "employeeNumber");
@@ -26,6 +26,15 @@ public interface ThumbnailGenerator {
 
     boolean generate(String thumbnailId, File outputFile);
 
+    /**
+     * Generates a thumbnail with the document fetched by the caller.
+     * If docMap is null, the document is fetched by thumbnailId.
+     * A generator which does not use docMap fetches the document by thumbnailId.
+     */
+    default boolean generate(final String thumbnailId, final Map<String, Object> docMap, final File outputFile) {
+        return generate(thumbnailId, outputFile);
+    }
+
     boolean isTarget(Map<String, Object> docMap);
 
     boolean isAvailable();
@@ -23,13 +23,21 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -44,6 +52,7 @@ import org.codelibs.fess.exception.FessSystemException;
 import org.codelibs.fess.exception.JobProcessingException;
 import org.codelibs.fess.helper.SystemHelper;
 import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.thumbnail.impl.BaseThumbnailGenerator;
 import org.codelibs.fess.util.ComponentUtil;
 import org.codelibs.fess.util.DocumentUtil;
 import org.codelibs.fess.util.ResourceUtil;
@@ -51,6 +60,8 @@ import org.elasticsearch.index.query.QueryBuilders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
 public class ThumbnailManager {
@@ -70,7 +81,11 @@ public class ThumbnailManager {
 
     private Thread thumbnailQueueThread;
 
-    protected int thumbnailPathCacheSize = 10;
+    protected Cache<String, File> thumbnailPathCache;
+
+    protected int thumbnailPathCacheSize = 1000;
+
+    protected long thumbnailPathCacheExpire = 60 * 1000L; // 1 minute
 
     protected String imageExtention = "png";
 
@@ -84,6 +99,10 @@ public class ThumbnailManager {
 
     protected long noImageExpired = 24 * 60 * 60 * 1000L; // 24 hours
 
+    protected final AtomicLong generatedCount = new AtomicLong();
+
+    protected final AtomicLong failedCount = new AtomicLong();
+
     @PostConstruct
     public void init() {
         final String thumbnailPath = System.getProperty(Constants.FESS_THUMBNAIL_PATH);
@@ -108,22 +127,23 @@ public class ThumbnailManager {
             logger.debug("Thumbnail Directory: " + baseDir.getAbsolutePath());
         }
 
+        thumbnailPathCache =
+                CacheBuilder.newBuilder().maximumSize(thumbnailPathCacheSize)
+                        .expireAfterWrite(thumbnailPathCacheExpire, TimeUnit.MILLISECONDS).build();
+
         thumbnailTaskQueue = new LinkedBlockingQueue<>(thumbnailTaskQueueSize);
         generating = !Constants.TRUE.equalsIgnoreCase(System.getProperty("fess.thumbnail.process"));
         thumbnailQueueThread = new Thread((Runnable) () -> {
-            final List<Tuple3<String, String, String>> taskList = new ArrayList<>();
+            final Set<Tuple3<String, String, String>> taskSet = new LinkedHashSet<>();
             while (generating) {
                 try {
                     final Tuple3<String, String, String> task = thumbnailTaskQueue.poll(thumbnailTaskQueueTimeout, TimeUnit.MILLISECONDS);
                     if (task == null) {
-                        if (!taskList.isEmpty()) {
-                            storeQueue(taskList);
-                        }
-                    } else if (!taskList.contains(task)) {
-                        taskList.add(task);
-                        if (taskList.size() > thumbnailTaskBulkSize) {
-                            storeQueue(taskList);
+                        if (!taskSet.isEmpty()) {
+                            storeQueue(taskSet);
                         }
+                    } else if (taskSet.add(task) && taskSet.size() > thumbnailTaskBulkSize) {
+                        storeQueue(taskSet);
                     }
                 } catch (final InterruptedException e) {
                     if (logger.isDebugEnabled()) {
@@ -135,8 +155,8 @@ public class ThumbnailManager {
                     }
                 }
             }
-            if (!taskList.isEmpty()) {
-                storeQueue(taskList);
+            if (!taskSet.isEmpty()) {
+                storeQueue(taskSet);
             }
         }, "ThumbnailGenerator");
         thumbnailQueueThread.start();
@@ -164,7 +184,7 @@ public class ThumbnailManager {
         return "-D" + Constants.FESS_THUMBNAIL_PATH + "=" + baseDir.getAbsolutePath();
     }
 
-    protected void storeQueue(final List<Tuple3<String, String, String>> taskList) {
+    protected void storeQueue(final Collection<Tuple3<String, String, String>> taskList) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
         final SystemHelper systemHelper = ComponentUtil.getSystemHelper();
         final String[] targets = fessConfig.getThumbnailGeneratorTargetsAsArray();
@@ -191,9 +211,8 @@ public class ThumbnailManager {
 
     public int generate(final ForkJoinPool pool, final boolean cleanup) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        final List<String> idList = new ArrayList<>();
         final ThumbnailQueueBhv thumbnailQueueBhv = ComponentUtil.getComponent(ThumbnailQueueBhv.class);
-        pool.submit(() -> thumbnailQueueBhv.selectList(cb -> {
+        final List<ThumbnailQueue> entityList = thumbnailQueueBhv.selectList(cb -> {
             if (StringUtil.isBlank(fessConfig.getSchedulerTargetName())) {
                 cb.query().setTarget_Equal(Constants.DEFAULT_JOB_TARGET);
             } else {
@@ -201,26 +220,61 @@ public class ThumbnailManager {
             }
             cb.query().addOrderBy_CreatedTime_Asc();
             cb.fetchFirst(fessConfig.getPageThumbnailQueueMaxFetchSizeAsInteger());
-        }).parallelStream().forEach(entity -> {
-            idList.add(entity.getId());
-            if (cleanup) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Removing thumbnail queue: " + entity);
-                }
-            } else {
-                process(fessConfig, entity);
+        });
+        if (entityList.isEmpty()) {
+            return 0;
+        }
+
+        final List<String> idList = entityList.stream().map(ThumbnailQueue::getId).collect(Collectors.toList());
+        if (cleanup) {
+            if (logger.isDebugEnabled()) {
+                entityList.forEach(entity -> logger.debug("Removing thumbnail queue: " + entity));
+            }
+        } else {
+            // the same file can be queued by several crawls or targets
+            final Map<String, ThumbnailQueue> taskMap = new LinkedHashMap<>();
+            entityList.forEach(entity -> taskMap.putIfAbsent(entity.getPath(), entity));
+            final Map<String, Map<String, Object>> docMap = getDocumentMap(taskMap.values());
+
+            final long startTime = System.currentTimeMillis();
+            final long generated = generatedCount.get();
+            final long failed = failedCount.get();
+            final List<ForkJoinTask<?>> futureList = new ArrayList<>(taskMap.size());
+            for (final ThumbnailQueue entity : taskMap.values()) {
+                futureList.add(pool.submit(() -> process(fessConfig, entity, docMap.get(entity.getThumbnailId()))));
+            }
+            futureList.forEach(ForkJoinTask::join);
+            if (logger.isInfoEnabled()) {
+                final long time = System.currentTimeMillis() - startTime;
+                logger.info("Processed " + taskMap.size() + " thumbnail tasks in " + time + "ms (generated: "
+                        + (generatedCount.get() - generated) + ", failed: " + (failedCount.get() - failed) + ", total generated: "
+                        + generatedCount.get() + ", total failed: " + failedCount.get() + ")");
             }
-        })).join();
-        if (!idList.isEmpty()) {
-            thumbnailQueueBhv.queryDelete(cb -> {
-                cb.query().setId_InScope(idList);
-            });
-            thumbnailQueueBhv.refresh();
         }
+
+        thumbnailQueueBhv.queryDelete(cb -> {
+            cb.query().setId_InScope(idList);
+        });
+        thumbnailQueueBhv.refresh();
         return idList.size();
     }
 
+    protected Map<String, Map<String, Object>> getDocumentMap(final Collection<ThumbnailQueue> entities) {
+        final Set<String> thumbnailIdSet = entities.stream().map(ThumbnailQueue::getThumbnailId).collect(Collectors.toSet());
+        try {
+            return ComponentUtil.getIndexingHelper().getDocumentMapByIds(ComponentUtil.getFessEsClient(), thumbnailIdSet,
+                    BaseThumbnailGenerator.getDocumentFields());
+        } catch (final Exception e) {
+            logger.warn("Failed to get " + thumbnailIdSet.size() + " documents for thumbnails.", e);
+            return Collections.emptyMap();
+        }
+    }
+
     protected void process(final FessConfig fessConfig, final ThumbnailQueue entity) {
+        process(fessConfig, entity, null);
+    }
+
+    protected void process(final FessConfig fessConfig, final ThumbnailQueue entity, final Map<String, Object> docMap) {
         if (logger.isDebugEnabled()) {
             logger.debug("Processing thumbnail: " + entity);
         }
@@ -234,9 +288,11 @@ public class ThumbnailManager {
                 }
                 final ThumbnailGenerator generator = ComponentUtil.getComponent(generatorName);
                 if (generator.isAvailable()) {
-                    if (!generator.generate(entity.getThumbnailId(), outputFile)) {
+                    if (!generator.generate(entity.getThumbnailId(), docMap, outputFile)) {
+                        failedCount.incrementAndGet();
                         new File(outputFile.getAbsolutePath() + NOIMAGE_FILE_SUFFIX).setLastModified(System.currentTimeMillis());
                     } else {
+                        generatedCount.incrementAndGet();
                         final long interval = fessConfig.getThumbnailGeneratorIntervalAsInteger().longValue();
                         if (interval > 0) {
                             Thread.sleep(interval);
@@ -249,10 +305,19 @@ public class ThumbnailManager {
                 logger.debug("No image file exists: " + noImageFile.getAbsolutePath());
             }
         } catch (final Exception e) {
+            failedCount.incrementAndGet();
             logger.warn("Failed to create thumbnail for " + entity, e);
         }
     }
 
+    public long getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
     public boolean offer(final Map<String, Object> docMap) {
         for (final ThumbnailGenerator generator : generatorList) {
             if (generator.isTarget(docMap)) {
@@ -301,6 +366,25 @@ public class ThumbnailManager {
         return null;
     }
 
+    /**
+     * Returns a thumbnail file resolved by {@link #putThumbnailFile(String, File)} recently.
+     * The key should contain the permissions of the requester because the file was resolved by a role-filtered lookup.
+     */
+    public File getCachedThumbnailFile(final String key) {
+        final File file = thumbnailPathCache.getIfPresent(key);
+        if (file != null) {
+            if (file.isFile()) {
+                return file;
+            }
+            thumbnailPathCache.invalidate(key);
+        }
+        return null;
+    }
+
+    public void putThumbnailFile(final String key, final File file) {
+        thumbnailPathCache.put(key, file);
+    }
+
     public void add(final ThumbnailGenerator generator) {
         if (logger.isDebugEnabled()) {
             logger.debug(generator.getName() + " is available.");
@@ -474,6 +558,10 @@ public class ThumbnailManager {
         this.thumbnailPathCacheSize = thumbnailPathCacheSize;
     }
 
+    public void setThumbnailPathCacheExpire(final long thumbnailPathCacheExpire) {
+        this.thumbnailPathCacheExpire = thumbnailPathCacheExpire;
+    }
+
     public void setImageExtention(final String imageExtention) {
         this.imageExtention = imageExtention;
     }
@@ -154,14 +154,31 @@ public abstract class BaseThumbnailGenerator implements ThumbnailGenerator {
         }
     }
 
+    @Override
+    public boolean generate(final String thumbnailId, final File outputFile) {
+        return generate(thumbnailId, null, outputFile);
+    }
+
+    public static String[] getDocumentFields() {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        return new String[] { fessConfig.getIndexFieldThumbnail(), fessConfig.getIndexFieldConfigId() };
+    }
+
     protected boolean process(final String id, final BiPredicate<String, String> consumer) {
+        return process(id, null, consumer);
+    }
+
+    protected boolean process(final String id, final Map<String, Object> docMap, final BiPredicate<String, String> consumer) {
         final FessConfig fessConfig = ComponentUtil.getFessConfig();
-        final FessEsClient fessEsClient = ComponentUtil.getFessEsClient();
-        final IndexingHelper indexingHelper = ComponentUtil.getIndexingHelper();
         try {
-            final Map<String, Object> doc =
-                    indexingHelper.getDocument(fessEsClient, id,
-                            new String[] { fessConfig.getIndexFieldThumbnail(), fessConfig.getIndexFieldConfigId() });
+            final Map<String, Object> doc;
+            if (docMap != null) {
+                doc = docMap;
+            } else {
+                final FessEsClient fessEsClient = ComponentUtil.getFessEsClient();
+                final IndexingHelper indexingHelper = ComponentUtil.getIndexingHelper();
+                doc = indexingHelper.getDocument(fessEsClient, id, getDocumentFields());
+            }
             if (doc == null) {
                 throw new ThumbnailGenerationException("Document is not found: " + id);
             }
@@ -187,7 +204,11 @@ public abstract class BaseThumbnailGenerator implements ThumbnailGenerator {
     }
 
     protected boolean process(final String id, final Predicate<ResponseData> consumer) {
-        return process(id,
+        return process(id, null, consumer);
+    }
+
+    protected boolean process(final String id, final Map<String, Object> docMap, final Predicate<ResponseData> consumer) {
+        return process(id, docMap,
                 (configId, url) -> {
                     final CrawlingConfigHelper crawlingConfigHelper = ComponentUtil.getCrawlingConfigHelper();
                     final CrawlingConfig config = crawlingConfigHelper.getCrawlingConfig(configId);
@@ -21,6 +21,7 @@ import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
@@ -61,7 +62,7 @@ public class CommandGenerator extends BaseThumbnailGenerator {
     }
 
     @Override
-    public boolean generate(final String thumbnailId, final File outputFile) {
+    public boolean generate(final String thumbnailId, final Map<String, Object> docMap, final File outputFile) {
         if (logger.isDebugEnabled()) {
             logger.debug("Generate Thumbnail: " + thumbnailId);
         }
@@ -82,7 +83,7 @@ public class CommandGenerator extends BaseThumbnailGenerator {
             return false;
         }
 
-        return process(thumbnailId, responseData -> {
+        return process(thumbnailId, docMap, responseData -> {
             File tempFile = null;
             try {
                 tempFile = File.createTempFile("thumbnail_", "");
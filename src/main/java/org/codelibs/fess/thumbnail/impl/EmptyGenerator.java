@@ -16,11 +16,12 @@
 package org.codelibs.fess.thumbnail.impl;
 
 import java.io.File;
+import java.util.Map;
 
 public class EmptyGenerator extends BaseThumbnailGenerator {
 
     @Override
-    public boolean generate(final String thumbnailId, final File outputFile) {
+    public boolean generate(final String thumbnailId, final Map<String, Object> docMap, final File outputFile) {
         return false;
     }
 
@@ -57,7 +57,7 @@ public class HtmlTagBasedGenerator extends BaseThumbnailGenerator {
     }
 
     @Override
-    public boolean generate(final String thumbnailId, final File outputFile) {
+    public boolean generate(final String thumbnailId, final Map<String, Object> docMap, final File outputFile) {
         if (logger.isDebugEnabled()) {
             logger.debug("Generate Thumbnail: " + thumbnailId);
         }
@@ -78,8 +78,7 @@ public class HtmlTagBasedGenerator extends BaseThumbnailGenerator {
             return false;
         }
 
-        return process(
-                thumbnailId,
+        return process(thumbnailId, docMap,
                 responseData -> {
                     if (!isImageMimeType(responseData)) {
                         if (logger.isDebugEnabled()) {
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.thumbnail.impl;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.codelibs.core.lang.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates thumbnails of raster images (png, jpeg, gif and bmp) in this JVM.
+ * The image is decoded from the crawled stream with subsampling, so no temporary file or external command is used.
+ */
+public class RasterImageGenerator extends BaseThumbnailGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RasterImageGenerator.class);
+
+    protected int thumbnailWidth = 100;
+
+    protected int thumbnailHeight = 100;
+
+    protected String imageFormat = "png";
+
+    protected int maxImageWidth = 10000;
+
+    protected int maxImageHeight = 10000;
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public boolean generate(final String thumbnailId, final Map<String, Object> docMap, final File outputFile) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Generate Thumbnail: " + thumbnailId);
+        }
+
+        if (outputFile.exists()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("The thumbnail file exists: " + outputFile.getAbsolutePath());
+            }
+            return true;
+        }
+
+        final File parentFile = outputFile.getParentFile();
+        if (!parentFile.exists()) {
+            parentFile.mkdirs();
+        }
+        if (!parentFile.isDirectory()) {
+            logger.warn("Not found: " + parentFile.getAbsolutePath());
+            return false;
+        }
+
+        return process(thumbnailId, docMap, responseData -> {
+            boolean created = false;
+            try (ImageInputStream input = ImageIO.createImageInputStream(responseData.getResponseBody())) {
+                created = saveImage(input, outputFile);
+                if (!created) {
+                    logger.warn("Failed to create thumbnail: " + thumbnailId + " -> " + responseData.getUrl());
+                }
+            } catch (final Throwable t) {
+                if (logger.isDebugEnabled()) {
+                    logger.warn("Failed to create thumbnail: " + thumbnailId + " -> " + responseData.getUrl(), t);
+                } else {
+                    logger.warn("Failed to create thumbnail: " + thumbnailId + " -> " + responseData.getUrl() + " ("
+                            + t.getClass().getCanonicalName() + ": " + t.getMessage() + ")");
+                }
+            } finally {
+                if (!created) {
+                    updateThumbnailField(thumbnailId, StringUtil.EMPTY);
+                    if (outputFile.exists() && !outputFile.delete()) {
+                        logger.warn("Failed to delete " + outputFile.getAbsolutePath());
+                    }
+                }
+            }
+            return outputFile.exists();
+        });
+    }
+
+    protected boolean saveImage(final ImageInputStream input, final File outputFile) throws IOException {
+        if (input == null) {
+            return false;
+        }
+        final Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return false;
+        }
+        final ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            final int width = reader.getWidth(0);
+            final int height = reader.getHeight(0);
+            if (width <= 0 || height <= 0 || width > maxImageWidth || height > maxImageHeight) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Invalid image size: " + width + "x" + height);
+                }
+                return false;
+            }
+
+            // decode only as many pixels as the thumbnail needs
+            final ImageReadParam param = reader.getDefaultReadParam();
+            final int sampling = Math.max(1, Math.min(width / thumbnailWidth, height / thumbnailHeight));
+            param.setSourceSubsampling(sampling, sampling, 0, 0);
+            final BufferedImage image = reader.read(0, param);
+            try {
+                final float scale = Math.min((float) thumbnailWidth / width, (float) thumbnailHeight / height);
+                final int targetWidth = Math.max(1, Math.min(thumbnailWidth, Math.round(width * scale)));
+                final int targetHeight = Math.max(1, Math.min(thumbnailHeight, Math.round(height * scale)));
+                final BufferedImage thumbnail =
+                        new BufferedImage(targetWidth, targetHeight, "png".equalsIgnoreCase(imageFormat) ? BufferedImage.TYPE_INT_ARGB
+                                : BufferedImage.TYPE_INT_RGB);
+                final Graphics2D g = thumbnail.createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    g.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+                } finally {
+                    g.dispose();
+                }
+                return ImageIO.write(thumbnail, imageFormat, outputFile);
+            } finally {
+                image.flush();
+            }
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    public void setThumbnailWidth(final int thumbnailWidth) {
+        this.thumbnailWidth = thumbnailWidth;
+    }
+
+    public void setThumbnailHeight(final int thumbnailHeight) {
+        this.thumbnailHeight = thumbnailHeight;
+    }
+
+    public void setImageFormat(final String imageFormat) {
+        this.imageFormat = imageFormat;
+    }
+
+    public void setMaxImageWidth(final int maxImageWidth) {
+        this.maxImageWidth = maxImageWidth;
+    }
+
+    public void setMaxImageHeight(final int maxImageHeight) {
+        this.maxImageHeight = maxImageHeight;
+    }
+}
@@ -80,6 +80,7 @@ public class SystemMonitorTarget implements TimeoutTarget {
         appendProcessStats(buf);
         appendJvmStats(buf);
         appendElasticsearchStats(buf);
+        appendMetricsStats(buf);
 
         append(buf, "timestamp", () -> System.currentTimeMillis());
         buf.append('}');
@@ -197,4 +198,21 @@ public class SystemMonitorTarget implements TimeoutTarget {
         }
         buf.append("\"elasticsearch\":").append(stats).append(',');
     }
+
+    private void appendMetricsStats(final StringBuilder buf) {
+        if (!ComponentUtil.hasMetricsHelper()) {
+            return;
+        }
+        buf.append("\"metrics\":{");
+        buf.append(ComponentUtil.getMetricsHelper().getValueMap().entrySet().stream().map(e -> {
+            final StringBuilder b = new StringBuilder();
+            final Object value = e.getValue();
+            if (value instanceof Double) {
+                final double d = ((Double) value).doubleValue();
+                return append(b, e.getKey(), () -> Double.isNaN(d) ? null : Long.valueOf(Math.round(d))).toString();
+            }
+            return append(b, e.getKey(), () -> value).toString();
+        }).collect(Collectors.joining(",")));
+        buf.append("},");
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.util;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.codelibs.core.lang.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A fixed-size ring buffer for log entities. Adding never blocks: when the buffer is full,
+ * the overflow policy decides whether the oldest entry, a sampled entry or the new entry is given up,
+ * or the new entry is handed to a spill handler.
+ */
+public class BoundedLogQueue<T> {
+    private static final Logger logger = LoggerFactory.getLogger(BoundedLogQueue.class);
+
+    public enum OverflowPolicy {
+        DROP_OLDEST, SAMPLE, SPILL;
+
+        public static OverflowPolicy of(final String value) {
+            if (StringUtil.isNotBlank(value)) {
+                try {
+                    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+                } catch (final IllegalArgumentException e) {
+                    logger.warn("Unknown overflow policy: " + value);
+                }
+            }
+            return DROP_OLDEST;
+        }
+    }
+
+    protected final ArrayBlockingQueue<T> queue;
+
+    protected final int capacity;
+
+    protected final OverflowPolicy overflowPolicy;
+
+    protected final int sampleRate;
+
+    protected final Consumer<T> spillHandler;
+
+    protected final AtomicLong sampleCounter = new AtomicLong(0);
+
+    protected final LongAdder droppedCount = new LongAdder();
+
+    protected final LongAdder spilledCount = new LongAdder();
+
+    /**
+     * @param capacity the maximum number of entries in the buffer
+     * @param overflowPolicy the policy applied when the buffer is full
+     * @param sampleRate with SAMPLE, one of this number of entries is kept while the buffer is more than half full
+     * @param spillHandler with SPILL, receives entries which do not fit into the buffer
+     */
+    public BoundedLogQueue(final int capacity, final OverflowPolicy overflowPolicy, final int sampleRate, final Consumer<T> spillHandler) {
+        this.capacity = capacity < 1 ? 1 : capacity;
+        this.overflowPolicy = overflowPolicy == OverflowPolicy.SPILL && spillHandler == null ? OverflowPolicy.DROP_OLDEST : overflowPolicy;
+        this.sampleRate = sampleRate < 1 ? 1 : sampleRate;
+        this.spillHandler = spillHandler;
+        queue = new ArrayBlockingQueue<>(this.capacity);
+    }
+
+    /**
+     * Adds the entry without blocking.
+     *
+     * @return true if the entry is in the buffer
+     */
+    public boolean offer(final T entry) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE && queue.size() * 2 >= capacity
+                && sampleCounter.incrementAndGet() % sampleRate != 0) {
+            droppedCount.increment();
+            return false;
+        }
+        while (!queue.offer(entry)) {
+            switch (overflowPolicy) {
+            case DROP_OLDEST:
+                if (queue.poll() != null) {
+                    droppedCount.increment();
+                }
+                break;
+            case SPILL:
+                spill(entry);
+                return false;
+            default:
+                droppedCount.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns drained entries which could not be stored. With SPILL, they are handed to the spill handler.
+     * Otherwise they are added again, and the overflow policy applies.
+     */
+    public void requeue(final Collection<T> entries) {
+        for (final T entry : entries) {
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(entry);
+            } else {
+                offer(entry);
+            }
+        }
+    }
+
+    protected void spill(final T entry) {
+        try {
+            spillHandler.accept(entry);
+            spilledCount.increment();
+        } catch (final Exception e) {
+            logger.warn("Failed to spill " + entry, e);
+            droppedCount.increment();
+        }
+    }
+
+    public int drainTo(final Collection<? super T> list, final int maxElements) {
+        return queue.drainTo(list, maxElements);
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.sum();
+    }
+}
@@ -30,12 +30,14 @@ import org.codelibs.fess.crawler.client.CrawlerClientFactory;
 import org.codelibs.fess.crawler.entity.EsAccessResult;
 import org.codelibs.fess.crawler.extractor.ExtractorFactory;
 import org.codelibs.fess.crawler.service.DataService;
+import org.codelibs.fess.crawler.transformer.ResultDataCodec;
 import org.codelibs.fess.dict.DictionaryManager;
 import org.codelibs.fess.ds.DataStoreFactory;
 import org.codelibs.fess.es.client.FessEsClient;
 import org.codelibs.fess.exception.ContainerNotAvailableException;
 import org.codelibs.fess.helper.AccessTokenHelper;
 import org.codelibs.fess.helper.ActivityHelper;
+import org.codelibs.fess.helper.CrawlerEventHelper;
 import org.codelibs.fess.helper.CrawlingConfigHelper;
 import org.codelibs.fess.helper.CrawlingInfoHelper;
 import org.codelibs.fess.helper.CurlHelper;
@@ -47,6 +49,7 @@ import org.codelibs.fess.helper.IntervalControlHelper;
 import org.codelibs.fess.helper.JobHelper;
 import org.codelibs.fess.helper.KeyMatchHelper;
 import org.codelibs.fess.helper.LabelTypeHelper;
+import org.codelibs.fess.helper.MetricsHelper;
 import org.codelibs.fess.helper.PathMappingHelper;
 import org.codelibs.fess.helper.PermissionHelper;
 import org.codelibs.fess.helper.PopularWordHelper;
@@ -57,6 +60,7 @@ import org.codelibs.fess.helper.RelatedQueryHelper;
 import org.codelibs.fess.helper.RoleQueryHelper;
 import org.codelibs.fess.helper.SambaHelper;
 import org.codelibs.fess.helper.SearchLogHelper;
+import org.codelibs.fess.helper.SearchResultCacheHelper;
 import org.codelibs.fess.helper.SuggestHelper;
 import org.codelibs.fess.helper.SystemHelper;
 import org.codelibs.fess.helper.UserAgentHelper;
@@ -98,6 +102,8 @@ public final class ComponentUtil {
 
     private static final String THUMBNAIL_MANAGER = "thumbnailManager";
 
+    private static final String RESULT_DATA_CODEC = "resultDataCodec";
+
     private static final String SSO_MANAGER = "ssoManager";
 
     private static final String PERMISSION_HELPER = "permissionHelper";
@@ -148,8 +154,14 @@ public final class ComponentUtil {
 
     private static final String POPULAR_WORD_HELPER = "popularWordHelper";
 
+    private static final String SEARCH_RESULT_CACHE_HELPER = "searchResultCacheHelper";
+
+    private static final String METRICS_HELPER = "metricsHelper";
+
     private static final String CRAWLING_INFO_HELPER = "crawlingInfoHelper";
 
+    private static final String CRAWLER_EVENT_HELPER = "crawlerEventHelper";
+
     private static final String CRAWLING_CONFIG_HELPER = "crawlingConfigHelper";
 
     private static final String SEARCH_LOG_HELPER = "searchLogHelper";
@@ -259,10 +271,22 @@ public final class ComponentUtil {
         return getComponent(CRAWLING_INFO_HELPER);
     }
 
+    public static CrawlerEventHelper getCrawlerEventHelper() {
+        return getComponent(CRAWLER_EVENT_HELPER);
+    }
+
     public static PopularWordHelper getPopularWordHelper() {
         return getComponent(POPULAR_WORD_HELPER);
     }
 
+    public static SearchResultCacheHelper getSearchResultCacheHelper() {
+        return getComponent(SEARCH_RESULT_CACHE_HELPER);
+    }
+
+    public static MetricsHelper getMetricsHelper() {
+        return getComponent(METRICS_HELPER);
+    }
+
     public static PathMappingHelper getPathMappingHelper() {
         return getComponent(PATH_MAPPING_HELPER);
     }
@@ -398,6 +422,10 @@ public final class ComponentUtil {
         return getComponent(THUMBNAIL_MANAGER);
     }
 
+    public static ResultDataCodec getResultDataCodec() {
+        return getComponent(RESULT_DATA_CODEC);
+    }
+
     public static AuthenticationManager getAuthenticationManager() {
         return getComponent(AUTHENTICATION_MANAGER);
     }
@@ -477,10 +505,22 @@ public final class ComponentUtil {
         return SingletonLaContainerFactory.getContainer().hasComponentDef(POPULAR_WORD_HELPER);
     }
 
+    public static boolean hasSearchResultCacheHelper() {
+        return SingletonLaContainerFactory.getContainer().hasComponentDef(SEARCH_RESULT_CACHE_HELPER);
+    }
+
+    public static boolean hasMetricsHelper() {
+        return SingletonLaContainerFactory.getContainer().hasComponentDef(METRICS_HELPER);
+    }
+
     public static boolean hasRelatedQueryHelper() {
         return SingletonLaContainerFactory.getContainer().hasComponentDef(RELATED_QUERY_HELPER);
     }
 
+    public static boolean hasCrawlerEventHelper() {
+        return SingletonLaContainerFactory.getContainer().hasComponentDef(CRAWLER_EVENT_HELPER);
+    }
+
     public static boolean available() {
         try {
             return SingletonLaContainer.getComponent(SYSTEM_HELPER) != null;
@@ -18,17 +18,27 @@ package org.codelibs.fess.util;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codelibs.fess.mylasta.direction.FessConfig;
 import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
+import groovy.lang.Script;
 
 public final class GroovyUtil {
     private static final Logger logger = LoggerFactory.getLogger(GroovyUtil.class);
 
+    private static volatile Cache<String, Class<? extends Script>> scriptClassCache;
+
     private GroovyUtil() {
         // nothing
     }
@@ -36,7 +46,18 @@ public final class GroovyUtil {
     public static Object evaluate(final String template, final Map<String, Object> paramMap) {
         final Map<String, Object> bindingMap = new HashMap<>(paramMap);
         bindingMap.put("container", SingletonLaContainerFactory.getContainer());
-        final GroovyShell groovyShell = new GroovyShell(new Binding(bindingMap));
+        final Binding binding = new Binding(bindingMap);
+        if (isScriptCacheEnabled()) {
+            try {
+                final Class<? extends Script> scriptClass = getScriptClassCache().get(template, () -> parseScriptClass(template));
+                return InvokerHelper.createScript(scriptClass, binding).run();
+            } catch (final Exception e) {
+                logger.warn("Failed to evalue groovy script: " + template + " => " + paramMap, e);
+                return null;
+            }
+        }
+
+        final GroovyShell groovyShell = new GroovyShell(binding);
         try {
             return groovyShell.evaluate(template);
         } catch (final Exception e) {
@@ -54,4 +75,62 @@ public final class GroovyUtil {
             loader.clearCache();
         }
     }
+
+    public static CacheStats getScriptCacheStats() {
+        final Cache<String, Class<? extends Script>> cache = scriptClassCache;
+        return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
+
+    public static long getScriptCacheSize() {
+        final Cache<String, Class<? extends Script>> cache = scriptClassCache;
+        return cache != null ? cache.size() : 0;
+    }
+
+    public static void clearScriptCache() {
+        final Cache<String, Class<? extends Script>> cache = scriptClassCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    protected static boolean isScriptCacheEnabled() {
+        try {
+            return ComponentUtil.getFessConfig().isGroovyScriptCacheEnabled();
+        } catch (final Exception e) {
+            logger.debug("Failed to load groovy.script.cache.enabled.", e);
+            return false;
+        }
+    }
+
+    protected static Cache<String, Class<? extends Script>> getScriptClassCache() {
+        Cache<String, Class<? extends Script>> cache = scriptClassCache;
+        if (cache == null) {
+            synchronized (GroovyUtil.class) {
+                cache = scriptClassCache;
+                if (cache == null) {
+                    final FessConfig fessConfig = ComponentUtil.getFessConfig();
+                    final RemovalListener<String, Class<? extends Script>> listener = notification -> {
+                        final Class<? extends Script> scriptClass = notification.getValue();
+                        if (scriptClass != null) {
+                            InvokerHelper.removeClass(scriptClass);
+                        }
+                    };
+                    cache = CacheBuilder.newBuilder().maximumSize(fessConfig.getGroovyScriptCacheSizeAsInteger().longValue())
+                            .recordStats().removalListener(listener).build();
+                    scriptClassCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    protected static Class<? extends Script> parseScriptClass(final String template) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Compiling groovy script: " + template);
+        }
+        // a shell per script keeps each class in its own loader so that an evicted script can be unloaded,
+        // and the default parent loader is the context class loader, as in the uncached evaluation
+        final GroovyShell groovyShell = new GroovyShell();
+        return groovyShell.parse(template).getClass();
+    }
 }
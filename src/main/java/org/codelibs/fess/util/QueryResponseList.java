@@ -79,6 +79,8 @@ public class QueryResponseList implements List<Map<String, Object>> {
 
     protected long queryTime;
 
+    protected boolean cached = false;
+
     public QueryResponseList() {
         parent = new ArrayList<>();
     }
@@ -414,4 +416,12 @@ public class QueryResponseList implements List<Map<String, Object>> {
         return queryTime;
     }
 
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(final boolean cached) {
+        this.cached = cached;
+    }
+
 }
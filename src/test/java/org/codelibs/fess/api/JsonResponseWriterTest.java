@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.api;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.codelibs.core.CoreLibConstants;
+import org.codelibs.fess.unit.UnitFessTestCase;
+
+public class JsonResponseWriterTest extends UnitFessTestCase {
+
+    public void test_value() throws IOException {
+        assertEquals("null", toJson(null));
+        assertEquals("1", toJson(1));
+        assertEquals("2", toJson(2L));
+        assertEquals("1.5", toJson(1.5f));
+        assertEquals("2.5", toJson(2.5d));
+        assertEquals("true", toJson(Boolean.TRUE));
+        assertEquals("\"abc\"", toJson("abc"));
+        assertEquals("[\"a\",\"b\"]", toJson(new String[] { "a", "b" }));
+
+        final List<Object> list = new ArrayList<>();
+        list.add("a");
+        list.add(1);
+        list.add(null);
+        assertEquals("[\"a\",1,null]", toJson(list));
+
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", "x");
+        map.put("b", list);
+        assertEquals("{\"a\":\"x\",\"b\":[\"a\",1,null]}", toJson(map));
+    }
+
+    public void test_value_escape() throws IOException {
+        final String[] values = { "", "\"quoted\"", "back\\slash", "a/b", "tab\tnewline\nreturn\r", "\b\f\u0001\u001f", "\u007f",
+                "日本語", "😀", "<script>alert('x');</script>" };
+        for (final String value : values) {
+            assertEquals(value, "\"" + StringEscapeUtils.escapeJson(value) + "\"", toJson(value));
+        }
+    }
+
+    public void test_value_date() throws IOException {
+        final Date date = new Date(1500000000000L);
+        final SimpleDateFormat sdf = new SimpleDateFormat(CoreLibConstants.DATE_FORMAT_ISO_8601_EXTEND, Locale.ROOT);
+        assertEquals("\"" + StringEscapeUtils.escapeJson(sdf.format(date)) + "\"", toJson(date));
+    }
+
+    private String toJson(final Object obj) throws IOException {
+        final StringWriter out = new StringWriter();
+        new JsonResponseWriter(out).value(obj);
+        return out.toString();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.app.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.codelibs.fess.es.config.allcommon.EsAbstractEntity.RequestOptionCall;
+import org.codelibs.fess.es.config.exbhv.AccessTokenBhv;
+import org.codelibs.fess.es.config.exentity.AccessToken;
+import org.codelibs.fess.exception.InvalidAccessTokenException;
+import org.codelibs.fess.helper.AccessTokenHelper;
+import org.codelibs.fess.helper.SystemHelper;
+import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.codelibs.fess.util.ComponentUtil;
+import org.dbflute.optional.OptionalEntity;
+import org.dbflute.utflute.mocklet.MockletHttpServletRequest;
+import org.elasticsearch.action.delete.DeleteRequestBuilder;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+
+public class AccessTokenServiceTest extends UnitFessTestCase {
+
+    private final Map<String, AccessToken> accessTokenMap = new HashMap<>();
+
+    private int selectCount;
+
+    private long currentTime;
+
+    private String currentToken;
+
+    private AccessTokenService accessTokenService;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        currentTime = 1000000L;
+        ComponentUtil.register(new SystemHelper() {
+            @Override
+            public long getCurrentTimeAsLong() {
+                return currentTime;
+            }
+        }, "systemHelper");
+        ComponentUtil.register(new AccessTokenHelper() {
+            @Override
+            public String getAccessTokenFromRequest(final HttpServletRequest request) {
+                return currentToken;
+            }
+        }, "accessTokenHelper");
+
+        accessTokenService = new AccessTokenService() {
+            @Override
+            protected OptionalEntity<AccessToken> selectAccessToken(final String token) {
+                selectCount++;
+                return OptionalEntity.ofNullable(accessTokenMap.get(token), () -> {});
+            }
+        };
+        accessTokenService.fessConfig = new FessConfig.SimpleImpl();
+        accessTokenService.accessTokenBhv = new AccessTokenBhv() {
+            @Override
+            public void insertOrUpdate(final AccessToken entity, final RequestOptionCall<IndexRequestBuilder> opLambda) {
+                accessTokenMap.values().removeIf(t -> t.getId().equals(entity.getId()));
+                accessTokenMap.put(entity.getToken(), entity);
+            }
+
+            @Override
+            public void delete(final AccessToken entity, final RequestOptionCall<DeleteRequestBuilder> opLambda) {
+                accessTokenMap.remove(entity.getToken());
+            }
+        };
+        accessTokenService.init();
+    }
+
+    public void test_getPermissions_hit() {
+        accessTokenService.store(createAccessToken("1", "token1", 0L, "Rguest"));
+
+        Set<String> permissions = accessTokenService.getPermissions(createRequest("token1")).get();
+        assertEquals(1, permissions.size());
+        assertTrue(permissions.contains("Rguest"));
+        assertEquals(1, selectCount);
+
+        final MockletHttpServletRequest request = createRequest("token1");
+        request.addParameter("permission", "Rfoo");
+        permissions = accessTokenService.getPermissions(request).get();
+        assertEquals(2, permissions.size());
+        assertTrue(permissions.contains("Rfoo"));
+        assertEquals(1, selectCount);
+
+        try {
+            accessTokenService.getPermissions(createRequest("token2"));
+            fail();
+        } catch (final InvalidAccessTokenException e) {
+            // ok
+        }
+        try {
+            accessTokenService.getPermissions(createRequest("token2"));
+            fail();
+        } catch (final InvalidAccessTokenException e) {
+            // ok
+        }
+        assertEquals(3, selectCount);
+
+        assertFalse(accessTokenService.getPermissions(createRequest(null)).isPresent());
+        assertEquals(3, selectCount);
+    }
+
+    public void test_getPermissions_expired() {
+        accessTokenService.store(createAccessToken("1", "token1", currentTime + 1000L, "Rguest"));
+
+        assertTrue(accessTokenService.getPermissions(createRequest("token1")).get().contains("Rguest"));
+        assertEquals(1, selectCount);
+
+        currentTime += 2000L;
+        try {
+            accessTokenService.getPermissions(createRequest("token1"));
+            fail();
+        } catch (final InvalidAccessTokenException e) {
+            // ok
+        }
+        assertEquals(1, selectCount);
+    }
+
+    public void test_getPermissions_invalidate() {
+        final AccessToken accessToken = createAccessToken("1", "token1", 0L, "Rguest");
+        accessTokenService.store(accessToken);
+        assertTrue(accessTokenService.getPermissions(createRequest("token1")).get().contains("Rguest"));
+        assertEquals(1, selectCount);
+
+        accessToken.setPermissions(new String[] { "Radmin" });
+        accessTokenService.store(accessToken);
+        assertTrue(accessTokenService.getPermissions(createRequest("token1")).get().contains("Radmin"));
+        assertEquals(2, selectCount);
+
+        final AccessToken newAccessToken = createAccessToken("1", "token2", 0L, "Radmin");
+        accessTokenService.store(newAccessToken);
+        try {
+            accessTokenService.getPermissions(createRequest("token1"));
+            fail();
+        } catch (final InvalidAccessTokenException e) {
+            // ok
+        }
+        assertTrue(accessTokenService.getPermissions(createRequest("token2")).get().contains("Radmin"));
+
+        accessTokenService.delete(newAccessToken);
+        try {
+            accessTokenService.getPermissions(createRequest("token2"));
+            fail();
+        } catch (final InvalidAccessTokenException e) {
+            // ok
+        }
+    }
+
+    public void test_getPermissions_noCache() {
+        accessTokenService.fessConfig = new FessConfig.SimpleImpl() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Integer getApiAccessTokenCacheSizeAsInteger() {
+                return 0;
+            }
+        };
+        accessTokenService.accessTokenCache = null;
+        accessTokenService.init();
+        accessTokenService.store(createAccessToken("1", "token1", 0L, "Rguest"));
+
+        assertTrue(accessTokenService.getPermissions(createRequest("token1")).get().contains("Rguest"));
+        assertTrue(accessTokenService.getPermissions(createRequest("token1")).get().contains("Rguest"));
+        assertEquals(2, selectCount);
+    }
+
+    private AccessToken createAccessToken(final String id, final String token, final Long expiredTime, final String... permissions) {
+        final AccessToken accessToken = new AccessToken();
+        accessToken.setId(id);
+        accessToken.setToken(token);
+        accessToken.setExpiredTime(expiredTime);
+        accessToken.setPermissions(permissions);
+        accessToken.setParameterName("permission");
+        return accessToken;
+    }
+
+    private MockletHttpServletRequest createRequest(final String token) {
+        currentToken = token;
+        return getMockRequest();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.crawler.transformer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.codelibs.core.io.FileUtil;
+import org.codelibs.core.io.SerializeUtil;
+import org.codelibs.fess.exception.FessSystemException;
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class BinaryResultDataCodecTest extends UnitFessTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(BinaryResultDataCodecTest.class);
+
+    private BinaryResultDataCodec codec;
+
+    private String html;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        codec = new BinaryResultDataCodec();
+        html = FileUtil.readUTF8("data/sample.html");
+    }
+
+    public void test_roundTrip() {
+        final Map<String, Object> dataMap = createHtmlDataMap(1);
+        dataMap.put("null_value", null);
+        dataMap.put("int_value", 1);
+        dataMap.put("double_value", 1.5d);
+        dataMap.put("boolean_value", Boolean.TRUE);
+        dataMap.put("bytes_value", new byte[] { 1, 2, 3 });
+        dataMap.put("decimal_value", new BigDecimal("1.23"));
+        dataMap.put("set_value", new HashSet<>(Arrays.asList("a", "b")));
+        final Map<String, Object> childMap = new LinkedHashMap<>();
+        childMap.put("key", "value");
+        dataMap.put("map_value", childMap);
+
+        final Map<String, Object> result = codec.decode(codec.encode(dataMap));
+        assertEquals(dataMap.keySet().toString(), result.keySet().toString());
+        for (final Map.Entry<String, Object> entry : dataMap.entrySet()) {
+            final Object expected = entry.getValue();
+            final Object actual = result.get(entry.getKey());
+            if (expected instanceof String[]) {
+                assertTrue(entry.getKey(), Arrays.equals((String[]) expected, (String[]) actual));
+            } else if (expected instanceof byte[]) {
+                assertTrue(entry.getKey(), Arrays.equals((byte[]) expected, (byte[]) actual));
+            } else {
+                assertEquals(entry.getKey(), expected, actual);
+            }
+        }
+    }
+
+    public void test_compressedString() {
+        final Map<String, Object> dataMap = new LinkedHashMap<>();
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            buf.append("テスト content ").append(i % 10).append(' ');
+        }
+        dataMap.put("content", buf.toString());
+        dataMap.put("title", "short");
+
+        final byte[] plainData = codec.encode(dataMap);
+        assertTrue(plainData.length > buf.length());
+        assertEquals(dataMap, codec.decode(plainData));
+
+        codec.setCompressionEnabled(true);
+        final byte[] data = codec.encode(dataMap);
+        assertTrue(data.length < buf.length());
+        assertEquals(dataMap, codec.decode(data));
+
+        codec.setCompressionThreshold(Integer.MAX_VALUE);
+        assertEquals(plainData.length, codec.encode(dataMap).length);
+    }
+
+    public void test_emptyMap() {
+        final Map<String, Object> result = codec.decode(codec.encode(new LinkedHashMap<>()));
+        assertTrue(result.isEmpty());
+    }
+
+    public void test_serializedData() {
+        final Map<String, Object> dataMap = createHtmlDataMap(1);
+        final Map<String, Object> result = codec.decode(SerializeUtil.fromObjectToBinary(dataMap));
+        assertEquals(dataMap.get("content"), result.get("content"));
+        assertTrue(Arrays.equals((String[]) dataMap.get("role"), (String[]) result.get("role")));
+    }
+
+    public void test_truncatedData() {
+        final byte[] data = codec.encode(createHtmlDataMap(1));
+        try {
+            codec.decode(Arrays.copyOf(data, data.length / 2));
+            fail();
+        } catch (final FessSystemException e) {
+            // ok
+        }
+    }
+
+    public void test_sizeAndThroughput() {
+        final List<Map<String, Object>> dataMapList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            dataMapList.add(createHtmlDataMap(i));
+        }
+
+        long serializedSize = 0;
+        long encodedSize = 0;
+        for (final Map<String, Object> dataMap : dataMapList) {
+            serializedSize += SerializeUtil.fromObjectToBinary(dataMap).length;
+            encodedSize += codec.encode(dataMap).length;
+        }
+        logger.info("size: serialization=" + serializedSize + ", codec=" + encodedSize);
+        assertTrue(encodedSize < serializedSize);
+
+        long serializationTime = Long.MAX_VALUE;
+        long codecTime = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            serializationTime = Math.min(serializationTime, measure(dataMapList, dataMap -> {
+                SerializeUtil.fromBinaryToObject(SerializeUtil.fromObjectToBinary(dataMap));
+            }));
+            codecTime = Math.min(codecTime, measure(dataMapList, dataMap -> {
+                codec.decode(codec.encode(dataMap));
+            }));
+        }
+        logger.info("time: serialization=" + serializationTime / 1000000 + "ms, codec=" + codecTime / 1000000 + "ms");
+
+        final BinaryResultDataCodec compressedCodec = new BinaryResultDataCodec();
+        compressedCodec.setCompressionEnabled(true);
+        long compressedSize = 0;
+        for (final Map<String, Object> dataMap : dataMapList) {
+            compressedSize += compressedCodec.encode(dataMap).length;
+        }
+        long compressedTime = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            compressedTime = Math.min(compressedTime, measure(dataMapList, dataMap -> {
+                compressedCodec.decode(compressedCodec.encode(dataMap));
+            }));
+        }
+        logger.info("compressed: size=" + compressedSize + ", time=" + compressedTime / 1000000 + "ms");
+        assertTrue(compressedSize < encodedSize);
+    }
+
+    private long measure(final List<Map<String, Object>> dataMapList, final Consumer<Map<String, Object>> consumer) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            dataMapList.forEach(consumer);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Map<String, Object> createHtmlDataMap(final int index) {
+        final String title = "Installation Guide " + index + " | Fess";
+        final String cache = html.replace("<title>Installation Guide | Fess</title>", "<title>" + title + "</title>");
+        final String content = cache.replaceAll("(?s)<head>.*</head>|<script[^>]*>.*?</script>", " ").replaceAll("<[^>]+>", " ")
+                .replaceAll("\\s+", " ").trim();
+        final String url = "http://fess.codelibs.org/" + index + "/index.html";
+        final Map<String, Object> dataMap = new LinkedHashMap<>();
+        dataMap.put("url", url);
+        dataMap.put("host", "fess.codelibs.org");
+        dataMap.put("site", "fess.codelibs.org/" + index + "/index.html");
+        dataMap.put("title", title);
+        dataMap.put("content", content);
+        dataMap.put("digest", content.substring(0, 200));
+        dataMap.put("cache", cache);
+        dataMap.put("content_length", Long.valueOf(content.length()));
+        dataMap.put("last_modified", new Date(1500000000000L + index));
+        dataMap.put("created", new Date(1500000000000L));
+        dataMap.put("boost", Float.valueOf(1.0f));
+        dataMap.put("role", new String[] { "Rguest" });
+        dataMap.put("label", new String[] { "label1", "label2" });
+        dataMap.put("anchor", Arrays.asList("http://fess.codelibs.org/a.html", "http://fess.codelibs.org/b.html"));
+        dataMap.put("mimetype", "text/html");
+        dataMap.put("filetype", "html");
+        dataMap.put("lang", "en");
+        dataMap.put("segment", "test-" + index);
+        dataMap.put("config_id", "W1");
+        dataMap.put("_id", "id" + index);
+        return dataMap;
+    }
+}
@@ -17,6 +17,7 @@ package org.codelibs.fess.crawler.transformer;
 
 import java.io.ByteArrayInputStream;
 import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.net.URL;
 import java.util.ArrayList;
@@ -62,8 +63,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
+import com.sun.management.ThreadMXBean;
+
 public class FessXpathTransformerTest extends UnitFessTestCase {
     private static final Logger logger = LoggerFactory.getLogger(FessXpathTransformerTest.class);
 
@@ -79,6 +83,7 @@ public class FessXpathTransformerTest extends UnitFessTestCase {
         SingletonLaContainerFactory.getContainer().register(FileTypeHelper.class, "fileTypeHelper");
         SingletonLaContainerFactory.getContainer().register(DocumentHelper.class, "documentHelper");
         SingletonLaContainerFactory.getContainer().register(LabelTypeHelper.class, "labelTypeHelper");
+        SingletonLaContainerFactory.getContainer().register(BinaryResultDataCodec.class, "resultDataCodec");
 
         WebConfig webConfig = new WebConfig();
         setValueToObject(webConfig, "labelTypeList", new ArrayList<LabelType>());
@@ -692,6 +697,119 @@ public class FessXpathTransformerTest extends UnitFessTestCase {
         assertEquals("bbb aaa", value);
     }
 
+    public void test_getSingleNodeValue_sameAsCloneAndPrune() throws Exception {
+        ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getCrawlerDocumentHtmlPrunedTags() {
+                return "script,noscript,style,div#barid,div.barcls";
+            }
+        });
+        final FessXpathTransformer transformer = new FessXpathTransformer();
+        transformer.init();
+
+        final String[] pages = { //
+                "<html><body> aaa <!--googleoff: all--> bbb <p>ccc<!--googleon: all--> ddd</p> eee </body></html>",
+                "<html><body>aaa<script>bbb<!--googleoff: index-->ccc</script>ddd<!--googleon: index-->eee</body></html>",
+                "<html><head><meta name=\"keywords\" content=\"kkk\"><title>ttt</title></head>"
+                        + "<body><div>foo<noscript>nnn<b>mmm</b></noscript>bar</div><div id=\"barid\">xxx</div>"
+                        + "<div class=\"barcls\">yyy</div><style>sss</style><p> <span> zzz </span> </p><!-- test -->end</body></html>",
+                "<html><body><!--googleoff: snippet--><div>aaa<!--googleon: snippet--><div id=\"barid\">bbb"
+                        + "<!--googleoff: snippet-->ccc</div>ddd</div>eee</body></html>" };
+        final String[] xpaths = { "//BODY", "/HTML", "//TITLE/text()", "//DIV", "//META[@name='keywords']/@content|//BODY", "//FOO" };
+        for (final String page : pages) {
+            final Document document = getDocument(page);
+            for (final String xpath : xpaths) {
+                for (final boolean pruned : new boolean[] { true, false }) {
+                    for (final boolean useGoogleOffOn : new boolean[] { true, false }) {
+                        transformer.useGoogleOffOn = useGoogleOffOn;
+                        final String message = page + " " + xpath + " " + pruned + " " + useGoogleOffOn;
+                        assertEquals(message, getSingleNodeValueByClone(transformer, document, xpath, pruned),
+                                transformer.getSingleNodeValue(document, xpath, pruned));
+                    }
+                }
+            }
+        }
+        ComponentUtil.setFessConfig(null);
+    }
+
+    public void test_getSingleNodeValue_allocation() throws Exception {
+        ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getCrawlerDocumentHtmlPrunedTags() {
+                return "script,noscript";
+            }
+        });
+        final FessXpathTransformer transformer = new FessXpathTransformer();
+        transformer.init();
+
+        final StringBuilder buf = new StringBuilder();
+        buf.append("<html><head><title>Fess</title></head><body>");
+        for (int i = 0; i < 200; i++) {
+            buf.append("<div class=\"item\"><p>Fess is an enterprise search server. ").append(i).append("</p>");
+            buf.append("<script>var i = ").append(i).append(";</script><!--googleoff: all--><span>menu</span><!--googleon: all--></div>");
+        }
+        buf.append("</body></html>");
+        final Document document = getDocument(buf.toString());
+        assertEquals(getSingleNodeValueByClone(transformer, document, "//BODY", true),
+                transformer.getSingleNodeValue(document, "//BODY", true));
+
+        final int count = 100;
+        final Object platformThreadMXBean = ManagementFactory.getThreadMXBean();
+        final ThreadMXBean threadMXBean = platformThreadMXBean instanceof ThreadMXBean ? (ThreadMXBean) platformThreadMXBean : null;
+        final long threadId = Thread.currentThread().getId();
+        final boolean allocationSupported = threadMXBean != null;
+        long allocated = allocationSupported ? threadMXBean.getThreadAllocatedBytes(threadId) : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            getSingleNodeValueByClone(transformer, document, "//BODY", true);
+        }
+        final long cloneTime = System.nanoTime() - start;
+        long cloneBytes = 0;
+        if (allocationSupported) {
+            cloneBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocated;
+            allocated = threadMXBean.getThreadAllocatedBytes(threadId);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            transformer.getSingleNodeValue(document, "//BODY", true);
+        }
+        final long walkTime = System.nanoTime() - start;
+        long walkBytes = 0;
+        if (allocationSupported) {
+            walkBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocated;
+        }
+        logger.info("time: clone=" + cloneTime / 1000000 + "ms, walk=" + walkTime / 1000000 + "ms");
+        logger.info("allocation per document: clone=" + cloneBytes / count + "bytes, walk=" + walkBytes / count + "bytes");
+        if (allocationSupported) {
+            assertTrue(walkBytes < cloneBytes);
+        }
+        ComponentUtil.setFessConfig(null);
+    }
+
+    private String getSingleNodeValueByClone(final FessXpathTransformer transformer, final Document document, final String xpath,
+            final boolean pruned) throws Exception {
+        final NodeList list = transformer.selectXPathNodeList(document, xpath);
+        StringBuilder buf = null;
+        for (int i = 0; i < list.getLength(); i++) {
+            if (buf == null) {
+                buf = new StringBuilder(1000);
+            }
+            Node node = list.item(i).cloneNode(true);
+            if (transformer.useGoogleOffOn) {
+                node = transformer.processGoogleOffOn(node, new ValueHolder<>(true));
+            }
+            if (pruned) {
+                node = transformer.pruneNode(node);
+            }
+            transformer.parseTextContent(node, buf);
+        }
+        return buf == null ? null : buf.toString().trim();
+    }
+
     public void test_getCanonicalUrl() throws Exception {
         final FessXpathTransformer transformer = new FessXpathTransformer() {
             @Override
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.exec;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class CrawlerTest extends UnitFessTestCase {
+
+    private static final File[] CRAWLER_CONFIG_DIRS = { new File("src/main/webapp/WEB-INF/env/crawler/resources"),
+            new File("src/main/resources") };
+
+    private static final File[] WEB_CONFIG_DIRS = { new File("src/main/resources") };
+
+    public void test_crawlerContainer() throws Exception {
+        final List<String> nameList = new ArrayList<>();
+        loadComponentNames(CRAWLER_CONFIG_DIRS, "app.xml", nameList);
+
+        assertTrue(nameList.contains("fessCrawler"));
+        assertTrue(nameList.contains("indexingHelper"));
+        assertTrue(nameList.contains("resultDataCodec"));
+        assertEquals(1, nameList.stream().filter(s -> s.equals("resultDataCodec")).count());
+        assertTrue(nameList.contains("metricsHelper"));
+        assertEquals(1, nameList.stream().filter(s -> s.equals("metricsHelper")).count());
+    }
+
+    public void test_webContainer() throws Exception {
+        final List<String> nameList = new ArrayList<>();
+        loadComponentNames(WEB_CONFIG_DIRS, "app.xml", nameList);
+
+        assertTrue(nameList.contains("resultDataCodec"));
+        assertEquals(1, nameList.stream().filter(s -> s.equals("resultDataCodec")).count());
+        assertTrue(nameList.contains("metricsHelper"));
+        assertEquals(1, nameList.stream().filter(s -> s.equals("metricsHelper")).count());
+    }
+
+    private void loadComponentNames(final File[] dirs, final String path, final List<String> nameList) throws Exception {
+        File file = null;
+        for (final File dir : dirs) {
+            final File f = new File(dir, path);
+            if (f.isFile()) {
+                file = f;
+                break;
+            }
+        }
+        if (file == null) {
+            // provided by a library
+            return;
+        }
+
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        final DocumentBuilder builder = factory.newDocumentBuilder();
+        final Document document = builder.parse(file);
+        final Element root = document.getDocumentElement();
+
+        final NodeList includeList = root.getElementsByTagName("include");
+        for (int i = 0; i < includeList.getLength(); i++) {
+            final String includePath = ((Element) includeList.item(i)).getAttribute("path");
+            loadComponentNames(dirs, includePath, nameList);
+        }
+
+        final NodeList componentList = root.getChildNodes();
+        for (int i = 0; i < componentList.getLength(); i++) {
+            if (componentList.item(i) instanceof Element) {
+                final Element element = (Element) componentList.item(i);
+                if ("component".equals(element.getTagName()) && element.hasAttribute("name")) {
+                    nameList.add(element.getAttribute("name"));
+                }
+            }
+        }
+    }
+}
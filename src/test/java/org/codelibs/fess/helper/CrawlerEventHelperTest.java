@@ -0,0 +1,446 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.codelibs.fess.Constants;
+import org.codelibs.fess.crawler.Crawler;
+import org.codelibs.fess.crawler.CrawlerContext;
+import org.codelibs.fess.crawler.CrawlerStatus;
+import org.codelibs.fess.crawler.entity.EsAccessResult;
+import org.codelibs.fess.crawler.service.impl.EsDataService;
+import org.codelibs.fess.crawler.service.impl.EsUrlFilterService;
+import org.codelibs.fess.crawler.service.impl.EsUrlQueueService;
+import org.codelibs.fess.crawler.util.EsResultList;
+import org.codelibs.fess.indexer.IndexUpdater;
+import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.codelibs.fess.util.ComponentUtil;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CrawlerEventHelperTest extends UnitFessTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(CrawlerEventHelperTest.class);
+
+    private static final long POLLING_INTERVAL = 10000L;
+
+    private CrawlerEventHelper crawlerEventHelper;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        crawlerEventHelper = new CrawlerEventHelper();
+    }
+
+    public void test_awaitAccessResult_timeout() throws Exception {
+        final long eventCount = crawlerEventHelper.getAccessResultEventCount();
+        final long startTime = System.currentTimeMillis();
+        assertFalse(crawlerEventHelper.awaitAccessResult(eventCount, 100L));
+        assertTrue(System.currentTimeMillis() - startTime >= 90L);
+    }
+
+    public void test_awaitAccessResult_notified() throws Exception {
+        final long eventCount = crawlerEventHelper.getAccessResultEventCount();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> {
+            try {
+                latch.await();
+                Thread.sleep(50L);
+            } catch (final InterruptedException e) {
+                // ignore
+            }
+            crawlerEventHelper.notifyAccessResultUpdated();
+        });
+        thread.start();
+        latch.countDown();
+        final long startTime = System.currentTimeMillis();
+        assertTrue(crawlerEventHelper.awaitAccessResult(eventCount, 10000L));
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+        thread.join();
+        assertEquals(eventCount + 1, crawlerEventHelper.getAccessResultEventCount());
+    }
+
+    public void test_awaitAccessResult_notifiedBeforeWait() throws Exception {
+        final long eventCount = crawlerEventHelper.getAccessResultEventCount();
+        crawlerEventHelper.notifyAccessResultUpdated();
+        // an event fired before waiting is not lost
+        assertTrue(crawlerEventHelper.awaitAccessResult(eventCount, 10000L));
+        assertFalse(crawlerEventHelper.awaitAccessResult(eventCount + 1, 0L));
+    }
+
+    public void test_awaitCrawlerEvent() throws Exception {
+        final long eventCount = crawlerEventHelper.getCrawlerEventCount();
+        crawlerEventHelper.notifyAccessResultUpdated();
+        assertFalse(crawlerEventHelper.awaitCrawlerEvent(eventCount, 10L));
+
+        crawlerEventHelper.notifyCrawlerThreadFinished("session1");
+        crawlerEventHelper.notifyCrawlerThreadFinished("session1");
+        crawlerEventHelper.notifyCrawlerThreadFinished("session2");
+        assertTrue(crawlerEventHelper.awaitCrawlerEvent(eventCount, 10L));
+        assertEquals(eventCount + 3, crawlerEventHelper.getCrawlerEventCount());
+        assertEquals(2, crawlerEventHelper.getFinishedThreadCount("session1"));
+        assertEquals(1, crawlerEventHelper.getFinishedThreadCount("session2"));
+        assertEquals(0, crawlerEventHelper.getFinishedThreadCount("session3"));
+    }
+
+    public void test_awaitAccessResults_indexUpdater() throws Exception {
+        final CrawlerEventHelper eventHelper = registerCrawlerEventHelper();
+        final TestIndexUpdater indexUpdater = new TestIndexUpdater();
+
+        long eventCount = indexUpdater.getEventCount();
+        long startTime = System.currentTimeMillis();
+        assertFalse(indexUpdater.await(eventCount, 50L, 300L));
+        assertTrue(System.currentTimeMillis() - startTime >= 290L);
+
+        // an access result stored while waiting ends the wait after the minimum interval
+        eventCount = indexUpdater.getEventCount();
+        final Thread crawlerThread = new Thread(() -> {
+            try {
+                Thread.sleep(20L);
+            } catch (final InterruptedException e) {
+                // ignore
+            }
+            eventHelper.notifyAccessResultUpdated();
+        });
+        crawlerThread.start();
+        startTime = System.currentTimeMillis();
+        assertTrue(indexUpdater.await(eventCount, 100L, 10000L));
+        final long waitTime = System.currentTimeMillis() - startTime;
+        assertTrue(waitTime >= 90L);
+        assertTrue(waitTime < 5000L);
+        crawlerThread.join();
+        assertEquals(eventCount + 1, indexUpdater.getEventCount());
+    }
+
+    public void test_awaitAccessResults_finishCrawling() throws Exception {
+        registerCrawlerEventHelper();
+        final TestIndexUpdater indexUpdater = new TestIndexUpdater();
+        final long eventCount = indexUpdater.getEventCount();
+        final Thread crawlThread = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (final InterruptedException e) {
+                // ignore
+            }
+            indexUpdater.setFinishCrawling(true);
+        });
+        crawlThread.start();
+        final long startTime = System.currentTimeMillis();
+        assertTrue(indexUpdater.await(eventCount, 0L, 10000L));
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+        crawlThread.join();
+    }
+
+    public void test_isCrawlerFinished() throws Exception {
+        final CrawlerEventHelper eventHelper = registerCrawlerEventHelper();
+        final WebFsIndexHelper webFsIndexHelper = new WebFsIndexHelper();
+        final Crawler crawler = createCrawler("isCrawlerFinished1", 2);
+        assertFalse(webFsIndexHelper.isCrawlerFinished(crawler));
+
+        eventHelper.notifyCrawlerThreadFinished("isCrawlerFinished1");
+        assertFalse(webFsIndexHelper.isCrawlerFinished(crawler));
+
+        eventHelper.notifyCrawlerThreadFinished("isCrawlerFinished2");
+        assertFalse(webFsIndexHelper.isCrawlerFinished(crawler));
+
+        eventHelper.notifyCrawlerThreadFinished("isCrawlerFinished1");
+        assertTrue(webFsIndexHelper.isCrawlerFinished(crawler));
+
+        final Crawler doneCrawler = createCrawler("isCrawlerFinished3", 2);
+        doneCrawler.getCrawlerContext().setStatus(CrawlerStatus.DONE);
+        assertTrue(webFsIndexHelper.isCrawlerFinished(doneCrawler));
+    }
+
+    public void test_awaitCrawlerEvent_webFsIndexHelper() throws Exception {
+        final CrawlerEventHelper eventHelper = registerCrawlerEventHelper();
+        final WebFsIndexHelper webFsIndexHelper = new WebFsIndexHelper();
+        final Crawler crawler = createCrawler("awaitCrawlerEvent1", 1);
+        final long eventCount = webFsIndexHelper.getCrawlerEventCount();
+        final Thread crawlerThread = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (final InterruptedException e) {
+                // ignore
+            }
+            eventHelper.notifyCrawlerThreadFinished("awaitCrawlerEvent1");
+        });
+        crawlerThread.start();
+        final long startTime = System.currentTimeMillis();
+        webFsIndexHelper.awaitCrawlerEvent(eventCount, 10000L);
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+        assertTrue(webFsIndexHelper.isCrawlerFinished(crawler));
+        crawlerThread.join();
+    }
+
+    public void test_crawlFiles() throws Exception {
+        ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Integer getIndexerWebfsUpdateIntervalAsInteger() {
+                return (int) POLLING_INTERVAL;
+            }
+
+            @Override
+            public Integer getIndexerWebfsUpdateMinIntervalAsInteger() {
+                return 100;
+            }
+
+            @Override
+            public Integer getIndexerWebfsCommitMarginTimeAsInteger() {
+                return 0;
+            }
+
+            @Override
+            public int getCrawlingThreadCount() {
+                return 1;
+            }
+        });
+        registerCrawlerEventHelper();
+        registerComponent(SystemHelper.class, "systemHelper");
+        registerComponent(IntervalControlHelper.class, "intervalControlHelper");
+
+        final Path rootPath = createFileTree();
+        try {
+            final List<Path> pathList;
+            try (Stream<Path> stream = Files.walk(rootPath)) {
+                pathList = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            final StubDataService dataService = new StubDataService();
+            final StubIndexUpdater indexUpdater = new StubIndexUpdater(dataService);
+            final WebFsIndexHelper webFsIndexHelper = new WebFsIndexHelper();
+            webFsIndexHelper.setCrawlingExecutionInterval(POLLING_INTERVAL);
+            webFsIndexHelper.crawlerList.add(createFileCrawler("crawlFiles1", 2, new ConcurrentLinkedQueue<>(pathList), dataService));
+            final List<String> crawlerStatusList = new ArrayList<>(Collections.singletonList(Constants.READY));
+            indexUpdater.setSessionIdList(Collections.singletonList("crawlFiles1"));
+            indexUpdater.setCrawlerList(new ArrayList<>(webFsIndexHelper.crawlerList));
+
+            // the same hand-off as WebFsIndexHelper.doCrawl
+            final long startTime = System.currentTimeMillis();
+            indexUpdater.start();
+            webFsIndexHelper.runCrawlers(crawlerStatusList, indexUpdater);
+            indexUpdater.setFinishCrawling(true);
+            indexUpdater.join(POLLING_INTERVAL * 3);
+            final long execTime = System.currentTimeMillis() - startTime;
+            logger.info("crawling time: " + execTime + "ms, polling interval: " + POLLING_INTERVAL + "ms");
+
+            assertFalse(indexUpdater.isAlive());
+            assertEquals(Constants.DONE, crawlerStatusList.get(0));
+            assertEquals(pathList.size(), indexUpdater.indexedUrlList.size());
+            assertEquals(pathList.stream().map(path -> path.toUri().toString()).collect(Collectors.toSet()), new HashSet<>(
+                    indexUpdater.indexedUrlList));
+            // with polling, the crawl loop alone waits for one interval
+            assertTrue(execTime < POLLING_INTERVAL / 2);
+        } finally {
+            try (Stream<Path> stream = Files.walk(rootPath)) {
+                stream.sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private Path createFileTree() throws IOException {
+        final Path rootPath = Files.createTempDirectory("fess_crawler_event");
+        for (int i = 0; i < 4; i++) {
+            final Path dirPath = Files.createDirectory(rootPath.resolve("dir" + i));
+            for (int j = 0; j < 5; j++) {
+                Files.write(dirPath.resolve("file" + j + ".txt"), ("test " + i + "-" + j).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return rootPath;
+    }
+
+    private CrawlerEventHelper registerCrawlerEventHelper() {
+        registerComponent(CrawlerEventHelper.class, "crawlerEventHelper");
+        return ComponentUtil.getCrawlerEventHelper();
+    }
+
+    private void registerComponent(final Class<?> componentClass, final String componentName) {
+        final LaContainer container = SingletonLaContainerFactory.getContainer();
+        if (!container.hasComponentDef(componentName)) {
+            container.register(componentClass, componentName);
+        }
+    }
+
+    /**
+     * Creates a crawler whose threads read the files, store access results and fire the events as FessCrawlerThread does.
+     */
+    private Crawler createFileCrawler(final String sessionId, final int numOfThread, final Queue<Path> pathQueue,
+            final StubDataService dataService) {
+        final CrawlerContext crawlerContext = new CrawlerContext();
+        crawlerContext.setSessionId(sessionId);
+        crawlerContext.setNumOfThread(numOfThread);
+        return new Crawler() {
+            private Thread parentThread;
+
+            @Override
+            public CrawlerContext getCrawlerContext() {
+                return crawlerContext;
+            }
+
+            @Override
+            public String execute() {
+                parentThread = new Thread(() -> {
+                    final List<Thread> threadList = new ArrayList<>();
+                    for (int i = 0; i < numOfThread; i++) {
+                        final Thread thread = new Thread(() -> crawlFiles(sessionId, pathQueue, dataService), "CrawlerThread-" + i);
+                        thread.start();
+                        threadList.add(thread);
+                    }
+                    for (final Thread thread : threadList) {
+                        try {
+                            thread.join();
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    crawlerContext.setStatus(CrawlerStatus.DONE);
+                }, "Crawler-" + sessionId);
+                parentThread.start();
+                return sessionId;
+            }
+
+            @Override
+            public void awaitTermination() {
+                awaitTermination(0);
+            }
+
+            @Override
+            public void awaitTermination(final long millis) {
+                try {
+                    parentThread.join(millis);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private void crawlFiles(final String sessionId, final Queue<Path> pathQueue, final StubDataService dataService) {
+        final CrawlerEventHelper eventHelper = ComponentUtil.getCrawlerEventHelper();
+        try {
+            Path path;
+            while ((path = pathQueue.poll()) != null) {
+                final EsAccessResult accessResult = new EsAccessResult();
+                accessResult.setSessionId(sessionId);
+                accessResult.setUrl(path.toUri().toString());
+                accessResult.setHttpStatusCode(200);
+                accessResult.setContentLength((long) Files.readAllBytes(path).length);
+                accessResult.setCreateTime(System.currentTimeMillis());
+                dataService.add(accessResult);
+                // FessCrawlerThread.processResponse
+                eventHelper.notifyAccessResultUpdated();
+            }
+        } catch (final IOException e) {
+            logger.warn("Failed to crawl files.", e);
+        } finally {
+            // FessCrawlerThread.run
+            eventHelper.notifyCrawlerThreadFinished(sessionId);
+        }
+    }
+
+    private Crawler createCrawler(final String sessionId, final int numOfThread) {
+        final CrawlerContext crawlerContext = new CrawlerContext();
+        crawlerContext.setSessionId(sessionId);
+        crawlerContext.setNumOfThread(numOfThread);
+        return new Crawler() {
+            @Override
+            public CrawlerContext getCrawlerContext() {
+                return crawlerContext;
+            }
+        };
+    }
+
+    private static class StubDataService extends EsDataService {
+        private final List<EsAccessResult> accessResultList = new ArrayList<>();
+
+        synchronized void add(final EsAccessResult accessResult) {
+            accessResultList.add(accessResult);
+        }
+
+        @Override
+        public synchronized List<EsAccessResult> getAccessResultList(final Consumer<SearchRequestBuilder> callback) {
+            final EsResultList<EsAccessResult> resultList = new EsResultList<>();
+            resultList.addAll(accessResultList);
+            resultList.setTotalHits(accessResultList.size());
+            return resultList;
+        }
+
+        @Override
+        public synchronized void update(final List<EsAccessResult> list) {
+            accessResultList.removeAll(list);
+        }
+
+        @Override
+        public void delete(final String sessionId) {
+            // nothing
+        }
+    }
+
+    private static class StubIndexUpdater extends IndexUpdater {
+        private final List<String> indexedUrlList = Collections.synchronizedList(new ArrayList<>());
+
+        StubIndexUpdater(final StubDataService dataService) {
+            this.dataService = dataService;
+            urlFilterService = new EsUrlFilterService() {
+                @Override
+                public void delete(final String sessionId) {
+                    // nothing
+                }
+            };
+            urlQueueService = new EsUrlQueueService() {
+                @Override
+                public void delete(final String sessionId) {
+                    // nothing
+                }
+            };
+            systemHelper = new SystemHelper();
+        }
+
+        @Override
+        protected List<IndexingTarget> transformAccessResults(final List<EsAccessResult> arList) {
+            arList.forEach(accessResult -> indexedUrlList.add(accessResult.getUrl()));
+            return new ArrayList<>();
+        }
+    }
+
+    private static class TestIndexUpdater extends IndexUpdater {
+        long getEventCount() {
+            return getAccessResultEventCount();
+        }
+
+        boolean await(final long eventCount, final long minInterval, final long interval) {
+            return awaitAccessResults(eventCount, minInterval, interval);
+        }
+    }
+}
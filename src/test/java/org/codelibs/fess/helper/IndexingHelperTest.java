@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.codelibs.fess.es.client.FessEsClient;
+import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.codelibs.fess.util.ComponentUtil;
+import org.codelibs.fess.util.DocList;
+
+public class IndexingHelperTest extends UnitFessTestCase {
+
+    private IndexingHelper indexingHelper;
+
+    private final AtomicInteger sendingCount = new AtomicInteger();
+
+    private final AtomicInteger maxSendingCount = new AtomicInteger();
+
+    private CountDownLatch sendingLatch;
+
+    private FessEsClient fessEsClient;
+
+    private final List<List<String>> requestedIdList = new ArrayList<>();
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean isResultCollapsed() {
+                return false;
+            }
+
+            @Override
+            public boolean isThumbnailCrawlerEnabled() {
+                return false;
+            }
+        });
+        indexingHelper = new IndexingHelper() {
+            @Override
+            protected List<String> getOldDocumentIdList(final FessEsClient fessEsClient, final DocList docList) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> getDocumentMapByIds(final FessEsClient fessEsClient, final Collection<String> ids,
+                    final String[] fields) {
+                requestedIdList.add(new ArrayList<>(ids));
+                final Map<String, Map<String, Object>> docMap = new HashMap<>();
+                ids.stream().filter(id -> !id.startsWith("new")).forEach(id -> docMap.put(id, Collections.singletonMap("_id", id)));
+                return docMap;
+            }
+        };
+        fessEsClient = new FessEsClient() {
+            @Override
+            public void addAll(final String index, final String type, final List<Map<String, Object>> docList,
+                    final Collection<String> deleteIdList) {
+                final int count = sendingCount.incrementAndGet();
+                maxSendingCount.accumulateAndGet(count, Math::max);
+                try {
+                    sendingLatch.countDown();
+                    // wait for the other lane
+                    sendingLatch.await(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    sendingCount.decrementAndGet();
+                }
+            }
+        };
+    }
+
+    public void test_sendDocuments_concurrent() throws Exception {
+        sendingLatch = new CountDownLatch(2);
+        final Thread lane1 = new Thread(() -> indexingHelper.sendDocuments(fessEsClient, createDocList("http://a.example.com/")));
+        final Thread lane2 = new Thread(() -> indexingHelper.sendDocuments(fessEsClient, createDocList("http://b.example.com/")));
+        lane1.start();
+        lane2.start();
+        lane1.join();
+        lane2.join();
+        assertEquals(2, maxSendingCount.get());
+        assertTrue(indexingHelper.sendingUrlSet.isEmpty());
+    }
+
+    public void test_sendDocuments_sameUrl() throws Exception {
+        sendingLatch = new CountDownLatch(2);
+        final Thread lane1 = new Thread(() -> indexingHelper.sendDocuments(fessEsClient, createDocList("http://a.example.com/")));
+        final Thread lane2 = new Thread(() -> indexingHelper.sendDocuments(fessEsClient, createDocList("http://a.example.com/")));
+        lane1.start();
+        lane2.start();
+        lane1.join();
+        lane2.join();
+        assertEquals(1, maxSendingCount.get());
+        assertTrue(indexingHelper.sendingUrlSet.isEmpty());
+    }
+
+    public void test_getPrefetchedDocument() {
+        indexingHelper.init();
+        indexingHelper.prefetchSize = 3;
+        indexingHelper.prefetchIdQueue = new LinkedBlockingDeque<>(3);
+        indexingHelper.addPrefetchDocumentId("id2");
+        indexingHelper.addPrefetchDocumentId("new3");
+        indexingHelper.addPrefetchDocumentId("id2");
+        indexingHelper.addPrefetchDocumentId("id4");
+        // the window is full
+        indexingHelper.addPrefetchDocumentId("id5");
+
+        assertEquals("id1", indexingHelper.getPrefetchedDocument(fessEsClient, "id1", null).get("_id"));
+        assertEquals("[[id1, id2, new3]]", requestedIdList.toString());
+        assertEquals("[id4]", indexingHelper.prefetchIdQueue.toString());
+
+        assertEquals("id2", indexingHelper.getPrefetchedDocument(fessEsClient, "id2", null).get("_id"));
+        assertNull(indexingHelper.getPrefetchedDocument(fessEsClient, "new3", null));
+        assertEquals(1, requestedIdList.size());
+
+        assertEquals("id4", indexingHelper.getPrefetchedDocument(fessEsClient, "id4", null).get("_id"));
+        assertEquals("[[id1, id2, new3], [id4]]", requestedIdList.toString());
+        assertTrue(indexingHelper.prefetchIdQueue.isEmpty());
+    }
+
+    private DocList createDocList(final String url) {
+        final FessConfig fessConfig = ComponentUtil.getFessConfig();
+        final DocList docList = new DocList();
+        final Map<String, Object> doc = new HashMap<>();
+        doc.put(fessConfig.getIndexFieldUrl(), url);
+        doc.put(fessConfig.getIndexFieldId(), url);
+        docList.add(doc);
+        return docList;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.codelibs.fess.helper.LabelTypeHelper.LabelTypeMatcher;
+import org.codelibs.fess.helper.LabelTypeHelper.LabelTypePattern;
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.codelibs.fess.util.ComponentUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class LabelTypeHelperTest extends UnitFessTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(LabelTypeHelperTest.class);
+
+    private LabelTypeHelper labelTypeHelper;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        ComponentUtil.register(new SystemHelper(), "systemHelper");
+        labelTypeHelper = new LabelTypeHelper();
+    }
+
+    public void test_getLiteralPrefix() {
+        assertEquals("http://www", LabelTypeHelper.getLiteralPrefix("http://www.example.com/.*"));
+        assertEquals("http://www.example.com/", LabelTypeHelper.getLiteralPrefix("http://www\\.example\\.com/.*"));
+        assertEquals("http", LabelTypeHelper.getLiteralPrefix("^https?://.*"));
+        assertEquals("file:/home/", LabelTypeHelper.getLiteralPrefix("file:/home/[a-z]+/.*"));
+        assertEquals("abc", LabelTypeHelper.getLiteralPrefix("abc(def)?.*"));
+        assertEquals("x", LabelTypeHelper.getLiteralPrefix("x\\d+"));
+        assertEquals("", LabelTypeHelper.getLiteralPrefix("a.*|b.*"));
+        assertEquals("", LabelTypeHelper.getLiteralPrefix("(a|b).*"));
+        assertEquals("", LabelTypeHelper.getLiteralPrefix(".*\\Qabc\\E.*"));
+        assertEquals("", LabelTypeHelper.getLiteralPrefix("a{2}b"));
+    }
+
+    public void test_getMatchedLabelValueSet() {
+        final List<LabelTypePattern> list = new ArrayList<>();
+        list.add(new LabelTypePattern("a", "http://www\\.example\\.com/.*", null));
+        list.add(new LabelTypePattern("b", "http://www\\.example\\.com/docs/.*", "http://www\\.example\\.com/docs/private/.*"));
+        list.add(new LabelTypePattern("c", null, "http://www\\.example\\.com/.*"));
+        list.add(new LabelTypePattern("d", "contains:/docs/", null));
+        list.add(new LabelTypePattern("e", "https?://www\\.example\\.org/.*\nfile:/home/.*", null));
+        labelTypeHelper.labelTypePatternList = list;
+
+        assertLabels(labelTypeHelper.getMatchedLabelValueSet("http://www.example.com/"), "a");
+        assertLabels(labelTypeHelper.getMatchedLabelValueSet("http://www.example.com/docs/index.html"), "a", "b", "d");
+        assertLabels(labelTypeHelper.getMatchedLabelValueSet("http://www.example.com/docs/private/index.html"), "a", "d");
+        assertLabels(labelTypeHelper.getMatchedLabelValueSet("https://www.example.org/docs/"), "c", "d", "e");
+        assertLabels(labelTypeHelper.getMatchedLabelValueSet("file:/home/user/a.txt"), "c", "e");
+        assertLabels(labelTypeHelper.getMatchedLabelValueSet("smb://server/a.txt"), "c");
+    }
+
+    public void test_getMatchedLabelValueSet_benchmark() {
+        final List<LabelTypePattern> list = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            switch (i % 3) {
+            case 0:
+                list.add(new LabelTypePattern("host" + i, "https?://host" + i + "\\.example\\.com/.*", null));
+                break;
+            case 1:
+                list.add(new LabelTypePattern("dir" + i, "http://www\\.example\\.com/dir" + i + "/.*",
+                        "http://www\\.example\\.com/dir" + i + "/private/.*"));
+                break;
+            default:
+                list.add(new LabelTypePattern("file" + i, "file:/share/" + i + "/.*\nsmb://server/" + i + "/.*", null));
+                break;
+            }
+        }
+        list.add(new LabelTypePattern("pdf", ".*\\.pdf", null));
+        final List<String> pathList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pathList.add("http://host" + (i % 350) + ".example.com/index.html");
+            pathList.add("http://www.example.com/dir" + (i % 350) + "/a.pdf");
+            pathList.add("smb://server/" + (i % 350) + "/b.txt");
+        }
+
+        final LabelTypeMatcher matcher = new LabelTypeMatcher(list);
+        for (final String path : pathList) {
+            assertEquals(path, linearMatch(list, path), matcher.match(path));
+        }
+
+        final int loop = 5;
+        long linearTime = 0;
+        long matcherTime = 0;
+        for (int n = 0; n < loop; n++) {
+            long start = System.nanoTime();
+            for (final String path : pathList) {
+                linearMatch(list, path);
+            }
+            linearTime += System.nanoTime() - start;
+            start = System.nanoTime();
+            for (final String path : pathList) {
+                matcher.match(path);
+            }
+            matcherTime += System.nanoTime() - start;
+        }
+        logger.info("labels: " + list.size() + ", paths: " + pathList.size() + ", linear scan: " + linearTime / loop / 1000000
+                + "ms, matcher: " + matcherTime / loop / 1000000 + "ms");
+    }
+
+    private Set<String> linearMatch(final List<LabelTypePattern> list, final String path) {
+        final Set<String> valueSet = new HashSet<>();
+        for (final LabelTypePattern pattern : list) {
+            if (pattern.match(path)) {
+                valueSet.add(pattern.getValue());
+            }
+        }
+        return valueSet;
+    }
+
+    private void assertLabels(final Set<String> actual, final String... expected) {
+        assertEquals(expected.length, actual.size());
+        for (final String value : expected) {
+            assertTrue(value + " in " + actual, actual.contains(value));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+import org.codelibs.fess.helper.MetricsHelper.Counter;
+import org.codelibs.fess.helper.MetricsHelper.Histogram;
+import org.codelibs.fess.unit.UnitFessTestCase;
+
+public class MetricsHelperTest extends UnitFessTestCase {
+
+    private MetricsHelper metricsHelper;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        metricsHelper = new MetricsHelper();
+    }
+
+    public void test_counter() throws Exception {
+        final Counter counter = metricsHelper.counter("test_total", "Test counter.");
+        assertSame(counter, metricsHelper.counter("test_total", "Test counter."));
+        counter.inc();
+        counter.add(2);
+        assertEquals(3, counter.get());
+
+        final StringWriter writer = new StringWriter();
+        metricsHelper.write(writer);
+        assertEquals("# HELP test_total Test counter.\n# TYPE test_total counter\ntest_total 3\n", writer.toString());
+    }
+
+    public void test_histogram() throws Exception {
+        final Histogram histogram = metricsHelper.histogram("test_duration", "Test histogram.", new double[] { 10, 100 });
+        histogram.observe(5);
+        histogram.observe(10);
+        histogram.observe(50);
+        histogram.observe(500);
+        assertEquals(4, histogram.getCount());
+        assertEquals(565.0, histogram.getSum());
+
+        final StringWriter writer = new StringWriter();
+        metricsHelper.write(writer);
+        assertEquals("# HELP test_duration Test histogram.\n" //
+                + "# TYPE test_duration histogram\n" //
+                + "test_duration_bucket{le=\"10\"} 2\n" //
+                + "test_duration_bucket{le=\"100\"} 3\n" //
+                + "test_duration_bucket{le=\"+Inf\"} 4\n" //
+                + "test_duration_sum 565\n" //
+                + "test_duration_count 4\n", writer.toString());
+    }
+
+    public void test_gauge() throws Exception {
+        metricsHelper.gauge("test_size", "Test gauge.", () -> 1.5);
+        metricsHelper.gauge("test_error", "Test gauge.", () -> {
+            throw new IllegalStateException();
+        });
+
+        final Map<String, Object> valueMap = metricsHelper.getValueMap();
+        assertEquals(1.5, valueMap.get("test_size"));
+        assertTrue(Double.isNaN((Double) valueMap.get("test_error")));
+
+        final StringWriter writer = new StringWriter();
+        metricsHelper.write(writer);
+        assertTrue(writer.toString().contains("test_size 1.5\n"));
+        assertTrue(writer.toString().contains("test_error NaN\n"));
+    }
+
+    public void test_counter_supplier() throws Exception {
+        metricsHelper.counter("test_dropped_total", "Test counter.", () -> 3L);
+
+        assertEquals(3L, metricsHelper.getValueMap().get("test_dropped_total"));
+
+        final StringWriter writer = new StringWriter();
+        metricsHelper.write(writer);
+        assertEquals("# HELP test_dropped_total Test counter.\n" //
+                + "# TYPE test_dropped_total counter\n" //
+                + "test_dropped_total 3\n", writer.toString());
+    }
+
+    public void test_init_crawler() throws Exception {
+        metricsHelper.init();
+        metricsHelper.observeCrawlerFetch(30);
+        metricsHelper.observeCrawlerTransform(5);
+        metricsHelper.observeIndexing(2, 100, 20);
+
+        final Map<String, Object> valueMap = metricsHelper.getValueMap();
+        assertEquals(1L, valueMap.get("fess_crawler_fetch_duration_milliseconds_count"));
+        assertEquals(1L, valueMap.get("fess_crawler_transform_duration_milliseconds_count"));
+        assertEquals(2L, valueMap.get("fess_indexing_documents_total"));
+        assertEquals(100L, valueMap.get("fess_indexing_content_bytes_total"));
+        assertEquals(0L, valueMap.get("fess_query_parser_cache_hits_total"));
+        assertEquals(0L, valueMap.get("fess_search_result_cache_misses_total"));
+
+        final StringWriter writer = new StringWriter();
+        metricsHelper.write(writer);
+        assertTrue(writer.toString().contains("# TYPE fess_groovy_script_cache_hits_total counter\n"));
+        assertTrue(writer.toString().contains("# TYPE fess_query_parser_cache_misses_total counter\n"));
+    }
+}
@@ -82,4 +82,34 @@ public class PathMappingHelperTest extends UnitFessTestCase {
         text = "aaa\"file:///home/user/\"bbb";
         assertEquals("aaa\"http://localhost/user/\"bbb", pathMappingHelper.replaceUrls(text));
     }
+
+    public void test_replaceUrls_multiple() {
+        final List<PathMapping> pathMappingList = new ArrayList<PathMapping>();
+        PathMapping pathMapping = new PathMapping();
+        pathMapping.setRegex("file:///home/");
+        pathMapping.setReplacement("http://localhost/");
+        pathMappingList.add(pathMapping);
+        pathMapping = new PathMapping();
+        pathMapping.setRegex("smb://server/share/");
+        pathMapping.setReplacement("http://server/");
+        pathMappingList.add(pathMapping);
+        pathMapping = new PathMapping();
+        pathMapping.setRegex("\\.txt");
+        pathMapping.setReplacement(".html");
+        pathMappingList.add(pathMapping);
+
+        pathMappingHelper.cachedPathMappingList = pathMappingList;
+
+        String text = "<a href=\"file:///home/a.txt\">a</a><img src=\"smb://server/share/b.png\">";
+        assertEquals("<a href=\"http://localhost/a.html\">a</a><img src=\"http://server/b.png\">", pathMappingHelper.replaceUrls(text));
+
+        text = "\"a\" file:///home/user/ \"b\"";
+        assertEquals("\"a\" http://localhost/user/ \"b\"", pathMappingHelper.replaceUrls(text));
+
+        text = "file:///home/user/";
+        assertEquals("file:///home/user/", pathMappingHelper.replaceUrls(text));
+
+        text = "\"file:///home/user/";
+        assertEquals("\"file:///home/user/", pathMappingHelper.replaceUrls(text));
+    }
 }
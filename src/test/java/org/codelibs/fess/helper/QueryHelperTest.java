@@ -16,6 +16,8 @@
 package org.codelibs.fess.helper;
 
 import java.io.File;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.queryparser.classic.QueryParser;
@@ -37,14 +39,17 @@ public class QueryHelperTest extends UnitFessTestCase {
 
     private QueryHelper queryHelper;
 
+    private QueryParser.Operator defaultOperator;
+
     @Override
     public void setUp() throws Exception {
         super.setUp();
+        defaultOperator = QueryParser.Operator.AND;
         queryHelper = new QueryHelper() {
             protected QueryParser getQueryParser() {
                 ExtendableQueryParser queryParser = new ExtendableQueryParser(Constants.DEFAULT_FIELD, new WhitespaceAnalyzer());
                 queryParser.setAllowLeadingWildcard(true);
-                queryParser.setDefaultOperator(QueryParser.Operator.AND);
+                queryParser.setDefaultOperator(defaultOperator);
                 return queryParser;
             }
         };
@@ -138,6 +143,61 @@ public class QueryHelperTest extends UnitFessTestCase {
                 buildQuery("allinurl: aaa bbb").toString().replaceAll("\\s", ""));
     }
 
+    public void test_build_parsedQueryCache() {
+        queryHelper.clearParsedQueryCache();
+        final String expected = buildQuery("QUERY1 QUERY2").toString();
+        assertEquals(1, queryHelper.getParsedQueryCacheStats().missCount());
+        assertEquals(expected, buildQuery("QUERY1 QUERY2").toString());
+        assertEquals(1, queryHelper.getParsedQueryCacheStats().hitCount());
+
+        final String title = buildQuery("allintitle:QUERY1").toString();
+        final String url = buildQuery("allinurl:QUERY1").toString();
+        assertFalse(title.equals(url));
+        assertEquals(1, queryHelper.getParsedQueryCacheStats().hitCount());
+        assertEquals(title, buildQuery("allintitle:QUERY1").toString());
+        assertEquals(2, queryHelper.getParsedQueryCacheStats().hitCount());
+    }
+
+    public void test_updateQueryParser() {
+        queryHelper.clearParsedQueryCache();
+        final String andQuery = buildQuery("QUERY1 QUERY2").toString();
+        assertEquals(1, queryHelper.getParsedQueryCacheStats().missCount());
+
+        queryHelper.updateQueryParser();
+        assertEquals(andQuery, buildQuery("QUERY1 QUERY2").toString());
+        assertEquals(1, queryHelper.getParsedQueryCacheStats().hitCount());
+
+        defaultOperator = QueryParser.Operator.OR;
+        queryHelper.updateQueryParser();
+        final String orQuery = buildQuery("QUERY1 QUERY2").toString();
+        assertFalse(andQuery.equals(orQuery));
+        assertEquals(2, queryHelper.getParsedQueryCacheStats().missCount());
+        assertEquals(1, queryHelper.getParsedQueryCacheStats().hitCount());
+    }
+
+    public void test_buildRoleFilter() {
+        final Set<String> roleSet1 = new LinkedHashSet<>();
+        roleSet1.add("Rguest");
+        roleSet1.add("Gadmin");
+        final Set<String> roleSet2 = new LinkedHashSet<>();
+        roleSet2.add("Gadmin");
+        roleSet2.add("Rguest");
+
+        final QueryBuilder roleFilter = queryHelper.buildRoleFilter(roleSet1);
+        assertEquals(QueryBuilders.termsQuery("role", "Gadmin", "Rguest").toString(), roleFilter.toString());
+        final QueryBuilder cachedRoleFilter = queryHelper.buildRoleFilter(roleSet2);
+        assertNotSame(roleFilter, cachedRoleFilter);
+        assertEquals(roleFilter.toString(), cachedRoleFilter.toString());
+        assertEquals(1, queryHelper.roleFilterCache.size());
+
+        // the cache key is a copy of the role set
+        roleSet1.add("Guser");
+        assertEquals(QueryBuilders.termsQuery("role", "Gadmin", "Guser", "Rguest").toString(), queryHelper.buildRoleFilter(roleSet1)
+                .toString());
+        assertEquals(roleFilter.toString(), queryHelper.buildRoleFilter(roleSet2).toString());
+        assertEquals(2, queryHelper.roleFilterCache.size());
+    }
+
     private void assertQueryBuilder(String field, String value, Class<?> clazz) {
         QueryBuilder queryBuilder = queryHelper.buildMatchPhraseQuery(field, value);
         assertEquals(clazz, queryBuilder.getClass());
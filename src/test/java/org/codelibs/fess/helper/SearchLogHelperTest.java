@@ -0,0 +1,295 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.helper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.codelibs.fess.app.service.SearchService;
+import org.codelibs.fess.entity.SearchRequestParams.SearchRequestType;
+import org.codelibs.fess.es.log.allcommon.EsAbstractEntity;
+import org.codelibs.fess.es.log.cbean.SearchLogCB;
+import org.codelibs.fess.es.log.cbean.cq.SearchLogCQ;
+import org.codelibs.fess.es.log.cbean.cq.bs.BsSearchLogCQ;
+import org.codelibs.fess.es.log.exbhv.ClickLogBhv;
+import org.codelibs.fess.es.log.exbhv.SearchLogBhv;
+import org.codelibs.fess.es.log.exentity.ClickLog;
+import org.codelibs.fess.es.log.exentity.SearchLog;
+import org.codelibs.fess.mylasta.action.FessUserBean;
+import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.codelibs.fess.util.BoundedLogQueue;
+import org.codelibs.fess.util.BoundedLogQueue.OverflowPolicy;
+import org.codelibs.fess.util.ComponentUtil;
+import org.dbflute.bhv.readable.CBCall;
+import org.dbflute.cbean.result.ListResultBean;
+import org.dbflute.optional.OptionalThing;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
+
+import com.google.common.cache.CacheBuilder;
+
+public class SearchLogHelperTest extends UnitFessTestCase {
+
+    private final List<String> processedList = new ArrayList<>();
+
+    private final List<String> replayedList = new ArrayList<>();
+
+    private StubSearchLogBhv searchLogBhv;
+
+    private StubClickLogBhv clickLogBhv;
+
+    private StubSearchService searchService;
+
+    private SearchLogHelper searchLogHelper;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        processedList.clear();
+        replayedList.clear();
+        searchLogHelper = new SearchLogHelper();
+        searchLogHelper.storedQueryIdCache = CacheBuilder.newBuilder().maximumSize(100).build();
+
+        ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Integer getLoggingClickLogBatchSizeAsInteger() {
+                return 2;
+            }
+
+            @Override
+            public Integer getPagingSearchPageMaxSizeAsInteger() {
+                return 100;
+            }
+
+            @Override
+            public String getIndexFieldDocId() {
+                return "doc_id";
+            }
+        });
+        searchLogBhv = getOrRegister(StubSearchLogBhv.class, StubSearchLogBhv::new);
+        searchLogBhv.requestedIdList.clear();
+        searchLogBhv.storedQueryIdSet.clear();
+        searchLogBhv.failing = false;
+        clickLogBhv = getOrRegister(StubClickLogBhv.class, StubClickLogBhv::new);
+        clickLogBhv.insertedList.clear();
+        searchService = getOrRegister(StubSearchService.class, StubSearchService::new);
+        searchService.requestedDocIdList.clear();
+    }
+
+    public void test_processClickLogQueue() {
+        searchLogHelper.storedQueryIdCache.put("q1", Boolean.TRUE);
+        searchLogBhv.storedQueryIdSet.addAll(Arrays.asList("q2", "q3", "q4"));
+        final Queue<ClickLog> queue = new ArrayDeque<>();
+        queue.add(createClickLog("q1", "d1"));
+        queue.add(createClickLog("q2", "d2"));
+        queue.add(createClickLog("q2", "d2"));
+        queue.add(createClickLog("q3", "d3"));
+        queue.add(createClickLog("q4", "d4"));
+        queue.add(createClickLog("q5", "d5"));
+
+        assertTrue(searchLogHelper.processClickLogQueue(queue));
+
+        // q1 is resolved by the cache, and the rest is split by logging.click.log.batch.size
+        assertEquals("[[q2, q3], [q4, q5]]", searchLogBhv.requestedIdList.toString());
+        assertEquals(5, clickLogBhv.insertedList.size());
+        assertEquals(2, searchService.requestedDocIdList.size());
+        final Set<String> docIdSet = new HashSet<>();
+        searchService.requestedDocIdList.forEach(idList -> {
+            assertEquals(2, idList.size());
+            docIdSet.addAll(idList);
+        });
+        assertEquals(new HashSet<>(Arrays.asList("d1", "d2", "d3", "d4")), docIdSet);
+    }
+
+    public void test_processClickLogQueue_cached() {
+        searchLogHelper.storedQueryIdCache.put("q1", Boolean.TRUE);
+        final Queue<ClickLog> queue = new ArrayDeque<>();
+        queue.add(createClickLog("q1", "d1"));
+
+        assertTrue(searchLogHelper.processClickLogQueue(queue));
+        assertTrue(searchLogBhv.requestedIdList.isEmpty());
+        assertEquals(1, clickLogBhv.insertedList.size());
+        assertEquals("[[d1]]", searchService.requestedDocIdList.toString());
+    }
+
+    public void test_processClickLogQueue_failure() {
+        searchLogBhv.failing = true;
+        final Queue<ClickLog> queue = new ArrayDeque<>();
+        queue.add(createClickLog("q1", "d1"));
+        queue.add(createClickLog("q2", "d2"));
+        queue.add(createClickLog("q3", "d3"));
+
+        assertFalse(searchLogHelper.processClickLogQueue(queue));
+        assertEquals("[[q1, q2]]", searchLogBhv.requestedIdList.toString());
+        assertTrue(clickLogBhv.insertedList.isEmpty());
+        assertTrue(searchService.requestedDocIdList.isEmpty());
+        assertEquals(3, queue.size());
+    }
+
+    public void test_storeSearchLog_spill() {
+        searchLogHelper = createFailingSearchLogHelper();
+        final List<SearchLog> spilledSearchLogList = new ArrayList<>();
+        final List<ClickLog> spilledClickLogList = new ArrayList<>();
+        searchLogHelper.searchLogQueue = new BoundedLogQueue<>(10, OverflowPolicy.SPILL, 1, spilledSearchLogList::add);
+        searchLogHelper.clickLogQueue = new BoundedLogQueue<>(10, OverflowPolicy.SPILL, 1, spilledClickLogList::add);
+        searchLogHelper.searchLogQueue.offer(new SearchLog());
+        searchLogHelper.searchLogQueue.offer(new SearchLog());
+        searchLogHelper.clickLogQueue.offer(new ClickLog());
+
+        searchLogHelper.storeSearchLog();
+
+        assertEquals("[search:2, click:1]", processedList.toString());
+        assertEquals("[search_log.spill, click_log.spill]", replayedList.toString());
+        assertEquals(2, spilledSearchLogList.size());
+        assertEquals(1, spilledClickLogList.size());
+        assertTrue(searchLogHelper.searchLogQueue.isEmpty());
+        assertTrue(searchLogHelper.clickLogQueue.isEmpty());
+        assertEquals(3, searchLogHelper.getSpilledLogCount());
+        assertEquals(0, searchLogHelper.getDroppedLogCount());
+    }
+
+    public void test_storeSearchLog_retry() {
+        searchLogHelper = createFailingSearchLogHelper();
+        searchLogHelper.searchLogQueue = new BoundedLogQueue<>(10, OverflowPolicy.DROP_OLDEST, 1, null);
+        searchLogHelper.clickLogQueue = new BoundedLogQueue<>(10, OverflowPolicy.DROP_OLDEST, 1, null);
+        searchLogHelper.searchLogQueue.offer(new SearchLog());
+        searchLogHelper.clickLogQueue.offer(new ClickLog());
+        searchLogHelper.clickLogQueue.offer(new ClickLog());
+
+        searchLogHelper.storeSearchLog();
+
+        assertEquals("[search:1, click:2]", processedList.toString());
+        assertEquals(1, searchLogHelper.getSearchLogQueueSize());
+        assertEquals(2, searchLogHelper.getClickLogQueueSize());
+        assertEquals(0, searchLogHelper.getDroppedLogCount());
+    }
+
+    private SearchLogHelper createFailingSearchLogHelper() {
+        return new SearchLogHelper() {
+            @Override
+            protected void processSearchLogQueue(final Queue<SearchLog> queue) {
+                processedList.add("search:" + queue.size());
+                throw new IllegalStateException("unavailable");
+            }
+
+            @Override
+            protected boolean processClickLogQueue(final Queue<ClickLog> queue) {
+                processedList.add("click:" + queue.size());
+                return false;
+            }
+
+            @Override
+            protected <T extends EsAbstractEntity> void replaySpilledLogs(final String name,
+                    final Function<Map<String, Object>, T> converter, final Predicate<Queue<T>> processor) {
+                replayedList.add(name);
+            }
+        };
+    }
+
+    private ClickLog createClickLog(final String queryId, final String docId) {
+        final ClickLog clickLog = new ClickLog();
+        clickLog.setQueryId(queryId);
+        clickLog.setDocId(docId);
+        return clickLog;
+    }
+
+    private static <T> T getOrRegister(final Class<T> type, final Supplier<T> creator) {
+        final LaContainer container = SingletonLaContainerFactory.getContainer();
+        if (!container.hasComponentDef(type)) {
+            container.register(creator.get());
+        }
+        return container.getComponent(type);
+    }
+
+    public static class StubSearchLogBhv extends SearchLogBhv {
+        protected final List<List<String>> requestedIdList = new ArrayList<>();
+
+        protected final Set<String> storedQueryIdSet = new HashSet<>();
+
+        protected boolean failing;
+
+        @Override
+        public ListResultBean<SearchLog> selectList(final CBCall<SearchLogCB> cbLambda) {
+            final List<String> idList = new ArrayList<>();
+            cbLambda.callback(new SearchLogCB() {
+                @Override
+                protected BsSearchLogCQ createLocalCQ() {
+                    return new SearchLogCQ() {
+                        @Override
+                        public void setQueryId_InScope(final Collection<String> queryIdList) {
+                            idList.addAll(queryIdList);
+                        }
+                    };
+                }
+            });
+            requestedIdList.add(idList);
+            if (failing) {
+                throw new IllegalStateException("unavailable");
+            }
+            final ListResultBean<SearchLog> result = new ListResultBean<>();
+            result.setSelectedList(idList.stream().filter(storedQueryIdSet::contains).map(queryId -> {
+                final SearchLog searchLog = new SearchLog();
+                searchLog.setQueryId(queryId);
+                return searchLog;
+            }).collect(Collectors.toList()));
+            return result;
+        }
+    }
+
+    public static class StubClickLogBhv extends ClickLogBhv {
+        protected final List<ClickLog> insertedList = new ArrayList<>();
+
+        @Override
+        public int[] batchInsert(final List<ClickLog> list) {
+            insertedList.addAll(list);
+            return new int[list.size()];
+        }
+    }
+
+    public static class StubSearchService extends SearchService {
+        protected final List<List<String>> requestedDocIdList = new ArrayList<>();
+
+        @Override
+        public boolean bulkUpdate(final Consumer<BulkRequestBuilder> consumer) {
+            consumer.accept(null);
+            return true;
+        }
+
+        @Override
+        public List<Map<String, Object>> getDocumentListByDocIds(final String[] docIds, final String[] fields,
+                final OptionalThing<FessUserBean> userBean, final SearchRequestType searchRequestType) {
+            requestedDocIdList.add(Arrays.asList(docIds));
+            return Collections.emptyList();
+        }
+    }
+}
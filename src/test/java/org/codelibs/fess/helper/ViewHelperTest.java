@@ -213,6 +213,26 @@ public class ViewHelperTest extends UnitFessTestCase {
         text = "abc on exy";
         queries = new String[] { "on" };
         assertEquals("abc <strong>on</strong> exy", viewHelper.replaceHighlightQueries(text, queries));
+
+        text = "abc strong def";
+        queries = new String[] { "def", "strong" };
+        assertEquals("abc <strong>strong</strong> <strong>def</strong>", viewHelper.replaceHighlightQueries(text, queries));
+
+        text = "a$1b";
+        queries = new String[] { "$1" };
+        assertEquals("a<strong>$1</strong>b", viewHelper.replaceHighlightQueries(text, queries));
+
+        text = "<a>123<b>456<c>";
+        queries = new String[] { "", "123", " " };
+        assertEquals("<a><strong>123</strong><b>456<c>", viewHelper.replaceHighlightQueries(text, queries));
+
+        text = "<a>123<b>456<c>";
+        queries = new String[] { "", " " };
+        assertEquals("<a>123<b>456<c>", viewHelper.replaceHighlightQueries(text, queries));
+
+        text = "<a>123<b>456<c>";
+        queries = new String[0];
+        assertEquals("<a>123<b>456<c>", viewHelper.replaceHighlightQueries(text, queries));
     }
 
     public void test_escapeHighlight() {
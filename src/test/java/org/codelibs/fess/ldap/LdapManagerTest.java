@@ -15,12 +15,43 @@
  */
 package org.codelibs.fess.ldap;
 
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.naming.directory.DirContext;
+
+import org.codelibs.fess.entity.FessUser;
+import org.codelibs.fess.helper.SystemHelper;
 import org.codelibs.fess.mylasta.direction.FessConfig;
 import org.codelibs.fess.unit.UnitFessTestCase;
 import org.codelibs.fess.util.ComponentUtil;
 
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSimpleBindRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+
 public class LdapManagerTest extends UnitFessTestCase {
 
+    private static final String BASE_DN = "dc=fess,dc=codelibs,dc=org";
+
+    private InMemoryDirectoryServer server;
+
+    private final AtomicInteger userSearchCount = new AtomicInteger();
+
+    private final AtomicInteger bindCount = new AtomicInteger();
+
+    @Override
+    public void tearDown() throws Exception {
+        if (server != null) {
+            server.shutDown(true);
+        }
+        super.tearDown();
+    }
+
     @SuppressWarnings("serial")
     public void test_getSearchRoleName() {
         ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
@@ -45,4 +76,177 @@ public class LdapManagerTest extends UnitFessTestCase {
         assertNull(ldapManager.getSearchRoleName("aaa"));
     }
 
+    public void test_getRoles_cache() throws Exception {
+        final LdapManager ldapManager = createLdapManager(0);
+
+        final List<String> expected = Arrays.asList("1taro", "2group1", "Rrole1");
+        for (int i = 0; i < 5; i++) {
+            final FessUser user = ldapManager.login("taro", "taro").get();
+            final String[] roles = ldapManager.getRoles((LdapUser) user, BASE_DN, "uid=%s");
+            assertEquals(expected, Arrays.asList(roles));
+        }
+        assertEquals(1, userSearchCount.get());
+
+        ldapManager.getRoles((LdapUser) ldapManager.login("hanako", "hanako").get(), BASE_DN, "uid=%s");
+        assertEquals(2, userSearchCount.get());
+
+        ldapManager.updateConfig();
+        ldapManager.getRoles((LdapUser) ldapManager.login("taro", "taro").get(), BASE_DN, "uid=%s");
+        assertEquals(3, userSearchCount.get());
+    }
+
+    public void test_getRoles_noCache() throws Exception {
+        final LdapManager ldapManager = createLdapManager(0);
+        ldapManager.roleCache = null;
+
+        for (int i = 0; i < 3; i++) {
+            ldapManager.getRoles((LdapUser) ldapManager.login("taro", "taro").get(), BASE_DN, "uid=%s");
+        }
+        assertEquals(3, userSearchCount.get());
+    }
+
+    public void test_contextPool() throws Exception {
+        final LdapManager ldapManager = createLdapManager(5);
+
+        for (int i = 0; i < 5; i++) {
+            final FessUser user = ldapManager.login("taro").get();
+            ldapManager.invalidateRoleCache();
+            assertEquals(3, ldapManager.getRoles((LdapUser) user, BASE_DN, "uid=%s").length);
+        }
+        assertEquals(5, userSearchCount.get());
+        assertEquals(1, bindCount.get());
+        assertEquals(1, ldapManager.contextPool.getIdleSize());
+
+        // contexts of users are not pooled
+        ldapManager.login("taro", "taro");
+        assertEquals(2, bindCount.get());
+        assertEquals(1, ldapManager.contextPool.getIdleSize());
+
+        ldapManager.updateConfig();
+        assertNull(ldapManager.contextPool);
+    }
+
+    public void test_DirContextPool() throws Exception {
+        createLdapManager(5);
+        final Hashtable<String, String> env = new Hashtable<>();
+        env.put(javax.naming.Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
+        env.put(javax.naming.Context.SECURITY_AUTHENTICATION, "simple");
+        env.put(javax.naming.Context.PROVIDER_URL, "ldap://localhost:" + server.getListenPort());
+        env.put(javax.naming.Context.SECURITY_PRINCIPAL, "cn=Directory Manager");
+        env.put(javax.naming.Context.SECURITY_CREDENTIALS, "password");
+
+        final AtomicInteger validCount = new AtomicInteger();
+        final DirContextPool pool = new DirContextPool(env, 1, 60000L) {
+            @Override
+            protected boolean validate(final DirContext context) {
+                return validCount.getAndDecrement() > 0 && super.validate(context);
+            }
+        };
+        final DirContext context1 = pool.borrow();
+        final DirContext context2 = pool.borrow();
+        assertNotSame(context1, context2);
+        pool.release(context1);
+        pool.release(context2);
+        assertEquals(1, pool.getIdleSize());
+        assertEquals(2, bindCount.get());
+
+        validCount.set(1);
+        final DirContext context3 = pool.borrow();
+        assertSame(context1, context3);
+        pool.release(context3);
+
+        // invalid contexts are closed
+        final DirContext context4 = pool.borrow();
+        assertNotSame(context1, context4);
+        assertEquals(3, bindCount.get());
+        pool.release(context4);
+
+        final DirContextPool idlePool = new DirContextPool(env, 1, 0L);
+        idlePool.release(idlePool.borrow());
+        Thread.sleep(10L);
+        idlePool.evictIdleContexts();
+        assertEquals(0, idlePool.getIdleSize());
+
+        pool.close();
+        assertEquals(0, pool.getIdleSize());
+        assertFalse(pool.accepts(env));
+    }
+
+    @SuppressWarnings("serial")
+    private LdapManager createLdapManager(final int poolSize) throws Exception {
+        final InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials("cn=Directory Manager", "password");
+        config.setSchema(null);
+        config.addInMemoryOperationInterceptor(new InMemoryOperationInterceptor() {
+            @Override
+            public void processSearchRequest(final InMemoryInterceptedSearchRequest request) {
+                if (request.getRequest().getFilter().toString().contains("uid=")) {
+                    userSearchCount.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void processSimpleBindRequest(final InMemoryInterceptedSimpleBindRequest request) {
+                bindCount.incrementAndGet();
+            }
+        });
+        server = new InMemoryDirectoryServer(config);
+        server.add("dn: " + BASE_DN, "objectClass: top", "objectClass: domain", "dc: fess");
+        server.add("dn: ou=People," + BASE_DN, "objectClass: top", "objectClass: organizationalUnit", "ou: People");
+        server.add("dn: uid=taro,ou=People," + BASE_DN, "objectClass: top", "objectClass: inetOrgPerson", "uid: taro", "cn: taro",
+                "sn: taro", "userPassword: taro", "memberOf: cn=group1,ou=Group," + BASE_DN, "memberOf: cn=role1,ou=Role," + BASE_DN);
+        server.add("dn: uid=hanako,ou=People," + BASE_DN, "objectClass: top", "objectClass: inetOrgPerson", "uid: hanako",
+                "cn: hanako", "sn: hanako", "userPassword: hanako");
+        server.startListening();
+        final String providerUrl = "ldap://localhost:" + server.getListenPort();
+
+        ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
+            @Override
+            public String getLdapInitialContextFactory() {
+                return "com.sun.jndi.ldap.LdapCtxFactory";
+            }
+
+            @Override
+            public String getLdapSecurityAuthentication() {
+                return "simple";
+            }
+
+            @Override
+            public String getLdapProviderUrl() {
+                return providerUrl;
+            }
+
+            @Override
+            public String getLdapSecurityPrincipal(final String username) {
+                return "uid=" + username + ",ou=People," + BASE_DN;
+            }
+
+            @Override
+            public String getLdapAdminSecurityPrincipal() {
+                return "cn=Directory Manager";
+            }
+
+            @Override
+            public String getLdapAdminSecurityCredentials() {
+                return "password";
+            }
+
+            @Override
+            public String getLdapMemberofAttribute() {
+                return "memberOf";
+            }
+
+            @Override
+            public Integer getLdapContextPoolSizeAsInteger() {
+                return poolSize;
+            }
+        });
+        ComponentUtil.register(new SystemHelper(), "systemHelper");
+        userSearchCount.set(0);
+        bindCount.set(0);
+
+        final LdapManager ldapManager = new LdapManager();
+        ldapManager.init();
+        return ldapManager;
+    }
 }
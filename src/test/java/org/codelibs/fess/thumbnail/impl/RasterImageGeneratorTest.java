@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.thumbnail.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+
+import org.codelibs.fess.unit.UnitFessTestCase;
+
+public class RasterImageGeneratorTest extends UnitFessTestCase {
+
+    public void test_saveImage() throws Exception {
+        RasterImageGenerator generator = new RasterImageGenerator();
+        File outputFile = File.createTempFile("generator_", ".png");
+
+        assertTrue(saveImage(generator, "thumbnail/600x400.png", outputFile));
+        assertImageSize(outputFile, 100, 67);
+
+        assertTrue(saveImage(generator, "thumbnail/600x400.gif", outputFile));
+        assertImageSize(outputFile, 100, 67);
+
+        assertTrue(saveImage(generator, "thumbnail/600x400.jpg", outputFile));
+        assertImageSize(outputFile, 100, 67);
+
+        assertTrue(saveImage(generator, "thumbnail/400x400.png", outputFile));
+        assertImageSize(outputFile, 100, 100);
+
+        assertTrue(saveImage(generator, "thumbnail/400x600.png", outputFile));
+        assertImageSize(outputFile, 67, 100);
+
+        assertTrue(saveImage(generator, "thumbnail/400x600.jpg", outputFile));
+        assertImageSize(outputFile, 67, 100);
+    }
+
+    public void test_saveImage_tooLarge() throws Exception {
+        RasterImageGenerator generator = new RasterImageGenerator();
+        generator.setMaxImageWidth(500);
+        File outputFile = File.createTempFile("generator_", ".png");
+
+        assertFalse(saveImage(generator, "thumbnail/600x400.png", outputFile));
+        assertTrue(saveImage(generator, "thumbnail/400x600.png", outputFile));
+    }
+
+    private boolean saveImage(RasterImageGenerator generator, String imagePath, File outputFile) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (ImageInputStream input = ImageIO.createImageInputStream(classLoader.getResourceAsStream(imagePath))) {
+            return generator.saveImage(input, outputFile);
+        }
+    }
+
+    private void assertImageSize(File file, int width, int height) throws IOException {
+        BufferedImage img = ImageIO.read(file);
+        assertEquals("Image Width", width, img.getWidth());
+        assertEquals("Image Height", height, img.getHeight());
+    }
+}
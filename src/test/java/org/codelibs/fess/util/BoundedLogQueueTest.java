@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codelibs.fess.unit.UnitFessTestCase;
+import org.codelibs.fess.util.BoundedLogQueue.OverflowPolicy;
+
+public class BoundedLogQueueTest extends UnitFessTestCase {
+
+    public void test_OverflowPolicy_of() {
+        assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.of("drop_oldest"));
+        assertEquals(OverflowPolicy.SAMPLE, OverflowPolicy.of("sample"));
+        assertEquals(OverflowPolicy.SPILL, OverflowPolicy.of(" SPILL "));
+        assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.of("unknown"));
+        assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.of(null));
+    }
+
+    public void test_dropOldest() {
+        final BoundedLogQueue<Integer> queue = new BoundedLogQueue<>(3, OverflowPolicy.DROP_OLDEST, 1, null);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(0, queue.getSpilledCount());
+
+        final List<Integer> list = new ArrayList<>();
+        assertEquals(3, queue.drainTo(list, 10));
+        assertEquals("[2, 3, 4]", list.toString());
+        assertTrue(queue.isEmpty());
+    }
+
+    public void test_sample() {
+        final BoundedLogQueue<Integer> queue = new BoundedLogQueue<>(4, OverflowPolicy.SAMPLE, 2, null);
+        assertTrue(queue.offer(0));
+        assertTrue(queue.offer(1));
+        // half full: every second entry is kept
+        assertFalse(queue.offer(2));
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+        assertTrue(queue.offer(5));
+        // full
+        assertFalse(queue.offer(6));
+        assertFalse(queue.offer(7));
+        assertEquals(4, queue.size());
+        assertEquals(4, queue.getDroppedCount());
+
+        final List<Integer> list = new ArrayList<>();
+        queue.drainTo(list, 10);
+        assertEquals("[0, 1, 3, 5]", list.toString());
+    }
+
+    public void test_spill() {
+        final List<Integer> spilledList = new ArrayList<>();
+        final BoundedLogQueue<Integer> queue = new BoundedLogQueue<>(2, OverflowPolicy.SPILL, 1, spilledList::add);
+        assertTrue(queue.offer(0));
+        assertTrue(queue.offer(1));
+        assertFalse(queue.offer(2));
+        assertFalse(queue.offer(3));
+        assertEquals("[2, 3]", spilledList.toString());
+        assertEquals(2, queue.getSpilledCount());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    public void test_spill_failure() {
+        final BoundedLogQueue<Integer> queue = new BoundedLogQueue<>(1, OverflowPolicy.SPILL, 1, i -> {
+            throw new IllegalStateException("full");
+        });
+        assertTrue(queue.offer(0));
+        assertFalse(queue.offer(1));
+        assertEquals(0, queue.getSpilledCount());
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    public void test_spill_withoutHandler() {
+        final BoundedLogQueue<Integer> queue = new BoundedLogQueue<>(1, OverflowPolicy.SPILL, 1, null);
+        assertEquals(OverflowPolicy.DROP_OLDEST, queue.getOverflowPolicy());
+        assertTrue(queue.offer(0));
+        assertTrue(queue.offer(1));
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    public void test_requeue_spill() {
+        final List<Integer> spilledList = new ArrayList<>();
+        final BoundedLogQueue<Integer> queue = new BoundedLogQueue<>(2, OverflowPolicy.SPILL, 1, spilledList::add);
+        queue.offer(0);
+        queue.offer(1);
+        final List<Integer> list = new ArrayList<>();
+        queue.drainTo(list, 10);
+
+        queue.requeue(list);
+        assertTrue(queue.isEmpty());
+        assertEquals("[0, 1]", spilledList.toString());
+        assertEquals(2, queue.getSpilledCount());
+    }
+
+    public void test_requeue_dropOldest() {
+        final BoundedLogQueue<Integer> queue = new BoundedLogQueue<>(3, OverflowPolicy.DROP_OLDEST, 1, null);
+        queue.offer(0);
+        queue.offer(1);
+        final List<Integer> list = new ArrayList<>();
+        queue.drainTo(list, 10);
+        queue.offer(2);
+        queue.offer(3);
+
+        queue.requeue(list);
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getDroppedCount());
+        list.clear();
+        queue.drainTo(list, 10);
+        assertEquals("[3, 0, 1]", list.toString());
+    }
+}
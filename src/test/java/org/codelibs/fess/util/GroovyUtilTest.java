@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2018 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.fess.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.codelibs.fess.mylasta.direction.FessConfig;
+import org.codelibs.fess.unit.UnitFessTestCase;
+
+import groovy.lang.GroovyClassLoader;
+
+public class GroovyUtilTest extends UnitFessTestCase {
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        GroovyUtil.clearScriptCache();
+    }
+
+    public void test_evaluate() {
+        final Map<String, Object> params = new HashMap<>();
+        assertNull(GroovyUtil.evaluate("", params));
+        assertEquals("", GroovyUtil.evaluate("return ''", params));
+        assertEquals(1, GroovyUtil.evaluate("return 1", params));
+
+        params.put("test", "123");
+        assertEquals("123", GroovyUtil.evaluate("return test", params));
+        assertEquals(Boolean.TRUE, GroovyUtil.evaluate("test == '123'", params));
+
+        assertNull(GroovyUtil.evaluate("return unknown", params));
+        assertNull(GroovyUtil.evaluate("return (", params));
+    }
+
+    public void test_evaluate_cache() {
+        final long hitCount = GroovyUtil.getScriptCacheStats().hitCount();
+        final Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            params.put("value", i);
+            assertEquals(i * 2, GroovyUtil.evaluate("value * 2", params));
+        }
+        assertEquals(1, GroovyUtil.getScriptCacheSize());
+        assertEquals(hitCount + 9, GroovyUtil.getScriptCacheStats().hitCount());
+
+        params.remove("value");
+        assertNull(GroovyUtil.evaluate("value * 2", params));
+        params.put("value", 3);
+        assertEquals(6, GroovyUtil.evaluate("value * 2", params));
+
+        GroovyUtil.clearScriptCache();
+        assertEquals(0, GroovyUtil.getScriptCacheSize());
+    }
+
+    public void test_evaluate_noCache() {
+        ComponentUtil.setFessConfig(new FessConfig.SimpleImpl() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean isGroovyScriptCacheEnabled() {
+                return false;
+            }
+        });
+
+        final Map<String, Object> params = new HashMap<>();
+        params.put("value", 2);
+        assertEquals(4, GroovyUtil.evaluate("value * 2", params));
+        assertEquals(0, GroovyUtil.getScriptCacheSize());
+    }
+
+    public void test_evaluate_contextClassLoader() throws Exception {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader originalLoader = thread.getContextClassLoader();
+        try (GroovyClassLoader pluginLoader = new GroovyClassLoader(originalLoader)) {
+            pluginLoader.parseClass("class GroovyUtilTestPlugin { static String getName() { 'plugin' } }");
+            thread.setContextClassLoader(pluginLoader);
+
+            final Map<String, Object> params = new HashMap<>();
+            assertEquals("plugin", GroovyUtil.evaluate("GroovyUtilTestPlugin.getName()", params));
+            assertEquals(1, GroovyUtil.getScriptCacheSize());
+        } finally {
+            thread.setContextClassLoader(originalLoader);
+        }
+    }
+}